@@ -13,6 +13,7 @@
 
 const NativeAnimatedModule = require('NativeModules').NativeAnimatedModule;
 const NativeEventEmitter = require('NativeEventEmitter');
+const Platform = require('Platform');
 
 const invariant = require('fbjs/lib/invariant');
 
@@ -115,6 +116,38 @@ const STYLES_WHITELIST = {
   translateY: true,
 };
 
+/* layout properties are applied through the shadow hierarchy on android */
+const LAYOUT_STYLES_WHITELIST = {
+  width: true,
+  height: true,
+  minWidth: true,
+  maxWidth: true,
+  minHeight: true,
+  maxHeight: true,
+  top: true,
+  left: true,
+  right: true,
+  bottom: true,
+  flex: true,
+  flexGrow: true,
+  flexShrink: true,
+  flexBasis: true,
+  margin: true,
+  marginVertical: true,
+  marginHorizontal: true,
+  marginTop: true,
+  marginBottom: true,
+  marginLeft: true,
+  marginRight: true,
+  padding: true,
+  paddingVertical: true,
+  paddingHorizontal: true,
+  paddingTop: true,
+  paddingBottom: true,
+  paddingLeft: true,
+  paddingRight: true,
+};
+
 const TRANSFORM_WHITELIST = {
   translateX: true,
   translateY: true,
@@ -137,7 +170,10 @@ function validateTransform(configs: Array<Object>): void {
 
 function validateStyles(styles: Object): void {
   for (var key in styles) {
-    if (!STYLES_WHITELIST.hasOwnProperty(key)) {
+    if (
+      !STYLES_WHITELIST.hasOwnProperty(key) &&
+      !(Platform.OS === 'android' && LAYOUT_STYLES_WHITELIST.hasOwnProperty(key))
+    ) {
       throw new Error(`Style property '${key}' is not supported by native animated module`);
     }
   }
@@ -18,7 +18,8 @@ const performanceNow = require('fbjs/lib/performanceNow');
 const warning = require('fbjs/lib/warning');
 
 // These timing contants should be kept in sync with the ones in native ios and
-// android `RCTTiming` module.
+// android `RCTTiming` module. The frame duration is only used when native
+// doesn't pass the deadline of the frame.
 const FRAME_DURATION = 1000 / 60;
 const IDLE_CALLBACK_FRAME_DEADLINE = 1;
 
@@ -54,7 +55,7 @@ const JSTimersExecution = {
    * if it was a one time timer (setTimeout), and not unregister it if it was
    * recurring (setInterval).
    */
-  callTimer(timerID: number, frameTime: number) {
+  callTimer(timerID: number, deadline: number) {
     warning(
       timerID <= JSTimersExecution.GUID,
       'Tried to call timer with ID %s but no such timer exists.',
@@ -101,7 +102,7 @@ const JSTimersExecution = {
             // TODO: Optimisation: allow running for longer than one frame if
             // there are no pending JS calls on the bridge from native. This
             // would require a way to check the bridge queue synchronously.
-            return Math.max(0, FRAME_DURATION - (performanceNow() - frameTime));
+            return Math.max(0, deadline - performanceNow());
           },
         });
       } else {
@@ -153,8 +154,14 @@ const JSTimersExecution = {
     }
   },
 
-  callIdleCallbacks: function(frameTime: number) {
-    if (FRAME_DURATION - (performanceNow() - frameTime) < IDLE_CALLBACK_FRAME_DEADLINE) {
+  /**
+   * This is called from the native side with the start of the frame and,
+   * on platforms that measure the actual frame duration, the time by which
+   * idle work has to be done.
+   */
+  callIdleCallbacks: function(frameTime: number, deadline?: number) {
+    const idleDeadline = deadline != null ? deadline : frameTime + FRAME_DURATION;
+    if (idleDeadline - performanceNow() < IDLE_CALLBACK_FRAME_DEADLINE) {
       return;
     }
 
@@ -164,7 +171,7 @@ const JSTimersExecution = {
       JSTimersExecution.requestIdleCallbacks = [];
 
       for (let i = 0; i < passIdleCallbacks.length; ++i) {
-        JSTimersExecution.callTimer(passIdleCallbacks[i], frameTime);
+        JSTimersExecution.callTimer(passIdleCallbacks[i], idleDeadline);
       }
     }
 
@@ -153,7 +153,10 @@ var Image = React.createClass({
      *
      * - `resize`: A software operation which changes the encoded image in memory before it
      * gets decoded. This should be used instead of `scale` when the image is much larger
-     * than the view.
+     * than the view. Remote images are only resized when this is set explicitly; they are
+     * requested at the size of the view from the first load on. A resized image is cached
+     * apart from the full size one, so it doesn't hit images prefetched with
+     * `{memory: true}`, which `queryCache` reports as "memory".
      *
      * - `scale`: The image gets drawn downscaled or upscaled. Compared to `resize`, `scale` is
      * faster (usually hardware accelerated) and produces higher quality images. This
@@ -214,6 +217,25 @@ var Image = React.createClass({
       return ImageLoader.prefetchImage(url, requestId);
     },
 
+    /**
+     * Prefetches several remote images with a single call. Resolves with a
+     * mapping from url to "success", "failure" or "invalid" once all of them
+     * are done. Pass `{memory: true}` to prefetch the decoded images into the
+     * memory cache instead of the disk cache. Images decoded at full size only
+     * serve image views that don't use `resizeMethod="resize"`. All prefetches can be aborted at
+     * once with the request id passed to the callback, the urls that were still
+     * loading are then resolved with "aborted".
+     */
+    prefetchImages(
+      urls: Array<string>,
+      options?: {memory?: boolean},
+      callback: ?Function,
+    ): Promise<{[url: string]: 'success' | 'failure' | 'invalid' | 'aborted'}> {
+      const requestId = generateRequestId();
+      callback && callback(requestId);
+      return ImageLoader.prefetchImages(urls, requestId, options || {});
+    },
+
     /**
      * Abort prefetch request
      */
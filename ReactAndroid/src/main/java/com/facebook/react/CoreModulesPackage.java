@@ -79,16 +79,22 @@ import static com.facebook.react.bridge.ReactMarkerConstants.PROCESS_CORE_REACT_
   private final DefaultHardwareBackBtnHandler mHardwareBackBtnHandler;
   private final UIImplementationProvider mUIImplementationProvider;
   private final boolean mLazyViewManagersEnabled;
+  private final boolean mTimerWheelEnabled;
+  private final boolean mBackgroundTimersEnabled;
 
   CoreModulesPackage(
     ReactInstanceManager reactInstanceManager,
     DefaultHardwareBackBtnHandler hardwareBackBtnHandler,
     UIImplementationProvider uiImplementationProvider,
-    boolean lazyViewManagersEnabled) {
+    boolean lazyViewManagersEnabled,
+    boolean timerWheelEnabled,
+    boolean backgroundTimersEnabled) {
     mReactInstanceManager = reactInstanceManager;
     mHardwareBackBtnHandler = hardwareBackBtnHandler;
     mUIImplementationProvider = uiImplementationProvider;
     mLazyViewManagersEnabled = lazyViewManagersEnabled;
+    mTimerWheelEnabled = timerWheelEnabled;
+    mBackgroundTimersEnabled = backgroundTimersEnabled;
   }
 
   @Override
@@ -143,7 +149,11 @@ import static com.facebook.react.bridge.ReactMarkerConstants.PROCESS_CORE_REACT_
       new ModuleSpec(Timing.class, new Provider<NativeModule>() {
         @Override
         public NativeModule get() {
-          return new Timing(reactContext, mReactInstanceManager.getDevSupportManager());
+          return new Timing(
+            reactContext,
+            mReactInstanceManager.getDevSupportManager(),
+            mTimerWheelEnabled,
+            mBackgroundTimersEnabled);
         }
       }));
     moduleSpecList.add(
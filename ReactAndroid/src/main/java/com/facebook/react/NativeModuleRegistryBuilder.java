@@ -11,6 +11,7 @@ import com.facebook.common.logging.FLog;
 import com.facebook.react.bridge.BaseJavaModule;
 import com.facebook.react.bridge.ModuleSpec;
 import com.facebook.react.bridge.NativeModule;
+import com.facebook.react.bridge.MemoryPressureListener;
 import com.facebook.react.bridge.OnBatchCompleteListener;
 import com.facebook.react.bridge.ReactApplicationContext;
 import com.facebook.react.bridge.ReactMarker;
@@ -132,15 +133,20 @@ public class NativeModuleRegistryBuilder {
 
   public NativeModuleRegistry build() {
     ArrayList<ModuleHolder> batchCompleteListenerModules = new ArrayList<>();
+    ArrayList<ModuleHolder> memoryPressureListenerModules = new ArrayList<>();
     for (Map.Entry<Class<? extends NativeModule>, ModuleHolder> entry : mModules.entrySet()) {
       if (OnBatchCompleteListener.class.isAssignableFrom(entry.getKey())) {
         batchCompleteListenerModules.add(entry.getValue());
       }
+      if (MemoryPressureListener.class.isAssignableFrom(entry.getKey())) {
+        memoryPressureListenerModules.add(entry.getValue());
+      }
     }
 
     return new NativeModuleRegistry(
       mReactApplicationContext,
       mModules,
-      batchCompleteListenerModules);
+      batchCompleteListenerModules,
+      memoryPressureListenerModules);
   }
 }
@@ -153,6 +153,8 @@ public class ReactInstanceManager {
   private final boolean mLazyViewManagersEnabled;
   private final boolean mSetupReactContextInBackgroundEnabled;
   private final boolean mUseSeparateUIBackgroundThread;
+  private final boolean mTimerWheelEnabled;
+  private final boolean mBackgroundTimersEnabled;
 
   private final ReactInstanceDevCommandsHandler mDevInterface =
       new ReactInstanceDevCommandsHandler() {
@@ -225,7 +227,9 @@ public class ReactInstanceManager {
     boolean lazyNativeModulesEnabled,
     boolean lazyViewManagersEnabled,
     boolean setupReactContextInBackgroundEnabled,
-    boolean useSeparateUIBackgroundThread) {
+    boolean useSeparateUIBackgroundThread,
+    boolean timerWheelEnabled,
+    boolean backgroundTimersEnabled) {
 
     initializeSoLoaderIfNecessary(applicationContext);
 
@@ -254,6 +258,8 @@ public class ReactInstanceManager {
     mLazyViewManagersEnabled = lazyViewManagersEnabled;
     mSetupReactContextInBackgroundEnabled = setupReactContextInBackgroundEnabled;
     mUseSeparateUIBackgroundThread = useSeparateUIBackgroundThread;
+    mTimerWheelEnabled = timerWheelEnabled;
+    mBackgroundTimersEnabled = backgroundTimersEnabled;
 
     // Instantiate ReactChoreographer in UI thread.
     ReactChoreographer.initialize();
@@ -902,7 +908,9 @@ public class ReactInstanceManager {
           this,
           mBackBtnHandler,
           mUIImplementationProvider,
-          mLazyViewManagersEnabled);
+          mLazyViewManagersEnabled,
+          mTimerWheelEnabled,
+          mBackgroundTimersEnabled);
       processPackage(coreModulesPackage, nativeModuleRegistryBuilder, jsModulesBuilder);
     } finally {
       Systrace.endSection(TRACE_TAG_REACT_JAVA_BRIDGE);
@@ -44,6 +44,8 @@ public class ReactInstanceManagerBuilder {
   protected boolean mLazyViewManagersEnabled;
   protected boolean mSetupReactContextInBackground;
   protected boolean mUseSeparateUIBackgroundThread;
+  protected boolean mTimerWheelEnabled;
+  protected boolean mBackgroundTimersEnabled;
 
   /* package protected */ ReactInstanceManagerBuilder() {
   }
@@ -194,12 +196,37 @@ public class ReactInstanceManagerBuilder {
     return this;
   }
 
+  /**
+   * Run the UIManager (shadow node updates and layout) and the native animated module on a
+   * dedicated thread instead of the native modules thread. Layout of a big batch then no longer
+   * delays calls to other native modules, and the JS thread can keep sending batches while the
+   * previous one is still being laid out.
+   */
   public ReactInstanceManagerBuilder setUseSeparateUIBackgroundThread(
     boolean useSeparateUIBackgroundThread) {
    mUseSeparateUIBackgroundThread = useSeparateUIBackgroundThread;
    return this;
   }
 
+  /**
+   * Store JS timers in a hierarchical timer wheel, making creating and clearing timers O(1). Useful
+   * for apps that keep thousands of timers alive at the same time.
+   */
+  public ReactInstanceManagerBuilder setTimerWheelEnabled(boolean timerWheelEnabled) {
+    mTimerWheelEnabled = timerWheelEnabled;
+    return this;
+  }
+
+  /**
+   * Fire JS timers longer than a frame from the JS thread instead of checking them on every frame
+   * from the UI thread. An app that only has such timers pending no longer wakes up the UI thread
+   * every frame, and those timers keep firing while the app is in the background.
+   */
+  public ReactInstanceManagerBuilder setBackgroundTimersEnabled(boolean backgroundTimersEnabled) {
+    mBackgroundTimersEnabled = backgroundTimersEnabled;
+    return this;
+  }
+
   /**
    * Instantiates a new {@link ReactInstanceManager}.
    * Before calling {@code build}, the following must be called:
@@ -246,6 +273,8 @@ public class ReactInstanceManagerBuilder {
       mLazyNativeModulesEnabled,
       mLazyViewManagersEnabled,
       mSetupReactContextInBackground,
-      mUseSeparateUIBackgroundThread);
+      mUseSeparateUIBackgroundThread,
+      mTimerWheelEnabled,
+      mBackgroundTimersEnabled);
   }
 }
@@ -12,6 +12,9 @@ package com.facebook.react.animated;
 import com.facebook.react.bridge.ReadableMap;
 import com.facebook.react.bridge.WritableArray;
 import com.facebook.react.bridge.WritableMap;
+import com.facebook.react.uimanager.events.Event;
+import com.facebook.react.uimanager.events.EventDataKeys;
+import com.facebook.react.uimanager.events.NumericEventData;
 import com.facebook.react.uimanager.events.RCTEventEmitter;
 
 import java.util.List;
@@ -20,16 +23,45 @@ import javax.annotation.Nullable;
 
 /**
  * Handles updating a {@link ValueAnimatedNode} when an event gets dispatched.
+ *
+ * Events implementing {@link NumericEventData} are read directly using the key resolved from the
+ * event path when the driver is created, other events are serialized and the event path is looked
+ * up in the resulting map.
  */
 /* package */ class EventAnimationDriver implements RCTEventEmitter {
   private List<String> mEventPath;
+  private final int mEventDataKey;
   /* package */ ValueAnimatedNode mValueNode;
+  /* package */ final String mEventName;
+  /* package */ final String mNativeEventName;
 
-  public EventAnimationDriver(List<String> eventPath, ValueAnimatedNode valueNode) {
+  public EventAnimationDriver(
+      String eventName,
+      String nativeEventName,
+      List<String> eventPath,
+      ValueAnimatedNode valueNode) {
+    mEventName = eventName;
+    mNativeEventName = nativeEventName;
     mEventPath = eventPath;
+    mEventDataKey = EventDataKeys.fromPath(eventPath);
     mValueNode = valueNode;
   }
 
+  /**
+   * Updates the value node from the given event, avoiding serialization of the event data when the
+   * event supports it.
+   */
+  public void updateFromEvent(Event event) {
+    if (mEventDataKey != EventDataKeys.UNKNOWN && event instanceof NumericEventData) {
+      NumericEventData eventData = (NumericEventData) event;
+      if (eventData.hasEventData(mEventDataKey)) {
+        mValueNode.mValue = eventData.getEventData(mEventDataKey);
+        return;
+      }
+    }
+    event.dispatch(this);
+  }
+
   @Override
   public void receiveEvent(int targetTag, String eventName, @Nullable WritableMap event) {
     if (event == null) {
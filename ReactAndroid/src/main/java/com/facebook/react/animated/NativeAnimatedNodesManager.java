@@ -30,7 +30,6 @@ import com.facebook.react.uimanager.events.EventDispatcherListener;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.ListIterator;
@@ -57,9 +56,10 @@ import javax.annotation.Nullable;
   private final SparseArray<AnimatedNode> mAnimatedNodes = new SparseArray<>();
   private final SparseArray<AnimationDriver> mActiveAnimations = new SparseArray<>();
   private final SparseArray<AnimatedNode> mUpdatedNodes = new SparseArray<>();
-  // Mapping of a view tag and an event name to a list of event animation drivers. 99% of the time
-  // there will be only one driver per mapping so all code code should be optimized around that.
-  private final Map<String, List<EventAnimationDriver>> mEventDrivers = new HashMap<>();
+  // Mapping of a view tag to a list of event animation drivers. 99% of the time there will be only
+  // one driver per view so all code code should be optimized around that. Event names are matched
+  // within the list so dispatching an event does not need to build a string key.
+  private final SparseArray<List<EventAnimationDriver>> mEventDrivers = new SparseArray<>();
   private final Map<String, Map<String, String>> mCustomEventTypes;
   private final UIImplementation mUIImplementation;
   private int mAnimatedGraphBFSColor = 0;
@@ -315,35 +315,50 @@ import javax.annotation.Nullable;
       pathList.add(path.getString(i));
     }
 
-    EventAnimationDriver event = new EventAnimationDriver(pathList, (ValueAnimatedNode) node);
-    String key = viewTag + eventName;
-    if (mEventDrivers.containsKey(key)) {
-      mEventDrivers.get(key).add(event);
-    } else {
-      List<EventAnimationDriver> drivers = new ArrayList<>(1);
-      drivers.add(event);
-      mEventDrivers.put(key, drivers);
+    EventAnimationDriver event = new EventAnimationDriver(
+      eventName,
+      resolveNativeEventName(eventName),
+      pathList,
+      (ValueAnimatedNode) node);
+    List<EventAnimationDriver> drivers = mEventDrivers.get(viewTag);
+    if (drivers == null) {
+      drivers = new ArrayList<>(1);
+      mEventDrivers.put(viewTag, drivers);
     }
+    drivers.add(event);
   }
 
   public void removeAnimatedEventFromView(int viewTag, String eventName, int animatedValueTag) {
-    String key = viewTag + eventName;
-    if (mEventDrivers.containsKey(key)) {
-      List<EventAnimationDriver> driversForKey = mEventDrivers.get(key);
-      if (driversForKey.size() == 1) {
-        mEventDrivers.remove(viewTag + eventName);
-      } else {
-        ListIterator<EventAnimationDriver> it = driversForKey.listIterator();
-        while (it.hasNext()) {
-          if (it.next().mValueNode.mTag == animatedValueTag) {
-            it.remove();
-            break;
-          }
+    List<EventAnimationDriver> driversForView = mEventDrivers.get(viewTag);
+    if (driversForView != null) {
+      ListIterator<EventAnimationDriver> it = driversForView.listIterator();
+      while (it.hasNext()) {
+        EventAnimationDriver driver = it.next();
+        if (driver.mEventName.equals(eventName) &&
+            driver.mValueNode.mTag == animatedValueTag) {
+          it.remove();
+          break;
         }
       }
+      if (driversForView.isEmpty()) {
+        mEventDrivers.remove(viewTag);
+      }
     }
   }
 
+  /**
+   * Events are registered from JS using their JS name, which for custom events differs from the
+   * name they are dispatched with in native. Resolve it once here rather than on every event.
+   */
+  private String resolveNativeEventName(String eventName) {
+    for (Map.Entry<String, Map<String, String>> customEventType : mCustomEventTypes.entrySet()) {
+      if (eventName.equals(customEventType.getValue().get("registrationName"))) {
+        return customEventType.getKey();
+      }
+    }
+    return eventName;
+  }
+
   @Override
   public void onEventDispatch(Event event) {
     // Only support events dispatched from the UI thread.
@@ -351,22 +366,21 @@ import javax.annotation.Nullable;
       return;
     }
 
-    if (!mEventDrivers.isEmpty()) {
-      // If the event has a different name in native convert it to it's JS name.
-      String eventName = event.getEventName();
-      Map<String, String> customEventType = mCustomEventTypes.get(eventName);
-      if (customEventType != null) {
-        eventName = customEventType.get("registrationName");
-      }
-
-      List<EventAnimationDriver> driversForKey = mEventDrivers.get(event.getViewTag() + eventName);
-      if (driversForKey != null) {
-        for (EventAnimationDriver driver : driversForKey) {
-          event.dispatch(driver);
-          mRunUpdateNodeList.add(driver.mValueNode);
+    if (mEventDrivers.size() > 0) {
+      List<EventAnimationDriver> driversForView = mEventDrivers.get(event.getViewTag());
+      if (driversForView != null) {
+        String eventName = event.getEventName();
+        for (int i = 0; i < driversForView.size(); i++) {
+          EventAnimationDriver driver = driversForView.get(i);
+          if (driver.mNativeEventName.equals(eventName)) {
+            driver.updateFromEvent(event);
+            mRunUpdateNodeList.add(driver.mValueNode);
+          }
+        }
+        if (!mRunUpdateNodeList.isEmpty()) {
+          updateNodes(mRunUpdateNodeList);
+          mRunUpdateNodeList.clear();
         }
-        updateNodes(mRunUpdateNodeList);
-        mRunUpdateNodeList.clear();
       }
     }
   }
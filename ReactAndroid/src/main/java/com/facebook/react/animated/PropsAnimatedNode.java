@@ -14,6 +14,7 @@ import com.facebook.react.bridge.ReadableMap;
 import com.facebook.react.bridge.ReadableMapKeySetIterator;
 import com.facebook.react.uimanager.ReactStylesDiffMap;
 import com.facebook.react.uimanager.UIImplementation;
+import com.facebook.react.uimanager.ViewProps;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -24,6 +25,10 @@ import javax.annotation.Nullable;
  * Animated node that represents view properties. There is a special handling logic implemented for
  * the nodes of this type in {@link NativeAnimatedNodesManager} that is responsible for extracting
  * a map of updated properties, which can be then passed down to the view.
+ *
+ * Layout-only properties (width, height, margins, flex, etc.) can't be applied to the native view
+ * directly as they affect the position of other views, so they are split out and sent through the
+ * shadow hierarchy with {@link UIImplementation#enqueueAnimatedLayoutUpdate}.
  */
 /*package*/ class PropsAnimatedNode extends AnimatedNode {
 
@@ -62,12 +67,53 @@ import javax.annotation.Nullable;
             node.getClass());
       }
     }
+    JavaOnlyMap viewPropsMap = propsMap;
+    @Nullable JavaOnlyMap layoutPropsMap = null;
+    ReadableMapKeySetIterator iter = propsMap.keySetIterator();
+    while (iter.hasNextKey()) {
+      if (ViewProps.isLayoutOnly(propsMap, iter.nextKey())) {
+        layoutPropsMap = new JavaOnlyMap();
+        viewPropsMap = new JavaOnlyMap();
+        break;
+      }
+    }
+    if (layoutPropsMap != null) {
+      iter = propsMap.keySetIterator();
+      while (iter.hasNextKey()) {
+        String key = iter.nextKey();
+        if (ViewProps.isLayoutOnly(propsMap, key)) {
+          layoutPropsMap.putDouble(key, propsMap.getDouble(key));
+        } else {
+          copyProp(propsMap, viewPropsMap, key);
+        }
+      }
+      uiImplementation.enqueueAnimatedLayoutUpdate(
+        mConnectedViewTag,
+        new ReactStylesDiffMap(layoutPropsMap));
+    }
+
     // TODO: Reuse propsMap and stylesDiffMap objects - note that in subsequent animation steps
     // for a given node most of the time we will be creating the same set of props (just with
     // different values). We can take advantage on that and optimize the way we allocate property
     // maps (we also know that updating view props doesn't retain a reference to the styles object).
-    uiImplementation.synchronouslyUpdateViewOnUIThread(
-      mConnectedViewTag,
-      new ReactStylesDiffMap(propsMap));
+    if (layoutPropsMap == null || viewPropsMap.keySetIterator().hasNextKey()) {
+      uiImplementation.synchronouslyUpdateViewOnUIThread(
+        mConnectedViewTag,
+        new ReactStylesDiffMap(viewPropsMap));
+    }
+  }
+
+  private static void copyProp(JavaOnlyMap from, JavaOnlyMap to, String key) {
+    switch (from.getType(key)) {
+      case Array:
+        to.putArray(key, from.getArray(key));
+        break;
+      case Map:
+        to.putMap(key, from.getMap(key));
+        break;
+      default:
+        to.putDouble(key, from.getDouble(key));
+        break;
+    }
   }
 }
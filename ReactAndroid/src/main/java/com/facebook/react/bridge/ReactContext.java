@@ -308,10 +308,26 @@ public class ReactContext extends ContextWrapper {
     Assertions.assertNotNull(mJSMessageQueueThread).runOnQueue(runnable);
   }
 
+  public void runOnJSQueueThreadDelayed(Runnable runnable, long delayMs) {
+    Assertions.assertNotNull(mJSMessageQueueThread).runOnQueueDelayed(runnable, delayMs);
+  }
+
   public boolean hasUIBackgroundRunnableThread() {
     return mUiBackgroundMessageQueueThread != null;
   }
 
+  /**
+   * Asserts that we're on the thread {@link #runUIBackgroundRunnable} runs on, which is where the
+   * shadow node hierarchy is updated and laid out.
+   */
+  public void assertOnUIBackgroundOrNativeModulesThread() {
+    if (mUiBackgroundMessageQueueThread == null) {
+      assertOnNativeModulesQueueThread();
+    } else {
+      assertOnUiBackgroundQueueThread();
+    }
+  }
+
   public void runUIBackgroundRunnable(Runnable runnable) {
     if (mUiBackgroundMessageQueueThread == null) {
       runOnNativeModulesQueueThread(runnable);
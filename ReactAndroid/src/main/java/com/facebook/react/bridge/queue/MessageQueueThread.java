@@ -26,6 +26,11 @@ public interface MessageQueueThread {
   @DoNotStrip
   void runOnQueue(Runnable runnable);
 
+  /**
+   * Runs the given Runnable on this Thread once {@code delayMs} milliseconds have elapsed.
+   */
+  void runOnQueueDelayed(Runnable runnable, long delayMs);
+
   /**
    * Runs the given Callable on this Thread. It will be submitted to the end of the event queue even
    * if it is being submitted from the same queue Thread.
@@ -61,6 +61,17 @@ public class MessageQueueThreadImpl implements MessageQueueThread {
     mHandler.post(runnable);
   }
 
+  @Override
+  public void runOnQueueDelayed(Runnable runnable, long delayMs) {
+    if (mIsFinished) {
+      FLog.w(
+          ReactConstants.TAG,
+          "Tried to enqueue runnable on already finished thread: '" + getName() +
+              "... dropping Runnable.");
+    }
+    mHandler.postDelayed(runnable, delayMs);
+  }
+
   @DoNotStrip
   @Override
   public <T> Future<T> callOnQueue(final Callable<T> callable) {
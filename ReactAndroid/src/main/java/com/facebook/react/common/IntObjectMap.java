@@ -0,0 +1,185 @@
+/**
+ * Copyright (c) 2015-present, Facebook, Inc.
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree. An additional grant
+ * of patent rights can be found in the PATENTS file in the same directory.
+ */
+
+package com.facebook.react.common;
+
+import javax.annotation.Nullable;
+
+/**
+ * Map from int keys to non-null objects backed by an open addressing hash table. Like a
+ * SparseArray but with O(1) insertion and removal, which matters once the map holds thousands of
+ * entries, and like a HashMap<Integer, V> but without the autoboxing.
+ *
+ * Uses linear probing with backward shift deletion, so there are no tombstones and lookups stay
+ * short no matter how many removals happened.
+ */
+public class IntObjectMap<V> {
+
+  private static final int MIN_CAPACITY = 8;
+
+  private int[] mKeys;
+  private Object[] mValues;
+  private int mSize;
+  private int mMask;
+
+  public IntObjectMap() {
+    this(MIN_CAPACITY);
+  }
+
+  public IntObjectMap(int initialCapacity) {
+    int capacity = MIN_CAPACITY;
+    // Keep the load factor under 0.5 for the expected number of entries.
+    while (capacity < initialCapacity * 2) {
+      capacity <<= 1;
+    }
+    allocate(capacity);
+  }
+
+  public int size() {
+    return mSize;
+  }
+
+  public boolean isEmpty() {
+    return mSize == 0;
+  }
+
+  public boolean containsKey(int key) {
+    return get(key) != null;
+  }
+
+  public @Nullable V get(int key) {
+    int index = hash(key) & mMask;
+    Object value;
+    while ((value = mValues[index]) != null) {
+      if (mKeys[index] == key) {
+        return (V) value;
+      }
+      index = (index + 1) & mMask;
+    }
+    return null;
+  }
+
+  /**
+   * @return the value previously mapped to the key, or null if there was none
+   */
+  public @Nullable V put(int key, V value) {
+    if (value == null) {
+      throw new IllegalArgumentException("IntObjectMap does not support null values");
+    }
+    int index = hash(key) & mMask;
+    Object existing;
+    while ((existing = mValues[index]) != null) {
+      if (mKeys[index] == key) {
+        mValues[index] = value;
+        return (V) existing;
+      }
+      index = (index + 1) & mMask;
+    }
+    mKeys[index] = key;
+    mValues[index] = value;
+    mSize++;
+    if (mSize * 4 > mValues.length * 3) {
+      rehash(mValues.length * 2);
+    }
+    return null;
+  }
+
+  /**
+   * @return the removed value, or null if the key was not in the map
+   */
+  public @Nullable V remove(int key) {
+    int index = hash(key) & mMask;
+    Object value;
+    while ((value = mValues[index]) != null) {
+      if (mKeys[index] == key) {
+        mSize--;
+        shiftBackFrom(index);
+        return (V) value;
+      }
+      index = (index + 1) & mMask;
+    }
+    return null;
+  }
+
+  public void clear() {
+    if (mSize == 0) {
+      return;
+    }
+    for (int i = 0; i < mValues.length; i++) {
+      mValues[i] = null;
+    }
+    mSize = 0;
+  }
+
+  /**
+   * Number of slots in the backing table. Together with {@link #keyAtSlot} and
+   * {@link #valueAtSlot} this allows iterating over the entries without allocating, slots for which
+   * {@link #valueAtSlot} returns null are empty.
+   */
+  public int slotCount() {
+    return mValues.length;
+  }
+
+  public int keyAtSlot(int slot) {
+    return mKeys[slot];
+  }
+
+  public @Nullable V valueAtSlot(int slot) {
+    return (V) mValues[slot];
+  }
+
+  /**
+   * Fills the hole left at {@code index} by moving back entries of the same probe sequence.
+   */
+  private void shiftBackFrom(int index) {
+    int hole = index;
+    int next = (hole + 1) & mMask;
+    Object value;
+    while ((value = mValues[next]) != null) {
+      int ideal = hash(mKeys[next]) & mMask;
+      // Move the entry if its ideal slot is not in the cyclic range (hole, next].
+      if (((next - ideal) & mMask) >= ((next - hole) & mMask)) {
+        mKeys[hole] = mKeys[next];
+        mValues[hole] = value;
+        hole = next;
+      }
+      next = (next + 1) & mMask;
+    }
+    mValues[hole] = null;
+  }
+
+  private void rehash(int newCapacity) {
+    int[] oldKeys = mKeys;
+    Object[] oldValues = mValues;
+    allocate(newCapacity);
+    for (int i = 0; i < oldValues.length; i++) {
+      Object value = oldValues[i];
+      if (value != null) {
+        int index = hash(oldKeys[i]) & mMask;
+        while (mValues[index] != null) {
+          index = (index + 1) & mMask;
+        }
+        mKeys[index] = oldKeys[i];
+        mValues[index] = value;
+      }
+    }
+  }
+
+  private void allocate(int capacity) {
+    mKeys = new int[capacity];
+    mValues = new Object[capacity];
+    mMask = capacity - 1;
+  }
+
+  private static int hash(int key) {
+    // React tags and timer ids are mostly sequential, spread them so they don't cluster.
+    int h = key * 0x9E3779B9;
+    return h ^ (h >>> 16);
+  }
+}
@@ -384,6 +384,7 @@ public class CatalystInstanceImpl implements CatalystInstance {
         handleMemoryPressureCritical();
         break;
     }
+    mJavaRegistry.handleMemoryPressure(level);
   }
 
   /**
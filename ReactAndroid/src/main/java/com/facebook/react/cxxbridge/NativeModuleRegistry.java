@@ -16,6 +16,8 @@ import java.util.Map;
 
 import com.facebook.infer.annotation.Assertions;
 import com.facebook.react.bridge.JSInstance;
+import com.facebook.react.bridge.MemoryPressure;
+import com.facebook.react.bridge.MemoryPressureListener;
 import com.facebook.react.bridge.NativeModule;
 import com.facebook.react.bridge.OnBatchCompleteListener;
 import com.facebook.react.bridge.ReactApplicationContext;
@@ -31,14 +33,28 @@ public class NativeModuleRegistry {
   private final ReactApplicationContext mReactApplicationContext;
   private final Map<Class<? extends NativeModule>, ModuleHolder> mModules;
   private final ArrayList<ModuleHolder> mBatchCompleteListenerModules;
+  private final ArrayList<ModuleHolder> mMemoryPressureListenerModules;
 
   public NativeModuleRegistry(
     ReactApplicationContext reactApplicationContext,
     Map<Class<? extends NativeModule>, ModuleHolder> modules,
     ArrayList<ModuleHolder> batchCompleteListenerModules) {
+    this(
+      reactApplicationContext,
+      modules,
+      batchCompleteListenerModules,
+      new ArrayList<ModuleHolder>());
+  }
+
+  public NativeModuleRegistry(
+    ReactApplicationContext reactApplicationContext,
+    Map<Class<? extends NativeModule>, ModuleHolder> modules,
+    ArrayList<ModuleHolder> batchCompleteListenerModules,
+    ArrayList<ModuleHolder> memoryPressureListenerModules) {
     mReactApplicationContext = reactApplicationContext;
     mModules = modules;
     mBatchCompleteListenerModules = batchCompleteListenerModules;
+    mMemoryPressureListenerModules = memoryPressureListenerModules;
   }
 
   /* package */ Collection<JavaModuleWrapper> getJavaModules(
@@ -105,6 +121,18 @@ public class NativeModuleRegistry {
     }
   }
 
+  /**
+   * Forwards a memory pressure event to the modules implementing {@link MemoryPressureListener}.
+   * Modules that haven't been created yet don't hold any memory, so they are not created for it.
+   */
+  public void handleMemoryPressure(MemoryPressure level) {
+    for (ModuleHolder moduleHolder : mMemoryPressureListenerModules) {
+      if (moduleHolder.isInitialized()) {
+        ((MemoryPressureListener) moduleHolder.getModule()).handleMemoryPressure(level);
+      }
+    }
+  }
+
   public <T extends NativeModule> boolean hasModule(Class<T> moduleInterface) {
     return mModules.containsKey(moduleInterface);
   }
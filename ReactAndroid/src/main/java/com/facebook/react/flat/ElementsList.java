@@ -60,12 +60,24 @@ import java.lang.reflect.Array;
  *
  * StateBuilder is using this class to check if e.g. a DrawCommand list for a given View needs to be
  * updated.
+ *
+ * Most scopes end up unchanged, or only change after a long run of unchanged elements (e.g. one row
+ * of a list changing), so elements matching the baseline are not recorded.  Once an element
+ * differs, only the elements from then on are recorded, and the unchanged prefix is copied from the
+ * baseline array if a new array is needed.
  */
 /* package */ final class ElementsList<E> {
 
+  // Value of Scope.index once an added element didn't match the baseline.
+  private static final int MISMATCH = Integer.MAX_VALUE;
+
   private static final class Scope {
     Object[] elements;
+    // Number of added elements that matched the baseline, or MISMATCH.
     int index;
+    // Number of leading baseline elements that were matched before the first mismatch.  These
+    // are not in mElements.
+    int prefix;
     int size;
   }
 
@@ -94,6 +106,7 @@ import java.lang.reflect.Array;
     Scope scope = getCurrentScope();
     scope.elements = elements;
     scope.index = 0;
+    scope.prefix = 0;
     scope.size = mElements.size();
   }
 
@@ -106,14 +119,11 @@ import java.lang.reflect.Array;
     popScope();
 
     E[] result = null;
-    int size = mElements.size() - scope.size;
-    if (scope.index != scope.elements.length) {
-      result = extractElements(size);
-    } else {
-      // downsize
-      for (int i = 0; i < size; ++i) {
-        mElements.pollLast();
-      }
+    if (scope.index == MISMATCH) {
+      result = extractElements(scope.elements, scope.prefix, mElements.size() - scope.size);
+    } else if (scope.index != scope.elements.length) {
+      // The new elements are a prefix of the baseline.
+      result = extractElements(scope.elements, scope.index, 0);
     }
 
     // To prevent resource leaks.
@@ -123,17 +133,19 @@ import java.lang.reflect.Array;
   }
 
   /**
-   * Adds a new element to the list.  This method can be optimized to avoid inserts on same
-   * elements, but would involve copying from scope.elements when we extract elements.
+   * Adds a new element to the list.
    */
   public void add(E element) {
     Scope scope = getCurrentScope();
 
-    if (scope.index < scope.elements.length &&
-        scope.elements[scope.index] == element) {
-      ++scope.index;
-    } else {
-      scope.index = Integer.MAX_VALUE;
+    if (scope.index != MISMATCH) {
+      if (scope.index < scope.elements.length &&
+          scope.elements[scope.index] == element) {
+        ++scope.index;
+        return;
+      }
+      scope.prefix = scope.index;
+      scope.index = MISMATCH;
     }
 
     mElements.add(element);
@@ -150,17 +162,20 @@ import java.lang.reflect.Array;
   }
 
   /**
-   * Extracts last size elements into an array.  Used to extract our new array of items from our
-   * stack when the new items != old items.
+   * Builds the new array of items when the new items != old items, from the first prefixSize
+   * baseline elements followed by the last size elements of our stack.
    */
-  private E[] extractElements(int size) {
-    if (size == 0) {
+  private E[] extractElements(Object[] baseline, int prefixSize, int size) {
+    if (prefixSize + size == 0) {
       // avoid allocating empty array
       return mEmptyArray;
     }
 
-    E[] elements = (E[]) Array.newInstance(mEmptyArray.getClass().getComponentType(), size);
-    for (int i = size - 1; i >= 0; --i) {
+    E[] elements = (E[]) Array.newInstance(
+        mEmptyArray.getClass().getComponentType(),
+        prefixSize + size);
+    System.arraycopy(baseline, 0, elements, 0, prefixSize);
+    for (int i = prefixSize + size - 1; i >= prefixSize; --i) {
       elements[i] = mElements.pollLast();
     }
 
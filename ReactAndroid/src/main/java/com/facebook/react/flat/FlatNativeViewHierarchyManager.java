@@ -33,8 +33,17 @@ import com.facebook.react.uimanager.ViewManagerRegistry;
 /* package */ final class FlatNativeViewHierarchyManager extends NativeViewHierarchyManager
     implements ViewResolver {
 
-  /* package */ FlatNativeViewHierarchyManager(ViewManagerRegistry viewManagers) {
+  private final boolean mDrawCommandCachingEnabled;
+
+  /**
+   * @param drawCommandCachingEnabled whether FlatViewGroups that don't clip their subviews cache
+   *   the output of their draw commands, see {@link FlatViewGroup#mountDrawCommands}
+   */
+  /* package */ FlatNativeViewHierarchyManager(
+      ViewManagerRegistry viewManagers,
+      boolean drawCommandCachingEnabled) {
     super(viewManagers, new FlatRootViewManager());
+    mDrawCommandCachingEnabled = drawCommandCachingEnabled;
   }
 
   @Override
@@ -72,7 +81,7 @@ import com.facebook.react.uimanager.ViewManagerRegistry;
       @Nullable NodeRegion[] nodeRegions) {
     FlatViewGroup view = (FlatViewGroup) resolveView(reactTag);
     if (drawCommands != null) {
-      view.mountDrawCommands(drawCommands);
+      view.mountDrawCommands(drawCommands, mDrawCommandCachingEnabled);
     }
     if (listeners != null) {
       view.mountAttachDetachListeners(listeners);
@@ -164,7 +173,16 @@ import com.facebook.react.uimanager.ViewManagerRegistry;
     View view = resolveView(reactTag);
     int width = right - left;
     int height = bottom - top;
-    if (view.getWidth() != width || view.getHeight() != height) {
+    if (shouldAnimateLayout(view)) {
+      // LayoutAnimation, the animation takes care of laying out the View on every frame.  Only
+      // nodes that mount to a View get here, DrawCommands are mounted at their final bounds.
+      if (view.getWidth() != width || view.getHeight() != height) {
+        view.measure(
+            MeasureSpec.makeMeasureSpec(width, MeasureSpec.EXACTLY),
+            MeasureSpec.makeMeasureSpec(height, MeasureSpec.EXACTLY));
+      }
+      updateLayout(view, left, top, width, height);
+    } else if (view.getWidth() != width || view.getHeight() != height) {
       // size changed, we need to measure and layout the View
       view.measure(
           MeasureSpec.makeMeasureSpec(width, MeasureSpec.EXACTLY),
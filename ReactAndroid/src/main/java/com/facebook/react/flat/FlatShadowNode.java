@@ -41,6 +41,7 @@ import com.facebook.react.uimanager.ReactClippingViewGroupHelper;
   protected static final String PROP_REMOVE_CLIPPED_SUBVIEWS =
       ReactClippingViewGroupHelper.PROP_REMOVE_CLIPPED_SUBVIEWS;
   protected static final String PROP_HORIZONTAL = "horizontal";
+  private static final String PROP_Z_INDEX = "zIndex";
   private static final Rect LOGICAL_OFFSET_EMPTY = new Rect();
   // When we first initialize a backing view, we create a view we are going to throw away anyway,
   // so instead initialize with a shared view.
@@ -60,6 +61,7 @@ import com.facebook.react.uimanager.ReactClippingViewGroupHelper;
   private @Nullable DrawView mDrawView;
   private @Nullable DrawBackgroundColor mDrawBackground;
   private boolean mIsUpdated = true;
+  private int mZIndex;
   private boolean mForceMountChildrenToView;
   private float mClipLeft;
   private float mClipTop;
@@ -163,6 +165,24 @@ import com.facebook.react.uimanager.ReactClippingViewGroupHelper;
     invalidate();
   }
 
+  @ReactProp(name = PROP_Z_INDEX)
+  public void setZIndex(float zIndex) {
+    int integerZIndex = Math.round(zIndex);
+    if (mZIndex == integerZIndex) {
+      return;
+    }
+    mZIndex = integerZIndex;
+    // The drawing order is decided by the parent, which needs to collect its state again.
+    ReactShadowNode parent = getParent();
+    if (parent != null) {
+      ((FlatShadowNode) parent).invalidate();
+    }
+  }
+
+  /* package */ final int getZIndex() {
+    return mZIndex;
+  }
+
   @Override
   public void setOverflow(String overflow) {
     super.setOverflow(overflow);
@@ -89,6 +89,20 @@ public class FlatUIImplementation extends UIImplementation {
       List<ViewManager> viewManagers,
       EventDispatcher eventDispatcher,
       boolean memoryImprovementEnabled) {
+    return createInstance(
+        reactContext,
+        viewManagers,
+        eventDispatcher,
+        memoryImprovementEnabled,
+        false);
+  }
+
+  public static FlatUIImplementation createInstance(
+      ReactApplicationContext reactContext,
+      List<ViewManager> viewManagers,
+      EventDispatcher eventDispatcher,
+      boolean memoryImprovementEnabled,
+      boolean drawCommandCachingEnabled) {
 
     Map<String, ViewManager> viewManagerMap = buildViewManagerMap(viewManagers);
 
@@ -106,7 +120,8 @@ public class FlatUIImplementation extends UIImplementation {
 
     ViewManagerRegistry viewManagerRegistry = new ViewManagerRegistry(viewManagerMap);
     FlatNativeViewHierarchyManager nativeViewHierarchyManager = new FlatNativeViewHierarchyManager(
-      viewManagerRegistry);
+      viewManagerRegistry,
+      drawCommandCachingEnabled);
     FlatUIViewOperationQueue operationsQueue = new FlatUIViewOperationQueue(
       reactContext,
       nativeViewHierarchyManager);
@@ -570,6 +585,13 @@ public class FlatUIImplementation extends UIImplementation {
     mStateBuilder.afterUpdateViewHierarchy(mEventDispatcher);
   }
 
+  @Override
+  protected boolean rootNeedsUpdate(ReactShadowNode cssRoot) {
+    // Changes that only affect drawing invalidate() the node, which marks the nodes mounting to
+    // views up to the root as updated without going through markUpdated().
+    return super.rootNeedsUpdate(cssRoot) || ((FlatShadowNode) cssRoot).isUpdated();
+  }
+
   @Override
   protected void applyUpdatesRecursive(
     ReactShadowNode cssNode,
@@ -22,13 +22,26 @@ import com.facebook.react.uimanager.events.EventDispatcher;
 public final class FlatUIImplementationProvider extends UIImplementationProvider {
 
   private final boolean mMemoryImprovementEnabled;
+  private final boolean mDrawCommandCachingEnabled;
 
   public FlatUIImplementationProvider() {
-    mMemoryImprovementEnabled = true;
+    this(true);
   }
 
   public FlatUIImplementationProvider(boolean memoryImprovementEnabled) {
+    this(memoryImprovementEnabled, false);
+  }
+
+  /**
+   * @param drawCommandCachingEnabled whether FlatViewGroups cache the output of their static draw
+   *   commands (backgrounds, borders and text) in Pictures, so redrawing them doesn't replay every
+   *   command
+   */
+  public FlatUIImplementationProvider(
+      boolean memoryImprovementEnabled,
+      boolean drawCommandCachingEnabled) {
     mMemoryImprovementEnabled = memoryImprovementEnabled;
+    mDrawCommandCachingEnabled = drawCommandCachingEnabled;
   }
 
   @Override
@@ -40,6 +53,7 @@ public final class FlatUIImplementationProvider extends UIImplementationProvider
       reactContext,
       viewManagers,
       eventDispatcher,
-      mMemoryImprovementEnabled);
+      mMemoryImprovementEnabled,
+      mDrawCommandCachingEnabled);
   }
 }
@@ -19,9 +19,12 @@ import android.content.Context;
 import android.graphics.Canvas;
 import android.graphics.Color;
 import android.graphics.Paint;
+import android.graphics.Picture;
 import android.graphics.Rect;
 import android.graphics.Typeface;
 import android.graphics.drawable.Drawable;
+import android.os.Build;
+import android.text.Spanned;
 import android.util.SparseArray;
 import android.util.SparseIntArray;
 import android.view.MotionEvent;
@@ -152,6 +155,9 @@ import com.facebook.react.uimanager.ReactClippingViewGroup;
   private static Rect sDebugRect;
 
   private static final ArrayList<FlatViewGroup> LAYOUT_REQUESTS = new ArrayList<>();
+
+  // Shorter runs of cacheable draw commands are drawn directly, a Picture isn't worth it.
+  /* package */ static final int MIN_CACHED_DRAW_COMMANDS = 4;
   private static final Rect VIEW_BOUNDS = new Rect();
 
   // An invalidate callback singleton for this FlatViewGroup.
@@ -159,6 +165,13 @@ import com.facebook.react.uimanager.ReactClippingViewGroup;
   private DrawCommand[] mDrawCommands = DrawCommand.EMPTY_ARRAY;
   private AttachDetachListener[] mAttachDetachListeners = AttachDetachListener.EMPTY_ARRAY;
   private NodeRegion[] mNodeRegions = NodeRegion.EMPTY_ARRAY;
+  // Recorded runs of draw commands, see drawCommandsWithCache().  Both are created on the first
+  // draw after mounting draw commands.
+  private @Nullable Picture[] mDrawCommandPictures;
+  private @Nullable int[] mDrawCommandRunEnds;
+  private boolean mCacheDrawCommands;
+  // Built on the first touch after mounting a large number of node regions.
+  private @Nullable NodeRegionIndex mNodeRegionIndex;
 
   // The index of the next native child to draw.  This is used in dispatchDraw to check that we are
   // actually drawing all of our attached children, then is reset to 0.
@@ -253,6 +266,10 @@ import com.facebook.react.uimanager.ReactClippingViewGroup;
 
     if (mDrawCommandManager != null) {
       mDrawCommandManager.draw(canvas);
+    } else if (mCacheDrawCommands &&
+        // Hardware accelerated canvases support drawPicture starting with M.
+        (!canvas.isHardwareAccelerated() || Build.VERSION.SDK_INT >= Build.VERSION_CODES.M)) {
+      drawCommandsWithCache(canvas);
     } else {
       for (DrawCommand drawCommand : mDrawCommands) {
         drawCommand.draw(this, canvas);
@@ -275,6 +292,94 @@ import com.facebook.react.uimanager.ReactClippingViewGroup;
     }
   }
 
+  /**
+   * Draws the draw commands, replaying runs of commands whose output only changes when new commands
+   * are mounted from a cached {@link Picture}.  Redraws caused by anything else (images loading,
+   * the hotspot animating, children being invalidated) then skip re-recording those commands.
+   *
+   * @param canvas The canvas to draw on.
+   */
+  private void drawCommandsWithCache(Canvas canvas) {
+    DrawCommand[] drawCommands = mDrawCommands;
+    if (mDrawCommandRunEnds == null || mDrawCommandPictures == null) {
+      mDrawCommandRunEnds = findCacheableRuns(drawCommands);
+      mDrawCommandPictures = new Picture[drawCommands.length];
+    }
+    int[] runEnds = mDrawCommandRunEnds;
+    Picture[] pictures = mDrawCommandPictures;
+
+    int i = 0;
+    while (i < drawCommands.length) {
+      int runEnd = runEnds[i];
+      if (runEnd == 0) {
+        drawCommands[i].draw(this, canvas);
+        ++i;
+        continue;
+      }
+
+      Picture picture = pictures[i];
+      if (picture == null) {
+        picture = new Picture();
+        Canvas pictureCanvas = picture.beginRecording(getWidth(), getHeight());
+        for (int j = i; j < runEnd; ++j) {
+          drawCommands[j].draw(this, pictureCanvas);
+        }
+        picture.endRecording();
+        pictures[i] = picture;
+      }
+      canvas.drawPicture(picture);
+      i = runEnd;
+    }
+  }
+
+  /**
+   * For each index that starts a run of at least MIN_CACHED_DRAW_COMMANDS cacheable draw commands,
+   * stores the end of the run.  All other indices are 0.
+   */
+  /* package */ int[] findCacheableRuns(DrawCommand[] drawCommands) {
+    int[] runEnds = new int[drawCommands.length];
+    int runStart = 0;
+    for (int i = 0; i <= drawCommands.length; ++i) {
+      if (i < drawCommands.length && isCacheable(drawCommands[i])) {
+        continue;
+      }
+      if (i - runStart >= MIN_CACHED_DRAW_COMMANDS) {
+        runEnds[runStart] = i;
+      }
+      runStart = i + 1;
+    }
+    return runEnds;
+  }
+
+  /**
+   * Whether the output of the draw command only depends on the command itself, and stays within
+   * the bounds of this view so that it is fully captured in a Picture.  Images load
+   * asynchronously and DrawViews draw children, so neither can be cached.
+   */
+  /* package */ boolean isCacheable(DrawCommand drawCommand) {
+    if (drawCommand instanceof DrawTextLayout) {
+      CharSequence text = ((DrawTextLayout) drawCommand).getLayout().getText();
+      if (text instanceof Spanned &&
+          ((Spanned) text).nextSpanTransition(
+              0,
+              text.length(),
+              InlineImageSpanWithPipeline.class) < text.length()) {
+        // Inline images load asynchronously as well.
+        return false;
+      }
+    } else if (!(drawCommand instanceof DrawBorder) &&
+        !(drawCommand instanceof DrawBackgroundColor)) {
+      return false;
+    }
+    return drawCommand.getLeft() >= 0 && drawCommand.getTop() >= 0 &&
+        drawCommand.getRight() <= getWidth() && drawCommand.getBottom() <= getHeight();
+  }
+
+  private void clearDrawCommandCache() {
+    mDrawCommandPictures = null;
+    mDrawCommandRunEnds = null;
+  }
+
   /**
    * Draws layout bounds for debug.  Optionally can draw the name of the DrawCommand so you can
    * distinguish commands easier.
@@ -554,6 +659,9 @@ import com.facebook.react.uimanager.ReactClippingViewGroup;
 
   @Override
   protected void onSizeChanged(int w, int h, int oldw, int oldh) {
+    // Pictures are recorded for the size of the view, and which commands fit in it may change.
+    clearDrawCommandCache();
+
     if (mHotspot != null) {
       mHotspot.setBounds(0, 0, w, h);
       invalidate();
@@ -725,9 +833,13 @@ import com.facebook.react.uimanager.ReactClippingViewGroup;
    * commands within the draw command array have changed since last mount.
    *
    * @param drawCommands The draw commands to mount.
+   * @param cacheDrawCommands Whether to cache the output of draw commands that can't change until
+   *   new commands are mounted (backgrounds, borders and text) in {@link Picture}s.
    */
-  /* package */ void mountDrawCommands(DrawCommand[] drawCommands) {
+  /* package */ void mountDrawCommands(DrawCommand[] drawCommands, boolean cacheDrawCommands) {
     mDrawCommands = drawCommands;
+    mCacheDrawCommands = cacheDrawCommands;
+    clearDrawCommandCache();
     invalidate();
   }
 
@@ -869,6 +981,7 @@ import com.facebook.react.uimanager.ReactClippingViewGroup;
    */
   /* package */ void mountNodeRegions(NodeRegion[] nodeRegions) {
     mNodeRegions = nodeRegions;
+    mNodeRegionIndex = null;
   }
 
   /**
@@ -884,6 +997,7 @@ import com.facebook.react.uimanager.ReactClippingViewGroup;
       float[] maxBottom,
       float[] minTop) {
     mNodeRegions = nodeRegions;
+    mNodeRegionIndex = null;
     Assertions.assertNotNull(mDrawCommandManager).mountNodeRegions(nodeRegions, maxBottom, minTop);
   }
 
@@ -1049,6 +1163,10 @@ import com.facebook.react.uimanager.ReactClippingViewGroup;
    * @return A virtual node region matching the specified touch, or null if no regions match.
    */
   private @Nullable NodeRegion virtualNodeRegionWithinBounds(float touchX, float touchY) {
+    NodeRegionIndex nodeRegionIndex = getNodeRegionIndex();
+    if (nodeRegionIndex != null) {
+      return nodeRegionIndex.findNodeRegion(touchX, touchY, true);
+    }
     if (mDrawCommandManager != null) {
       return mDrawCommandManager.virtualNodeRegionWithinBounds(touchX, touchY);
     }
@@ -1075,6 +1193,10 @@ import com.facebook.react.uimanager.ReactClippingViewGroup;
    * @return A node region matching the specified touch, or null if no regions match.
    */
   private @Nullable NodeRegion anyNodeRegionWithinBounds(float touchX, float touchY) {
+    NodeRegionIndex nodeRegionIndex = getNodeRegionIndex();
+    if (nodeRegionIndex != null) {
+      return nodeRegionIndex.findNodeRegion(touchX, touchY, false);
+    }
     if (mDrawCommandManager != null) {
       return mDrawCommandManager.anyNodeRegionWithinBounds(touchX, touchY);
     }
@@ -1088,6 +1210,21 @@ import com.facebook.react.uimanager.ReactClippingViewGroup;
     return null;
   }
 
+  /**
+   * Returns a spatial index over the mounted node regions, or null if there are so few regions
+   * that scanning them is cheaper.  The index is built lazily, as node regions are often mounted
+   * many times (e.g. while content is updating) without being touched in between.
+   */
+  private @Nullable NodeRegionIndex getNodeRegionIndex() {
+    if (mNodeRegions.length < NodeRegionIndex.MIN_INDEXED_REGIONS) {
+      return null;
+    }
+    if (mNodeRegionIndex == null) {
+      mNodeRegionIndex = new NodeRegionIndex(mNodeRegions);
+    }
+    return mNodeRegionIndex;
+  }
+
   private static void ensureViewHasNoParent(View view) {
     ViewParent oldParent = view.getParent();
     if (oldParent != null) {
@@ -0,0 +1,192 @@
+/**
+ * Copyright (c) 2015-present, Facebook, Inc.
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree. An additional grant
+ * of patent rights can be found in the PATENTS file in the same directory.
+ */
+
+package com.facebook.react.flat;
+
+import javax.annotation.Nullable;
+
+/**
+ * Uniform grid over the touchable bounds of an array of {@link NodeRegion}s, so that finding the
+ * region under a touch doesn't need to test every region.  A FlatViewGroup hosting a flattened
+ * list can easily have thousands of them.
+ *
+ * Each cell lists the indices of the regions overlapping it in ascending order.  Scanning a cell
+ * backwards therefore finds the topmost region first, which is the same result a linear scan from
+ * the end of the region array gives.  Regions overlapping many cells (backgrounds, containers) are
+ * kept in a separate list instead of being copied into every cell, and are merged in by index
+ * during the lookup.
+ */
+/* package */ final class NodeRegionIndex {
+
+  // With fewer regions a linear scan is as fast as building and querying the grid.
+  /* package */ static final int MIN_INDEXED_REGIONS = 64;
+
+  private static final int MAX_CELLS_PER_AXIS = 32;
+  private static final int MAX_CELLS_PER_REGION = 16;
+
+  private final NodeRegion[] mNodeRegions;
+  private final int mColumns;
+  private final int mRows;
+  private final float mLeft;
+  private final float mTop;
+  private final float mRight;
+  private final float mBottom;
+  private final float mCellWidth;
+  private final float mCellHeight;
+  // Regions of cell i are mCellEntries[mCellStarts[i]] to mCellEntries[mCellStarts[i + 1] - 1].
+  private final int[] mCellStarts;
+  private final int[] mCellEntries;
+  private final int[] mLargeRegions;
+
+  /* package */ NodeRegionIndex(NodeRegion[] nodeRegions) {
+    mNodeRegions = nodeRegions;
+
+    float left = Float.POSITIVE_INFINITY;
+    float top = Float.POSITIVE_INFINITY;
+    float right = Float.NEGATIVE_INFINITY;
+    float bottom = Float.NEGATIVE_INFINITY;
+    for (NodeRegion nodeRegion : nodeRegions) {
+      if (isIndexable(nodeRegion)) {
+        left = Math.min(left, nodeRegion.getTouchableLeft());
+        top = Math.min(top, nodeRegion.getTouchableTop());
+        right = Math.max(right, nodeRegion.getTouchableRight());
+        bottom = Math.max(bottom, nodeRegion.getTouchableBottom());
+      }
+    }
+    if (left > right) {
+      // Nothing to index, all regions go into the large region list.
+      left = top = right = bottom = 0;
+    }
+    mLeft = left;
+    mTop = top;
+    mRight = right;
+    mBottom = bottom;
+
+    // Aim for a handful of regions per cell.
+    int cellsPerAxis = (int) Math.sqrt(nodeRegions.length / 4);
+    cellsPerAxis = Math.max(1, Math.min(MAX_CELLS_PER_AXIS, cellsPerAxis));
+    mColumns = cellsPerAxis;
+    mRows = cellsPerAxis;
+    mCellWidth = Math.max(1, (right - left) / mColumns);
+    mCellHeight = Math.max(1, (bottom - top) / mRows);
+
+    // First pass counts the entries of every cell, the second one fills them in.
+    int[] cellCounts = new int[mColumns * mRows];
+    int largeRegionCount = 0;
+    for (NodeRegion nodeRegion : nodeRegions) {
+      if (!isIndexable(nodeRegion) || !fitsInCells(nodeRegion)) {
+        largeRegionCount++;
+        continue;
+      }
+      for (int row = rowOf(nodeRegion.getTouchableTop());
+          row <= rowOf(nodeRegion.getTouchableBottom());
+          row++) {
+        for (int column = columnOf(nodeRegion.getTouchableLeft());
+            column <= columnOf(nodeRegion.getTouchableRight());
+            column++) {
+          cellCounts[row * mColumns + column]++;
+        }
+      }
+    }
+
+    mCellStarts = new int[cellCounts.length + 1];
+    for (int cell = 0; cell < cellCounts.length; cell++) {
+      mCellStarts[cell + 1] = mCellStarts[cell] + cellCounts[cell];
+      // Reuse the counts as the position to write the next entry of the cell to.
+      cellCounts[cell] = mCellStarts[cell];
+    }
+    mCellEntries = new int[mCellStarts[cellCounts.length]];
+    mLargeRegions = new int[largeRegionCount];
+
+    int largeRegionIndex = 0;
+    for (int i = 0; i < nodeRegions.length; i++) {
+      NodeRegion nodeRegion = nodeRegions[i];
+      if (!isIndexable(nodeRegion) || !fitsInCells(nodeRegion)) {
+        mLargeRegions[largeRegionIndex++] = i;
+        continue;
+      }
+      for (int row = rowOf(nodeRegion.getTouchableTop());
+          row <= rowOf(nodeRegion.getTouchableBottom());
+          row++) {
+        for (int column = columnOf(nodeRegion.getTouchableLeft());
+            column <= columnOf(nodeRegion.getTouchableRight());
+            column++) {
+          mCellEntries[cellCounts[row * mColumns + column]++] = i;
+        }
+      }
+    }
+  }
+
+  /**
+   * Finds the topmost node region containing the touch.
+   *
+   * @param touchX The touch x coordinate.
+   * @param touchY The touch y coordinate.
+   * @param virtualOnly Whether to only consider virtual node regions.
+   * @return The matching node region, or null if no regions match.
+   */
+  /* package */ @Nullable NodeRegion findNodeRegion(
+      float touchX,
+      float touchY,
+      boolean virtualOnly) {
+    int cellEntry = -1;
+    int cellStop = 0;
+    if (mLeft <= touchX && touchX <= mRight && mTop <= touchY && touchY <= mBottom) {
+      int cell = rowOf(touchY) * mColumns + columnOf(touchX);
+      cellEntry = mCellStarts[cell + 1] - 1;
+      cellStop = mCellStarts[cell];
+    }
+    int largeRegion = mLargeRegions.length - 1;
+
+    while (cellEntry >= cellStop || largeRegion >= 0) {
+      int index;
+      if (largeRegion < 0 ||
+          (cellEntry >= cellStop && mCellEntries[cellEntry] > mLargeRegions[largeRegion])) {
+        index = mCellEntries[cellEntry--];
+      } else {
+        index = mLargeRegions[largeRegion--];
+      }
+      NodeRegion nodeRegion = mNodeRegions[index];
+      if (virtualOnly && !nodeRegion.mIsVirtual) {
+        continue;
+      }
+      if (nodeRegion.withinBounds(touchX, touchY)) {
+        return nodeRegion;
+      }
+    }
+
+    return null;
+  }
+
+  private boolean fitsInCells(NodeRegion nodeRegion) {
+    int columns =
+        columnOf(nodeRegion.getTouchableRight()) - columnOf(nodeRegion.getTouchableLeft()) + 1;
+    int rows = rowOf(nodeRegion.getTouchableBottom()) - rowOf(nodeRegion.getTouchableTop()) + 1;
+    return columns * rows <= MAX_CELLS_PER_REGION;
+  }
+
+  private int columnOf(float x) {
+    return Math.max(0, Math.min(mColumns - 1, (int) ((x - mLeft) / mCellWidth)));
+  }
+
+  private int rowOf(float y) {
+    return Math.max(0, Math.min(mRows - 1, (int) ((y - mTop) / mCellHeight)));
+  }
+
+  private static boolean isIndexable(NodeRegion nodeRegion) {
+    return isFinite(nodeRegion.getTouchableLeft()) &&
+        isFinite(nodeRegion.getTouchableTop()) &&
+        isFinite(nodeRegion.getTouchableRight()) &&
+        isFinite(nodeRegion.getTouchableBottom());
+  }
+
+  private static boolean isFinite(float value) {
+    return !Float.isNaN(value) && !Float.isInfinite(value);
+  }
+}
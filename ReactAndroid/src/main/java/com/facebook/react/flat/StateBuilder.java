@@ -12,6 +12,7 @@ package com.facebook.react.flat;
 import javax.annotation.Nullable;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 
 import android.util.SparseIntArray;
 
@@ -594,9 +595,12 @@ import com.facebook.react.uimanager.events.EventDispatcher;
         roundToPixel(clipRight),
         clipBottom);
 
+    // Draw commands, node regions and native children are collected in drawing order, so children
+    // with a higher zIndex end up on top and receive touches first.
+    int[] drawingOrder = getDrawingOrder(node);
     boolean updated = false;
     for (int i = 0, childCount = node.getChildCount(); i != childCount; ++i) {
-      ReactShadowNode child = node.getChildAt(i);
+      ReactShadowNode child = node.getChildAt(drawingOrder == null ? i : drawingOrder[i]);
       if (child.isVirtual()) {
         continue;
       }
@@ -696,6 +700,53 @@ import com.facebook.react.uimanager.events.EventDispatcher;
     return updated;
   }
 
+  /**
+   * Returns the indices of the children of the node in the order they should be drawn, or null if
+   * that is the order of the children.
+   */
+  private static @Nullable int[] getDrawingOrder(FlatShadowNode node) {
+    int childCount = node.getChildCount();
+    boolean hasZIndex = false;
+    for (int i = 0; i != childCount; ++i) {
+      ReactShadowNode child = node.getChildAt(i);
+      if (!child.isVirtual() && ((FlatShadowNode) child).getZIndex() != 0) {
+        hasZIndex = true;
+        break;
+      }
+    }
+    if (!hasZIndex) {
+      return null;
+    }
+
+    int[] zIndices = new int[childCount];
+    for (int i = 0; i != childCount; ++i) {
+      ReactShadowNode child = node.getChildAt(i);
+      zIndices[i] = child.isVirtual() ? 0 : ((FlatShadowNode) child).getZIndex();
+    }
+    return getDrawingOrder(zIndices);
+  }
+
+  /**
+   * Returns the indices of the given zIndices in the order they should be drawn.  Children are
+   * drawn by increasing zIndex, children with the same zIndex keep their relative order, the same
+   * as ViewGroupDrawingOrderHelper does for Views.
+   */
+  /* package */ static int[] getDrawingOrder(int[] zIndices) {
+    // Sorting the zIndex in the upper and the index in the lower half of a long gives a stable
+    // order without boxing.
+    int count = zIndices.length;
+    long[] keys = new long[count];
+    for (int i = 0; i != count; ++i) {
+      keys[i] = ((long) zIndices[i] << 32) | i;
+    }
+    Arrays.sort(keys);
+    int[] drawingOrder = new int[count];
+    for (int i = 0; i != count; ++i) {
+      drawingOrder[i] = (int) keys[i];
+    }
+    return drawingOrder;
+  }
+
   private void updateViewPadding(AndroidView androidView, int reactTag) {
     if (androidView.isPaddingChanged()) {
       mOperationsQueue.enqueueSetPadding(
@@ -18,6 +18,11 @@ import java.io.IOException;
 import java.nio.channels.FileChannel;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import android.content.ContentResolver;
 import android.content.Context;
@@ -27,13 +32,16 @@ import android.graphics.BitmapFactory;
 import android.media.MediaScannerConnection;
 import android.net.Uri;
 import android.os.AsyncTask;
+import android.graphics.Bitmap;
 import android.os.Build;
 import android.os.Environment;
 import android.provider.MediaStore;
 import android.provider.MediaStore.Images;
 import android.text.TextUtils;
+import android.util.SparseArray;
 
 import com.facebook.common.logging.FLog;
+import com.facebook.react.bridge.Arguments;
 import com.facebook.react.bridge.GuardedAsyncTask;
 import com.facebook.react.bridge.Promise;
 import com.facebook.react.bridge.ReactApplicationContext;
@@ -50,6 +58,7 @@ import com.facebook.react.bridge.WritableNativeArray;
 import com.facebook.react.bridge.WritableNativeMap;
 import com.facebook.react.common.ReactConstants;
 import com.facebook.react.module.annotations.ReactModule;
+import com.facebook.react.modules.core.DeviceEventManagerModule;
 
 // TODO #6015104: rename to something less iOSish
 /**
@@ -95,6 +104,18 @@ public class CameraRollManager extends ReactContextBaseJavaModule {
 
   private static final String SELECTION_BUCKET = Images.Media.BUCKET_DISPLAY_NAME + " = ?";
   private static final String SELECTION_DATE_TAKEN = Images.Media.DATE_TAKEN + " < ?";
+  private static final String SORT_ORDER =
+      Images.Media.DATE_TAKEN + " DESC, " + Images.Media.DATE_MODIFIED + " DESC";
+
+  private static final String EVENT_PHOTOS_PAGE = "cameraRollPhotosPage";
+
+  // Thumbnails are generated by at most this many threads, with this many more waiting.
+  private static final int THUMBNAIL_THREADS = 2;
+  private static final int THUMBNAIL_QUEUE_SIZE = 64;
+
+  private final Object mEnumerationsMonitor = new Object();
+  private final SparseArray<AtomicBoolean> mEnumerations = new SparseArray<>();
+  private @Nullable ThreadPoolExecutor mThumbnailExecutor;
 
   public CameraRollManager(ReactApplicationContext reactContext) {
     super(reactContext);
@@ -105,6 +126,20 @@ public class CameraRollManager extends ReactContextBaseJavaModule {
     return NAME;
   }
 
+  @Override
+  public void onCatalystInstanceDestroy() {
+    synchronized (mEnumerationsMonitor) {
+      for (int i = 0; i < mEnumerations.size(); i++) {
+        mEnumerations.valueAt(i).set(true);
+      }
+      mEnumerations.clear();
+      if (mThumbnailExecutor != null) {
+        mThumbnailExecutor.shutdownNow();
+        mThumbnailExecutor = null;
+      }
+    }
+  }
+
   /**
    * Save an image to the gallery (i.e. {@link MediaStore.Images}). This copies the original file
    * from wherever it may be to the external storage pictures directory, so that it can be scanned
@@ -265,24 +300,8 @@ public class CameraRollManager extends ReactContextBaseJavaModule {
 
     @Override
     protected void doInBackgroundGuarded(Void... params) {
-      StringBuilder selection = new StringBuilder("1");
       List<String> selectionArgs = new ArrayList<>();
-      if (!TextUtils.isEmpty(mAfter)) {
-        selection.append(" AND " + SELECTION_DATE_TAKEN);
-        selectionArgs.add(mAfter);
-      }
-      if (!TextUtils.isEmpty(mGroupName)) {
-        selection.append(" AND " + SELECTION_BUCKET);
-        selectionArgs.add(mGroupName);
-      }
-      if (mMimeTypes != null && mMimeTypes.size() > 0) {
-        selection.append(" AND " + Images.Media.MIME_TYPE + " IN (");
-        for (int i = 0; i < mMimeTypes.size(); i++) {
-          selection.append("?,");
-          selectionArgs.add(mMimeTypes.getString(i));
-        }
-        selection.replace(selection.length() - 1, selection.length(), ")");
-      }
+      String selection = buildSelection(mAfter, mGroupName, mMimeTypes, selectionArgs);
       WritableMap response = new WritableNativeMap();
       ContentResolver resolver = mContext.getContentResolver();
       // using LIMIT in the sortOrder is not explicitly supported by the SDK (which does not support
@@ -292,9 +311,9 @@ public class CameraRollManager extends ReactContextBaseJavaModule {
         Cursor photos = resolver.query(
             Images.Media.EXTERNAL_CONTENT_URI,
             PROJECTION,
-            selection.toString(),
+            selection,
             selectionArgs.toArray(new String[selectionArgs.size()]),
-            Images.Media.DATE_TAKEN + " DESC, " + Images.Media.DATE_MODIFIED + " DESC LIMIT " +
+            SORT_ORDER + " LIMIT " +
                 (mFirst + 1)); // set LIMIT to first + 1 so that we know how to populate page_info
         if (photos == null) {
           mPromise.reject(ERROR_UNABLE_TO_LOAD, "Could not get photos");
@@ -316,6 +335,238 @@ public class CameraRollManager extends ReactContextBaseJavaModule {
     }
   }
 
+  /**
+   * Enumerates the photos matching the given filters, streaming them to JS page by page as the
+   * cursor advances instead of querying every page separately. Every page is sent as a
+   * {@code cameraRollPhotosPage} event of the shape
+   * {@code {requestId, edges, page_info: {has_next_page, end_cursor}}}, the edges being the same
+   * as those returned by {@link #getPhotos}.
+   *
+   * @param params {@code {requestId, pageSize}}, optionally {@code after}, {@code groupName} and
+   *        {@code mimeTypes} like for {@link #getPhotos}, and {@code thumbnails} to have the
+   *        MediaStore generate the micro thumbnails of the photos in the background
+   * @param promise resolved with the number of photos sent once all pages have been sent or the
+   *        enumeration was aborted
+   */
+  @ReactMethod
+  public void enumeratePhotos(final ReadableMap params, final Promise promise) {
+    final int requestId = params.getInt("requestId");
+    final int pageSize = params.getInt("pageSize");
+    if (pageSize <= 0) {
+      throw new JSApplicationIllegalArgumentException("pageSize must be positive");
+    }
+    String after = params.hasKey("after") ? params.getString("after") : null;
+    String groupName = params.hasKey("groupName") ? params.getString("groupName") : null;
+    ReadableArray mimeTypes = params.hasKey("mimeTypes")
+        ? params.getArray("mimeTypes")
+        : null;
+    boolean thumbnails = params.hasKey("thumbnails") && params.getBoolean("thumbnails");
+
+    final AtomicBoolean cancelled = new AtomicBoolean();
+    final Executor thumbnailExecutor;
+    synchronized (mEnumerationsMonitor) {
+      mEnumerations.put(requestId, cancelled);
+      thumbnailExecutor = thumbnails ? getThumbnailExecutor() : null;
+    }
+
+    final List<String> selectionArgs = new ArrayList<>();
+    final String selection = buildSelection(after, groupName, mimeTypes, selectionArgs);
+    final ReactApplicationContext context = getReactApplicationContext();
+    new GuardedAsyncTask<Void, Void>(context) {
+      @Override
+      protected void doInBackgroundGuarded(Void... params) {
+        ContentResolver resolver = context.getContentResolver();
+        try {
+          Cursor photos = resolver.query(
+              Images.Media.EXTERNAL_CONTENT_URI,
+              PROJECTION,
+              selection,
+              selectionArgs.toArray(new String[selectionArgs.size()]),
+              SORT_ORDER);
+          if (photos == null) {
+            promise.reject(ERROR_UNABLE_TO_LOAD, "Could not get photos");
+            return;
+          }
+          final DeviceEventManagerModule.RCTDeviceEventEmitter eventEmitter =
+              context.getJSModule(DeviceEventManagerModule.RCTDeviceEventEmitter.class);
+          PageListener pageListener = new PageListener() {
+            @Override
+            public void onPage(WritableMap page) {
+              page.putInt("requestId", requestId);
+              eventEmitter.emit(EVENT_PHOTOS_PAGE, page);
+            }
+          };
+          try {
+            int count = enumeratePhotos(
+                resolver,
+                photos,
+                pageSize,
+                pageListener,
+                thumbnailExecutor,
+                cancelled);
+            promise.resolve(count);
+          } finally {
+            photos.close();
+          }
+        } catch (SecurityException e) {
+          promise.reject(
+              ERROR_UNABLE_TO_LOAD_PERMISSION,
+              "Could not get photos: need READ_EXTERNAL_STORAGE permission",
+              e);
+        } finally {
+          synchronized (mEnumerationsMonitor) {
+            if (mEnumerations.get(requestId) == cancelled) {
+              mEnumerations.remove(requestId);
+            }
+          }
+        }
+      }
+    }.executeOnExecutor(AsyncTask.THREAD_POOL_EXECUTOR);
+  }
+
+  /**
+   * Stops sending pages for the given {@link #enumeratePhotos} request.
+   */
+  @ReactMethod
+  public void abortPhotoEnumeration(int requestId) {
+    synchronized (mEnumerationsMonitor) {
+      AtomicBoolean cancelled = mEnumerations.get(requestId);
+      if (cancelled != null) {
+        cancelled.set(true);
+        mEnumerations.remove(requestId);
+      }
+    }
+  }
+
+  /* package */ interface PageListener {
+    void onPage(WritableMap page);
+  }
+
+  /**
+   * Reads the photos from the cursor and hands them to the listener in pages of pageSize photos.
+   * Column indices are looked up once for the whole cursor.
+   *
+   * @param thumbnailExecutor if set, the MediaStore thumbnail of every photo is generated on it
+   * @return the number of photos handed to the listener
+   */
+  /* package */ static int enumeratePhotos(
+      ContentResolver resolver,
+      Cursor photos,
+      int pageSize,
+      PageListener listener,
+      @Nullable Executor thumbnailExecutor,
+      AtomicBoolean cancelled) {
+    int idIndex = photos.getColumnIndex(Images.Media._ID);
+    int mimeTypeIndex = photos.getColumnIndex(Images.Media.MIME_TYPE);
+    int groupNameIndex = photos.getColumnIndex(Images.Media.BUCKET_DISPLAY_NAME);
+    int dateTakenIndex = photos.getColumnIndex(Images.Media.DATE_TAKEN);
+    int widthIndex = IS_JELLY_BEAN_OR_LATER ? photos.getColumnIndex(Images.Media.WIDTH) : -1;
+    int heightIndex = IS_JELLY_BEAN_OR_LATER ? photos.getColumnIndex(Images.Media.HEIGHT) : -1;
+    int longitudeIndex = photos.getColumnIndex(Images.Media.LONGITUDE);
+    int latitudeIndex = photos.getColumnIndex(Images.Media.LATITUDE);
+
+    int count = 0;
+    WritableArray edges = Arguments.createArray();
+    int edgeCount = 0;
+    String endCursor = null;
+    photos.moveToFirst();
+    while (!photos.isAfterLast() && !cancelled.get()) {
+      WritableMap node = Arguments.createMap();
+      if (putImageInfo(resolver, photos, node, idIndex, widthIndex, heightIndex)) {
+        putBasicNodeInfo(photos, node, mimeTypeIndex, groupNameIndex, dateTakenIndex);
+        putLocationInfo(photos, node, longitudeIndex, latitudeIndex);
+        WritableMap edge = Arguments.createMap();
+        edge.putMap("node", node);
+        edges.pushMap(edge);
+        edgeCount++;
+        endCursor = photos.getString(dateTakenIndex);
+        if (thumbnailExecutor != null) {
+          generateThumbnail(resolver, thumbnailExecutor, photos.getLong(idIndex));
+        }
+      }
+      photos.moveToNext();
+
+      if (edgeCount == pageSize || (photos.isAfterLast() && edgeCount > 0)) {
+        WritableMap pageInfo = Arguments.createMap();
+        pageInfo.putBoolean("has_next_page", !photos.isAfterLast());
+        pageInfo.putString("end_cursor", endCursor);
+        WritableMap page = Arguments.createMap();
+        page.putArray("edges", edges);
+        page.putMap("page_info", pageInfo);
+        listener.onPage(page);
+        count += edgeCount;
+        edges = Arguments.createArray();
+        edgeCount = 0;
+      }
+    }
+    return count;
+  }
+
+  private ThreadPoolExecutor getThumbnailExecutor() {
+    if (mThumbnailExecutor == null) {
+      // When the queue is full the enumeration generates the thumbnail itself, which slows it
+      // down to the speed thumbnails can be generated at instead of queueing up work.
+      mThumbnailExecutor = new ThreadPoolExecutor(
+          THUMBNAIL_THREADS,
+          THUMBNAIL_THREADS,
+          1,
+          TimeUnit.SECONDS,
+          new ArrayBlockingQueue<Runnable>(THUMBNAIL_QUEUE_SIZE),
+          new ThreadPoolExecutor.CallerRunsPolicy());
+      mThumbnailExecutor.allowCoreThreadTimeOut(true);
+    }
+    return mThumbnailExecutor;
+  }
+
+  private static void generateThumbnail(
+      final ContentResolver resolver,
+      Executor executor,
+      final long id) {
+    executor.execute(new Runnable() {
+      @Override
+      public void run() {
+        try {
+          // The MediaStore keeps the thumbnail around, we only want it to be there when JS asks.
+          Bitmap thumbnail = Images.Thumbnails.getThumbnail(
+              resolver,
+              id,
+              Images.Thumbnails.MICRO_KIND,
+              null);
+          if (thumbnail != null) {
+            thumbnail.recycle();
+          }
+        } catch (RuntimeException e) {
+          FLog.w(ReactConstants.TAG, "Could not generate thumbnail for photo " + id, e);
+        }
+      }
+    });
+  }
+
+  private static String buildSelection(
+      @Nullable String after,
+      @Nullable String groupName,
+      @Nullable ReadableArray mimeTypes,
+      List<String> selectionArgs) {
+    StringBuilder selection = new StringBuilder("1");
+    if (!TextUtils.isEmpty(after)) {
+      selection.append(" AND " + SELECTION_DATE_TAKEN);
+      selectionArgs.add(after);
+    }
+    if (!TextUtils.isEmpty(groupName)) {
+      selection.append(" AND " + SELECTION_BUCKET);
+      selectionArgs.add(groupName);
+    }
+    if (mimeTypes != null && mimeTypes.size() > 0) {
+      selection.append(" AND " + Images.Media.MIME_TYPE + " IN (");
+      for (int i = 0; i < mimeTypes.size(); i++) {
+        selection.append("?,");
+        selectionArgs.add(mimeTypes.getString(i));
+      }
+      selection.replace(selection.length() - 1, selection.length(), ")");
+    }
+    return selection.toString();
+  }
+
   private static void putPageInfo(Cursor photos, WritableMap response, int limit) {
     WritableMap pageInfo = new WritableNativeMap();
     pageInfo.putBoolean("has_next_page", limit < photos.getCount());
@@ -383,7 +634,7 @@ public class CameraRollManager extends ReactContextBaseJavaModule {
       int idIndex,
       int widthIndex,
       int heightIndex) {
-    WritableMap image = new WritableNativeMap();
+    WritableMap image = Arguments.createMap();
     Uri photoUri = Uri.withAppendedPath(
         Images.Media.EXTERNAL_CONTENT_URI,
         photos.getString(idIndex));
@@ -425,7 +676,7 @@ public class CameraRollManager extends ReactContextBaseJavaModule {
     double longitude = photos.getDouble(longitudeIndex);
     double latitude = photos.getDouble(latitudeIndex);
     if (longitude > 0 || latitude > 0) {
-      WritableMap location = new WritableNativeMap();
+      WritableMap location = Arguments.createMap();
       location.putDouble("longitude", longitude);
       location.putDouble("latitude", latitude);
       node.putMap("location", location);
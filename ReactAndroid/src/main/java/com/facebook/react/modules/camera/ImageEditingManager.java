@@ -29,16 +29,21 @@ import android.content.Context;
 import android.database.Cursor;
 import android.graphics.Bitmap;
 import android.graphics.BitmapFactory;
+import android.graphics.BitmapRegionDecoder;
 import android.graphics.Matrix;
+import android.graphics.Rect;
 import android.media.ExifInterface;
 import android.net.Uri;
 import android.os.AsyncTask;
+import android.os.Build;
 import android.provider.MediaStore;
 import android.text.TextUtils;
 
 import com.facebook.common.logging.FLog;
 import com.facebook.react.bridge.Callback;
 import com.facebook.react.bridge.GuardedAsyncTask;
+import com.facebook.react.bridge.MemoryPressure;
+import com.facebook.react.bridge.MemoryPressureListener;
 import com.facebook.react.bridge.ReactApplicationContext;
 import com.facebook.react.bridge.ReactContext;
 import com.facebook.react.bridge.ReactContextBaseJavaModule;
@@ -53,7 +58,8 @@ import com.facebook.react.module.annotations.ReactModule;
  * Native module that provides image cropping functionality.
  */
 @ReactModule(name = ImageEditingManager.NAME)
-public class ImageEditingManager extends ReactContextBaseJavaModule {
+public class ImageEditingManager extends ReactContextBaseJavaModule
+    implements MemoryPressureListener {
 
   protected static final String NAME = "ImageEditingManager";
 
@@ -93,6 +99,8 @@ public class ImageEditingManager extends ReactContextBaseJavaModule {
     ExifInterface.TAG_WHITE_BALANCE
   };
 
+  private final ReusableBitmap mReusableBitmap = new ReusableBitmap();
+
   public ImageEditingManager(ReactApplicationContext reactContext) {
     super(reactContext);
     new CleanTask(getReactApplicationContext()).executeOnExecutor(AsyncTask.THREAD_POOL_EXECUTOR);
@@ -108,11 +116,62 @@ public class ImageEditingManager extends ReactContextBaseJavaModule {
     return Collections.emptyMap();
   }
 
+  @Override
+  public void handleMemoryPressure(MemoryPressure level) {
+    // The bitmap is only kept around to speed up the next crop, it's fine to allocate a new one.
+    mReusableBitmap.clear();
+  }
+
   @Override
   public void onCatalystInstanceDestroy() {
+    mReusableBitmap.clear();
     new CleanTask(getReactApplicationContext()).executeOnExecutor(AsyncTask.THREAD_POOL_EXECUTOR);
   }
 
+  /**
+   * Holds on to the bitmap of the last crop, so that the next crop of the same size (e.g. when
+   * cropping a series of photos to the same avatar size) can decode into it instead of allocating
+   * a new one.
+   */
+  private static class ReusableBitmap {
+    // Larger bitmaps aren't kept, holding on to e.g. a full size photo would cost more memory than
+    // reusing it saves.
+    private static final int MAX_REUSABLE_BYTE_COUNT = 4 * 1024 * 1024;
+
+    private @Nullable Bitmap mBitmap;
+
+    /**
+     * @return the bitmap if it has exactly the given size, null otherwise
+     */
+    public synchronized @Nullable Bitmap take(int width, int height) {
+      Bitmap bitmap = mBitmap;
+      if (bitmap == null ||
+          bitmap.getWidth() != width ||
+          bitmap.getHeight() != height ||
+          bitmap.getConfig() != Bitmap.Config.ARGB_8888) {
+        return null;
+      }
+      mBitmap = null;
+      return bitmap;
+    }
+
+    /**
+     * Keeps the bitmap for reuse if it can be decoded into and is small enough. It must not be used
+     * by the caller anymore.
+     */
+    public synchronized void offer(Bitmap bitmap) {
+      if (bitmap.isMutable() &&
+          !bitmap.isRecycled() &&
+          bitmap.getByteCount() <= MAX_REUSABLE_BYTE_COUNT) {
+        mBitmap = bitmap;
+      }
+    }
+
+    public synchronized void clear() {
+      mBitmap = null;
+    }
+  }
+
   /**
    * Asynchronous task that cleans up cache dirs (internal and, if available, external) of cropped
    * image files. This is run when the catalyst instance is being destroyed (i.e. app is shutting
@@ -184,6 +243,7 @@ public class ImageEditingManager extends ReactContextBaseJavaModule {
 
     CropTask cropTask = new CropTask(
         getReactApplicationContext(),
+        mReusableBitmap,
         uri,
         (int) offset.getDouble("x"),
         (int) offset.getDouble("y"),
@@ -200,6 +260,7 @@ public class ImageEditingManager extends ReactContextBaseJavaModule {
 
   private static class CropTask extends GuardedAsyncTask<Void, Void> {
     final Context mContext;
+    final ReusableBitmap mReusableBitmap;
     final String mUri;
     final int mX;
     final int mY;
@@ -212,6 +273,7 @@ public class ImageEditingManager extends ReactContextBaseJavaModule {
 
     private CropTask(
         ReactContext context,
+        ReusableBitmap reusableBitmap,
         String uri,
         int x,
         int y,
@@ -225,6 +287,7 @@ public class ImageEditingManager extends ReactContextBaseJavaModule {
             "Invalid crop rectangle: [%d, %d, %d, %d]", x, y, width, height));
       }
       mContext = context;
+      mReusableBitmap = reusableBitmap;
       mUri = uri;
       mX = x;
       mY = y;
@@ -279,6 +342,7 @@ public class ImageEditingManager extends ReactContextBaseJavaModule {
 
         File tempFile = createTempFile(mContext, mimeType);
         writeCompressedBitmapToFile(cropped, mimeType, tempFile);
+        mReusableBitmap.offer(cropped);
 
         if (mimeType.equals("image/jpeg")) {
           copyExif(mContext, Uri.parse(mUri), tempFile);
@@ -295,6 +359,11 @@ public class ImageEditingManager extends ReactContextBaseJavaModule {
      * @param outOptions Bitmap options, useful to determine {@code outMimeType}.
      */
     private Bitmap crop(BitmapFactory.Options outOptions) throws IOException {
+      Bitmap region = decodeRegion(new Rect(mX, mY, mX + mWidth, mY + mHeight), 1, outOptions);
+      if (region != null) {
+        return region;
+      }
+
       InputStream inputStream = openBitmapInputStream();
       try {
         // This can use a lot of memory
@@ -325,18 +394,6 @@ public class ImageEditingManager extends ReactContextBaseJavaModule {
       // Loading large bitmaps efficiently:
       // http://developer.android.com/training/displaying-bitmaps/load-bitmap.html
 
-      // Just decode the dimensions
-      BitmapFactory.Options options = new BitmapFactory.Options();
-      options.inJustDecodeBounds = true;
-      InputStream inputStream = openBitmapInputStream();
-      try {
-        BitmapFactory.decodeStream(inputStream, null, options);
-      } finally {
-        if (inputStream != null) {
-          inputStream.close();
-        }
-      }
-
       // This uses scaling mode COVER
 
       // Where would the crop rect end up within the scaled bitmap?
@@ -359,36 +416,124 @@ public class ImageEditingManager extends ReactContextBaseJavaModule {
         scale = targetWidth / (float) mWidth;
       }
 
-      // Decode the bitmap. We have to open the stream again, like in the example linked above.
-      // Is there a way to just continue reading from the stream?
-      outOptions.inSampleSize = getDecodeSampleSize(mWidth, mHeight, targetWidth, targetHeight);
-      options.inJustDecodeBounds = false;
-      inputStream = openBitmapInputStream();
+      int inSampleSize = getDecodeSampleSize(mWidth, mHeight, targetWidth, targetHeight);
+      int cropX;
+      int cropY;
+      int cropWidth;
+      int cropHeight;
+
+      // Only decode the part of the image we need, this uses memory proportional to the size of
+      // the crop rectangle instead of the size of the image.
+      Bitmap bitmap = decodeRegion(
+          new Rect(
+              (int) Math.floor(newX),
+              (int) Math.floor(newY),
+              (int) Math.floor(newX + newWidth),
+              (int) Math.floor(newY + newHeight)),
+          inSampleSize,
+          outOptions);
+      if (bitmap != null) {
+        cropX = 0;
+        cropY = 0;
+        cropWidth = bitmap.getWidth();
+        cropHeight = bitmap.getHeight();
+      } else {
+        // Decode the whole bitmap. We have to open the stream again, like in the example linked
+        // above.
+        outOptions.inSampleSize = inSampleSize;
+        InputStream inputStream = openBitmapInputStream();
+        try {
+          // This can use significantly less memory than decoding the full-resolution bitmap
+          bitmap = BitmapFactory.decodeStream(inputStream, null, outOptions);
+          if (bitmap == null) {
+            throw new IOException("Cannot decode bitmap: " + mUri);
+          }
+        } finally {
+          if (inputStream != null) {
+            inputStream.close();
+          }
+        }
 
-      Bitmap bitmap;
+        cropX = (int) Math.floor(newX / (float) inSampleSize);
+        cropY = (int) Math.floor(newY / (float) inSampleSize);
+        cropWidth = (int) Math.floor(newWidth / (float) inSampleSize);
+        cropHeight = (int) Math.floor(newHeight / (float) inSampleSize);
+      }
+      float cropScale = scale * inSampleSize;
+
+      Matrix scaleMatrix = new Matrix();
+      scaleMatrix.setScale(cropScale, cropScale);
+      boolean filter = true;
+
+      Bitmap resized =
+          Bitmap.createBitmap(bitmap, cropX, cropY, cropWidth, cropHeight, scaleMatrix, filter);
+      if (resized != bitmap) {
+        mReusableBitmap.offer(bitmap);
+      }
+      return resized;
+    }
+
+    /**
+     * Decodes only the given rectangle of the image, using BitmapRegionDecoder.
+     *
+     * @param region the rectangle to decode, in pixels of the full image
+     * @param inSampleSize decode only every n-th pixel in each dimension
+     * @param outOptions Bitmap options, useful to determine {@code outMimeType}.
+     * @return the decoded rectangle, or null if the image can't be region decoded (e.g. because
+     * BitmapRegionDecoder doesn't support its format), in which case the caller should decode the
+     * whole image instead
+     */
+    private @Nullable Bitmap decodeRegion(
+        Rect region,
+        int inSampleSize,
+        BitmapFactory.Options outOptions)
+        throws IOException {
+      InputStream inputStream = openBitmapInputStream();
+      BitmapRegionDecoder decoder;
       try {
-        // This can use significantly less memory than decoding the full-resolution bitmap
-        bitmap = BitmapFactory.decodeStream(inputStream, null, outOptions);
-        if (bitmap == null) {
-          throw new IOException("Cannot decode bitmap: " + mUri);
-        }
+        decoder = BitmapRegionDecoder.newInstance(inputStream, false);
+      } catch (IOException e) {
+        FLog.w(ReactConstants.TAG, "Cannot region decode bitmap, decoding all of it: " + mUri, e);
+        return null;
       } finally {
         if (inputStream != null) {
           inputStream.close();
         }
       }
 
-      int cropX = (int) Math.floor(newX / (float) outOptions.inSampleSize);
-      int cropY = (int) Math.floor(newY / (float) outOptions.inSampleSize);
-      int cropWidth = (int) Math.floor(newWidth / (float) outOptions.inSampleSize);
-      int cropHeight = (int) Math.floor(newHeight / (float) outOptions.inSampleSize);
-      float cropScale = scale * outOptions.inSampleSize;
-
-      Matrix scaleMatrix = new Matrix();
-      scaleMatrix.setScale(cropScale, cropScale);
-      boolean filter = true;
-
-      return Bitmap.createBitmap(bitmap, cropX, cropY, cropWidth, cropHeight, scaleMatrix, filter);
+      try {
+        if (region.right > decoder.getWidth() || region.bottom > decoder.getHeight()) {
+          throw new IOException("Crop rectangle is outside of the image: " + mUri);
+        }
+        outOptions.inSampleSize = inSampleSize;
+        outOptions.inPreferredConfig = Bitmap.Config.ARGB_8888;
+        outOptions.inMutable = true;
+        if (inSampleSize == 1 && Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN) {
+          // The decoded region keeps the size of the bitmap it is decoded into, so only reuse a
+          // bitmap that has exactly the size of the region.
+          outOptions.inBitmap = mReusableBitmap.take(region.width(), region.height());
+        }
+        Bitmap bitmap = decoder.decodeRegion(region, outOptions);
+        outOptions.inBitmap = null;
+        if (bitmap == null) {
+          return null;
+        }
+        if (outOptions.outMimeType == null) {
+          // Not all platform versions report the type of the image when region decoding.
+          BitmapFactory.Options boundsOptions = new BitmapFactory.Options();
+          boundsOptions.inJustDecodeBounds = true;
+          InputStream boundsInputStream = openBitmapInputStream();
+          try {
+            BitmapFactory.decodeStream(boundsInputStream, null, boundsOptions);
+          } finally {
+            boundsInputStream.close();
+          }
+          outOptions.outMimeType = boundsOptions.outMimeType;
+        }
+        return bitmap;
+      } finally {
+        decoder.recycle();
+      }
     }
   }
 
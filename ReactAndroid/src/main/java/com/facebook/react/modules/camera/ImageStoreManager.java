@@ -9,17 +9,18 @@
 
 package com.facebook.react.modules.camera;
 
-import java.io.ByteArrayOutputStream;
 import java.io.Closeable;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.util.Arrays;
 
 import android.content.ContentResolver;
+import android.content.res.AssetFileDescriptor;
 import android.net.Uri;
 import android.os.AsyncTask;
 import android.util.Base64;
-import android.util.Base64OutputStream;
 
 import com.facebook.react.bridge.Callback;
 import com.facebook.react.bridge.GuardedAsyncTask;
@@ -32,7 +33,11 @@ import com.facebook.react.module.annotations.ReactModule;
 @ReactModule(name = "ImageStoreManager")
 public class ImageStoreManager extends ReactContextBaseJavaModule {
 
-  private static final int BUFFER_SIZE = 8192;
+  // Base64.DEFAULT breaks lines after every 57 bytes of input (76 characters of output), so chunks
+  // of whole lines can be encoded separately and concatenated.
+  private static final int BYTES_PER_LINE = 57;
+  private static final int BUFFER_SIZE = BYTES_PER_LINE * 144;
+  private static final Charset US_ASCII = Charset.forName("US-ASCII");
 
   public ImageStoreManager(ReactApplicationContext reactContext) {
     super(reactContext);
@@ -77,21 +82,14 @@ public class ImageStoreManager extends ReactContextBaseJavaModule {
       try {
         ContentResolver contentResolver = getReactApplicationContext().getContentResolver();
         Uri uri = Uri.parse(mUri);
+        long length = getLength(contentResolver, uri);
         InputStream is = contentResolver.openInputStream(uri);
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        Base64OutputStream b64os = new Base64OutputStream(baos, Base64.DEFAULT);
-        byte[] buffer = new byte[BUFFER_SIZE];
-        int bytesRead;
         try {
-          while ((bytesRead = is.read(buffer)) > -1) {
-            b64os.write(buffer, 0, bytesRead);
-          }
-          mSuccess.invoke(baos.toString());
+          mSuccess.invoke(encodeBase64(is, length));
         } catch (IOException e) {
           mError.invoke(e.getMessage());
         } finally {
           closeQuietly(is);
-          closeQuietly(b64os); // this also closes baos
         }
       } catch (FileNotFoundException e) {
         mError.invoke(e.getMessage());
@@ -99,6 +97,82 @@ public class ImageStoreManager extends ReactContextBaseJavaModule {
     }
   }
 
+  /**
+   * @return the length of the content, or a negative value if it is not known
+   */
+  private static long getLength(ContentResolver contentResolver, Uri uri) {
+    try {
+      AssetFileDescriptor fd = contentResolver.openAssetFileDescriptor(uri, "r");
+      if (fd == null) {
+        return AssetFileDescriptor.UNKNOWN_LENGTH;
+      }
+      try {
+        return fd.getLength();
+      } finally {
+        // AssetFileDescriptor only implements Closeable since API 19.
+        try {
+          fd.close();
+        } catch (IOException e) {
+          // shhh
+        }
+      }
+    } catch (FileNotFoundException | SecurityException e) {
+      return AssetFileDescriptor.UNKNOWN_LENGTH;
+    }
+  }
+
+  /**
+   * Encodes the stream in the same format as {@code Base64.encodeToString(data, Base64.DEFAULT)}.
+   * The stream is read and encoded a chunk at a time into a single output buffer, which is sized
+   * up front when the length of the stream is known, so apart from the resulting string the only
+   * copy of the data kept in memory is the encoded one.
+   *
+   * @param length the length of the stream, or a negative value if it is not known
+   */
+  /* package */ static String encodeBase64(InputStream is, long length) throws IOException {
+    byte[] output = new byte[length > 0 ? getEncodedLength(length) : BUFFER_SIZE * 2];
+    int outputLength = 0;
+    byte[] buffer = new byte[BUFFER_SIZE];
+    int bufferLength;
+    while ((bufferLength = readFully(is, buffer)) > 0) {
+      byte[] encoded = Base64.encode(buffer, 0, bufferLength, Base64.DEFAULT);
+      if (outputLength + encoded.length > output.length) {
+        // The stream is longer than we were told, or we didn't know its length.
+        output = Arrays.copyOf(output, Math.max(output.length * 2, outputLength + encoded.length));
+      }
+      System.arraycopy(encoded, 0, output, outputLength, encoded.length);
+      outputLength += encoded.length;
+      if (bufferLength < buffer.length) {
+        break;
+      }
+    }
+    return new String(output, 0, outputLength, US_ASCII);
+  }
+
+  private static int getEncodedLength(long length) {
+    long encodedLength = (length + 2) / 3 * 4 + (length + BYTES_PER_LINE - 1) / BYTES_PER_LINE;
+    if (encodedLength > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException("Image is too large to be encoded: " + length);
+    }
+    return (int) encodedLength;
+  }
+
+  /**
+   * Reads until the buffer is full or the stream ends, so that all but the last chunk are made of
+   * whole lines of output.
+   *
+   * @return the number of bytes read
+   */
+  private static int readFully(InputStream is, byte[] buffer) throws IOException {
+    int offset = 0;
+    int bytesRead;
+    while (offset < buffer.length &&
+        (bytesRead = is.read(buffer, offset, buffer.length - offset)) > -1) {
+      offset += bytesRead;
+    }
+    return offset;
+  }
+
   private static void closeQuietly(Closeable closeable) {
     try {
       closeable.close();
@@ -0,0 +1,113 @@
+/**
+ * Copyright (c) 2015-present, Facebook, Inc.
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree. An additional grant
+ * of patent rights can be found in the PATENTS file in the same directory.
+ */
+
+package com.facebook.react.modules.core;
+
+/**
+ * Estimates how much time is left for idle callbacks in a frame, and keeps statistics about how
+ * much of that time was handed out.
+ *
+ * The frame duration is measured from the intervals between consecutive frame callbacks instead of
+ * assuming 60 fps, so devices running at 90 or 120 Hz get shorter deadlines. We use the shortest
+ * recent interval: dropped frames only ever make intervals longer, and when the refresh rate
+ * changes the estimate follows within a few frames.
+ */
+/*package*/ class IdleTimeEstimator {
+
+  private static final int SAMPLE_COUNT = 8;
+  private static final long DEFAULT_FRAME_DURATION_NS = 1000000000L / 60;
+  private static final long MIN_FRAME_DURATION_NS = 1000000000L / 240;
+  // Longer intervals mean the frame callback wasn't posted in between, e.g. because the host was
+  // paused or no idle callbacks were requested. They don't tell anything about the refresh rate.
+  private static final long MAX_FRAME_INTERVAL_NS = 1000000000L / 20;
+
+  private final long[] mFrameIntervals = new long[SAMPLE_COUNT];
+  private int mFrameIntervalCount = 0;
+  private int mNextFrameInterval = 0;
+  private long mLastFrameTimeNanos = -1;
+
+  private long mObservedFrameTimeNanos = 0;
+  private long mIdleTimeOfferedNanos = 0;
+  private long mJSDelayNanos = 0;
+  private int mDispatchedFrames = 0;
+  private int mSkippedFrames = 0;
+
+  /**
+   * Records the start of a new frame, called from the UI thread.
+   */
+  public synchronized void onFrame(long frameTimeNanos) {
+    long interval = frameTimeNanos - mLastFrameTimeNanos;
+    if (mLastFrameTimeNanos >= 0 && interval > 0 && interval <= MAX_FRAME_INTERVAL_NS) {
+      mFrameIntervals[mNextFrameInterval] = interval;
+      mNextFrameInterval = (mNextFrameInterval + 1) % SAMPLE_COUNT;
+      mFrameIntervalCount = Math.min(mFrameIntervalCount + 1, SAMPLE_COUNT);
+      mObservedFrameTimeNanos += interval;
+    }
+    mLastFrameTimeNanos = frameTimeNanos;
+  }
+
+  public synchronized long getFrameDurationNanos() {
+    if (mFrameIntervalCount == 0) {
+      return DEFAULT_FRAME_DURATION_NS;
+    }
+    long frameDuration = Long.MAX_VALUE;
+    for (int i = 0; i < mFrameIntervalCount; i++) {
+      frameDuration = Math.min(frameDuration, mFrameIntervals[i]);
+    }
+    return Math.max(frameDuration, MIN_FRAME_DURATION_NS);
+  }
+
+  /**
+   * @param idleTimeNanos time left in the frame when the idle callbacks were called
+   * @param jsDelayNanos time between the start of the frame and the JS thread getting to the idle
+   * callbacks, i.e. how long the UI and JS threads were busy in that frame
+   */
+  public synchronized void onIdleFrameDispatched(long idleTimeNanos, long jsDelayNanos) {
+    mDispatchedFrames++;
+    mIdleTimeOfferedNanos += idleTimeNanos;
+    mJSDelayNanos += jsDelayNanos;
+  }
+
+  /**
+   * Called when a frame had no time left for idle callbacks, either because the JS thread only got
+   * to them past the deadline or because it was busy for the whole frame.
+   */
+  public synchronized void onIdleFrameSkipped() {
+    mSkippedFrames++;
+  }
+
+  public synchronized int getDispatchedFrames() {
+    return mDispatchedFrames;
+  }
+
+  public synchronized int getSkippedFrames() {
+    return mSkippedFrames;
+  }
+
+  public synchronized double getIdleTimeOfferedMs() {
+    return mIdleTimeOfferedNanos / 1000000.0;
+  }
+
+  /**
+   * @return the average time the JS thread needed to get to the idle callbacks in a frame
+   */
+  public synchronized double getAverageJSDelayMs() {
+    return mDispatchedFrames == 0 ? 0 : mJSDelayNanos / 1000000.0 / mDispatchedFrames;
+  }
+
+  /**
+   * @return the fraction of the frame time observed while idle callbacks were requested that was
+   * handed out to them
+   */
+  public synchronized double getIdleUtilisation() {
+    return mObservedFrameTimeNanos == 0 ?
+        0 :
+        Math.min(1, (double) mIdleTimeOfferedNanos / mObservedFrameTimeNanos);
+  }
+}
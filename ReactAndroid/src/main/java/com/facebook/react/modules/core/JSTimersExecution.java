@@ -14,6 +14,6 @@ import com.facebook.react.bridge.WritableArray;
 
 public interface JSTimersExecution extends JavaScriptModule {
   void callTimers(WritableArray timerIDs);
-  void callIdleCallbacks(double frameTime);
+  void callIdleCallbacks(double frameTime, double deadline);
   void emitTimeDriftWarning(String warningMessage);
 }
@@ -0,0 +1,84 @@
+/**
+ * Copyright (c) 2015-present, Facebook, Inc.
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree. An additional grant
+ * of patent rights can be found in the PATENTS file in the same directory.
+ */
+
+package com.facebook.react.modules.core;
+
+import javax.annotation.Nullable;
+
+import java.util.Comparator;
+import java.util.PriorityQueue;
+
+import android.util.SparseArray;
+
+/**
+ * {@link TimerQueue} backed by a binary heap. Insertion is O(log n) but cancelling a timer is O(n),
+ * which is fine for the handful of timers most apps have.
+ */
+/*package*/ class PriorityTimerQueue implements TimerQueue {
+
+  private final PriorityQueue<Timing.Timer> mTimers;
+  private final SparseArray<Timing.Timer> mTimerIdsToTimers;
+
+  public PriorityTimerQueue() {
+    // We store timers sorted by finish time.
+    mTimers = new PriorityQueue<Timing.Timer>(
+        11, // Default capacity: for some reason they don't expose a (Comparator) constructor
+        new Comparator<Timing.Timer>() {
+          @Override
+          public int compare(Timing.Timer lhs, Timing.Timer rhs) {
+            long diff = lhs.mTargetTime - rhs.mTargetTime;
+            if (diff == 0) {
+              return 0;
+            } else if (diff < 0) {
+              return -1;
+            } else {
+              return 1;
+            }
+          }
+        });
+    mTimerIdsToTimers = new SparseArray<>();
+  }
+
+  @Override
+  public void add(Timing.Timer timer) {
+    mTimers.add(timer);
+    mTimerIdsToTimers.put(timer.mCallbackID, timer);
+  }
+
+  @Override
+  public @Nullable Timing.Timer remove(int callbackID) {
+    Timing.Timer timer = mTimerIdsToTimers.get(callbackID);
+    if (timer == null) {
+      return null;
+    }
+    mTimerIdsToTimers.remove(callbackID);
+    mTimers.remove(timer);
+    return timer;
+  }
+
+  @Override
+  public @Nullable Timing.Timer pollExpired(long timeMillis) {
+    if (mTimers.isEmpty() || mTimers.peek().mTargetTime >= timeMillis) {
+      return null;
+    }
+    Timing.Timer timer = mTimers.poll();
+    mTimerIdsToTimers.remove(timer.mCallbackID);
+    return timer;
+  }
+
+  @Override
+  public long getNextWakeupTime() {
+    return mTimers.isEmpty() ? Long.MAX_VALUE : mTimers.peek().mTargetTime;
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return mTimers.isEmpty();
+  }
+}
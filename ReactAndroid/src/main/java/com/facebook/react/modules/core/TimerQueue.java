@@ -0,0 +1,40 @@
+/**
+ * Copyright (c) 2015-present, Facebook, Inc.
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree. An additional grant
+ * of patent rights can be found in the PATENTS file in the same directory.
+ */
+
+package com.facebook.react.modules.core;
+
+import javax.annotation.Nullable;
+
+/**
+ * Storage for the JS timers scheduled through {@link Timing}, ordered by target time. Not thread
+ * safe, {@link Timing} guards all access.
+ */
+/*package*/ interface TimerQueue {
+
+  void add(Timing.Timer timer);
+
+  /**
+   * @return the removed timer, or null if no timer with that id is scheduled
+   */
+  @Nullable Timing.Timer remove(int callbackID);
+
+  /**
+   * Removes and returns the next timer whose target time is before {@code timeMillis}, or null if
+   * there is none. Expired timers are returned in target time order.
+   */
+  @Nullable Timing.Timer pollExpired(long timeMillis);
+
+  /**
+   * @return a time at which {@link #pollExpired} should be called next, no later than the target
+   * time of the earliest timer, or {@link Long#MAX_VALUE} if there are no timers
+   */
+  long getNextWakeupTime();
+
+  boolean isEmpty();
+}
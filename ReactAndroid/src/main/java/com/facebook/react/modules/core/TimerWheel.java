@@ -0,0 +1,287 @@
+/**
+ * Copyright (c) 2015-present, Facebook, Inc.
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree. An additional grant
+ * of patent rights can be found in the PATENTS file in the same directory.
+ */
+
+package com.facebook.react.modules.core;
+
+import javax.annotation.Nullable;
+
+import com.facebook.react.common.IntObjectMap;
+
+/**
+ * {@link TimerQueue} implemented as a hierarchical timing wheel with a resolution of 1ms, for apps
+ * that keep thousands of timers alive (e.g. debounced inputs). Adding and cancelling a timer is
+ * O(1), timers are linked directly into the slot of the wheel they belong to.
+ *
+ * The first level has one slot per millisecond for the next 256ms, each following level covers 64
+ * times the range of the previous one. Whenever the lower level wraps around, the timers of the
+ * matching slot of the level above are redistributed ("cascaded") into the lower levels. Timers
+ * further in the future than the last level can hold are parked in its last slot and re-added with
+ * their real target time when that slot cascades.
+ */
+/*package*/ class TimerWheel implements TimerQueue {
+
+  private static final int ROOT_BITS = 8;
+  private static final int ROOT_SIZE = 1 << ROOT_BITS;
+  private static final int ROOT_MASK = ROOT_SIZE - 1;
+  private static final int LEVEL_BITS = 6;
+  private static final int LEVEL_SIZE = 1 << LEVEL_BITS;
+  private static final int LEVEL_MASK = LEVEL_SIZE - 1;
+  private static final int LEVEL_COUNT = 5;
+  private static final long MAX_DELTA = (1L << (ROOT_BITS + (LEVEL_COUNT - 1) * LEVEL_BITS)) - 1;
+
+  // Level of timers that are already expired but have not been polled yet.
+  private static final int EXPIRED_LEVEL = -1;
+
+  private final Timing.Timer[][] mSlots = new Timing.Timer[LEVEL_COUNT][];
+  private final int[] mLevelCounts = new int[LEVEL_COUNT];
+  private final IntObjectMap<Timing.Timer> mTimerIdsToTimers = new IntObjectMap<>();
+  private @Nullable Timing.Timer mExpiredHead;
+  private @Nullable Timing.Timer mExpiredTail;
+  private long mCurrentTime;
+
+  /**
+   * @param startTimeMillis current time in the time base used for the timers' target times
+   */
+  public TimerWheel(long startTimeMillis) {
+    mCurrentTime = startTimeMillis;
+    mSlots[0] = new Timing.Timer[ROOT_SIZE];
+    for (int level = 1; level < LEVEL_COUNT; level++) {
+      mSlots[level] = new Timing.Timer[LEVEL_SIZE];
+    }
+  }
+
+  @Override
+  public void add(Timing.Timer timer) {
+    Timing.Timer previous = mTimerIdsToTimers.put(timer.mCallbackID, timer);
+    if (previous != null) {
+      unlink(previous);
+    }
+    insert(timer);
+  }
+
+  @Override
+  public @Nullable Timing.Timer remove(int callbackID) {
+    Timing.Timer timer = mTimerIdsToTimers.remove(callbackID);
+    if (timer != null) {
+      unlink(timer);
+    }
+    return timer;
+  }
+
+  @Override
+  public @Nullable Timing.Timer pollExpired(long timeMillis) {
+    if (mExpiredHead == null) {
+      advanceTo(timeMillis);
+    }
+    Timing.Timer timer = mExpiredHead;
+    if (timer == null || timer.mTargetTime >= timeMillis) {
+      return null;
+    }
+    unlink(timer);
+    mTimerIdsToTimers.remove(timer.mCallbackID);
+    return timer;
+  }
+
+  /**
+   * The exact target time is only known for the timers in the lowest level. If that level is
+   * empty we wake up when the next non empty level cascades, which for long timers means a few
+   * extra wakeups before the timer fires.
+   */
+  @Override
+  public long getNextWakeupTime() {
+    if (mExpiredHead != null) {
+      return mExpiredHead.mTargetTime;
+    }
+    if (mTimerIdsToTimers.isEmpty()) {
+      return Long.MAX_VALUE;
+    }
+    // Timers in the upper levels get cascaded (and may become due) at the next boundary of the
+    // lowest non empty level, which can be the current time if that cascade hasn't run yet.
+    long wakeupTime = Long.MAX_VALUE;
+    int bits = ROOT_BITS;
+    for (int level = 1; level < LEVEL_COUNT; level++) {
+      if (mLevelCounts[level] > 0) {
+        long mask = (1L << bits) - 1;
+        wakeupTime = (mCurrentTime + mask) & ~mask;
+        break;
+      }
+      bits += LEVEL_BITS;
+    }
+    if (mLevelCounts[0] > 0) {
+      for (int i = 0; i < ROOT_SIZE && mCurrentTime + i < wakeupTime; i++) {
+        if (mSlots[0][(int) ((mCurrentTime + i) & ROOT_MASK)] != null) {
+          return mCurrentTime + i;
+        }
+      }
+    }
+    return wakeupTime;
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return mTimerIdsToTimers.isEmpty();
+  }
+
+  /**
+   * Moves the wheel forward, collecting all timers with a target time before {@code timeMillis}
+   * into the expired list.
+   */
+  private void advanceTo(long timeMillis) {
+    if (mTimerIdsToTimers.isEmpty()) {
+      if (timeMillis > mCurrentTime) {
+        mCurrentTime = timeMillis;
+      }
+      return;
+    }
+    while (mCurrentTime < timeMillis) {
+      int index = (int) (mCurrentTime & ROOT_MASK);
+      if (index == 0) {
+        cascade();
+      } else if (mLevelCounts[0] == 0) {
+        // Nothing can expire before the next cascade of the lowest non empty level, jump straight
+        // to it. This keeps catching up after the app was paused for a long time cheap.
+        int bits = ROOT_BITS;
+        for (int level = 1; level < LEVEL_COUNT - 1 && mLevelCounts[level] == 0; level++) {
+          bits += LEVEL_BITS;
+        }
+        mCurrentTime = Math.min(timeMillis, (mCurrentTime | ((1L << bits) - 1)) + 1);
+        continue;
+      }
+      Timing.Timer timer = mSlots[0][index];
+      while (timer != null) {
+        Timing.Timer next = timer.mNext;
+        unlink(timer);
+        appendExpired(timer);
+        timer = next;
+      }
+      mCurrentTime++;
+    }
+  }
+
+  private void cascade() {
+    for (int level = 1; level < LEVEL_COUNT; level++) {
+      int index = (int) ((mCurrentTime >> (ROOT_BITS + (level - 1) * LEVEL_BITS)) & LEVEL_MASK);
+      Timing.Timer timer = mSlots[level][index];
+      mSlots[level][index] = null;
+      while (timer != null) {
+        Timing.Timer next = timer.mNext;
+        mLevelCounts[level]--;
+        timer.mPrev = null;
+        timer.mNext = null;
+        insert(timer);
+        timer = next;
+      }
+      if (index != 0) {
+        break;
+      }
+    }
+  }
+
+  private void insert(Timing.Timer timer) {
+    long delta = timer.mTargetTime - mCurrentTime;
+    if (delta < 0) {
+      // The wheel has already moved past the target time, so the timer is due right away.
+      insertExpired(timer);
+      return;
+    }
+    long slotTime = timer.mTargetTime;
+    if (delta > MAX_DELTA) {
+      slotTime = mCurrentTime + MAX_DELTA;
+      delta = MAX_DELTA;
+    }
+    if (delta < ROOT_SIZE) {
+      link(timer, 0, (int) (slotTime & ROOT_MASK));
+      return;
+    }
+    for (int level = 1; level < LEVEL_COUNT; level++) {
+      int shift = ROOT_BITS + level * LEVEL_BITS;
+      if (level == LEVEL_COUNT - 1 || delta < (1L << shift)) {
+        link(timer, level, (int) ((slotTime >> (shift - LEVEL_BITS)) & LEVEL_MASK));
+        return;
+      }
+    }
+  }
+
+  private void link(Timing.Timer timer, int level, int slot) {
+    Timing.Timer head = mSlots[level][slot];
+    timer.mLevel = level;
+    timer.mSlot = slot;
+    timer.mPrev = null;
+    timer.mNext = head;
+    if (head != null) {
+      head.mPrev = timer;
+    }
+    mSlots[level][slot] = timer;
+    mLevelCounts[level]++;
+  }
+
+  private void appendExpired(Timing.Timer timer) {
+    timer.mLevel = EXPIRED_LEVEL;
+    timer.mPrev = mExpiredTail;
+    timer.mNext = null;
+    if (mExpiredTail != null) {
+      mExpiredTail.mNext = timer;
+    } else {
+      mExpiredHead = timer;
+    }
+    mExpiredTail = timer;
+  }
+
+  /**
+   * Adds the timer to the expired list keeping it sorted by target time. The list only holds the
+   * timers that are due in the current frame so walking it is cheap.
+   */
+  private void insertExpired(Timing.Timer timer) {
+    Timing.Timer prev = mExpiredTail;
+    while (prev != null && prev.mTargetTime > timer.mTargetTime) {
+      prev = prev.mPrev;
+    }
+    if (prev == mExpiredTail) {
+      appendExpired(timer);
+      return;
+    }
+    timer.mLevel = EXPIRED_LEVEL;
+    timer.mPrev = prev;
+    if (prev != null) {
+      timer.mNext = prev.mNext;
+      prev.mNext = timer;
+    } else {
+      timer.mNext = mExpiredHead;
+      mExpiredHead = timer;
+    }
+    timer.mNext.mPrev = timer;
+  }
+
+  private void unlink(Timing.Timer timer) {
+    Timing.Timer prev = timer.mPrev;
+    Timing.Timer next = timer.mNext;
+    if (next != null) {
+      next.mPrev = prev;
+    }
+    if (timer.mLevel == EXPIRED_LEVEL) {
+      if (prev != null) {
+        prev.mNext = next;
+      } else {
+        mExpiredHead = next;
+      }
+      if (next == null) {
+        mExpiredTail = prev;
+      }
+    } else {
+      if (prev != null) {
+        prev.mNext = next;
+      } else {
+        mSlots[timer.mLevel][timer.mSlot] = next;
+      }
+      mLevelCounts[timer.mLevel]--;
+    }
+    timer.mPrev = null;
+    timer.mNext = null;
+  }
+}
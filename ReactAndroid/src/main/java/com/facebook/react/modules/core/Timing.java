@@ -11,14 +11,13 @@ package com.facebook.react.modules.core;
 
 import javax.annotation.Nullable;
 
-import java.util.Comparator;
-import java.util.PriorityQueue;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.concurrent.atomic.AtomicBoolean;
 
-import android.util.SparseArray;
-
 import com.facebook.react.bridge.Arguments;
 import com.facebook.react.bridge.LifecycleEventListener;
+import com.facebook.react.bridge.PerformanceCounter;
 import com.facebook.react.bridge.ReactApplicationContext;
 import com.facebook.react.bridge.ReactContextBaseJavaModule;
 import com.facebook.react.bridge.ReactMethod;
@@ -32,28 +31,38 @@ import com.facebook.react.module.annotations.ReactModule;
 
 /**
  * Native module for JS timer execution. Timers fire on frame boundaries.
+ *
+ * When background timers are enabled, only timers short enough to be used for animations (a frame
+ * or less) stay aligned with frames. Longer timers are scheduled on the JS thread with a delayed
+ * message, so they neither keep the UI thread's frame callback running nor stop while the host is
+ * paused.
  */
 @ReactModule(name = Timing.NAME)
 public final class Timing extends ReactContextBaseJavaModule implements LifecycleEventListener,
-  HeadlessJsTaskEventListener {
+  HeadlessJsTaskEventListener, PerformanceCounter {
 
   protected static final String NAME = "Timing";
 
   // These timing contants should be kept in sync with the ones in `JSTimersExecution.js`.
   // The minimum time in milliseconds left in the frame to call idle callbacks.
   private static final float IDLE_CALLBACK_FRAME_DEADLINE_MS = 1.f;
-  // The total duration of a frame in milliseconds, this assumes that devices run at 60 fps.
-  // TODO: Lower frame duration on devices that are too slow to run consistently
-  // at 60 fps.
+  // The duration of a frame at 60 fps, timers up to that long are considered frame aligned. Idle
+  // callbacks use the frame duration measured by the IdleTimeEstimator instead.
   private static final float FRAME_DURATION_MS = 1000.f / 60.f;
 
   private final DevSupportManager mDevSupportManager;
 
-  private static class Timer {
-    private final int mCallbackID;
-    private final boolean mRepeat;
-    private final int mInterval;
-    private long mTargetTime;
+  /*package*/ static class Timer {
+    /*package*/ final int mCallbackID;
+    /*package*/ final boolean mRepeat;
+    /*package*/ final int mInterval;
+    /*package*/ long mTargetTime;
+
+    // Position of the timer in a {@link TimerWheel}
+    /*package*/ @Nullable Timer mPrev;
+    /*package*/ @Nullable Timer mNext;
+    /*package*/ int mLevel;
+    /*package*/ int mSlot;
 
     private Timer(
         int callbackID,
@@ -82,9 +91,10 @@ public final class Timing extends ReactContextBaseJavaModule implements Lifecycl
       }
 
       long frameTimeMillis = frameTimeNanos / 1000000;
+      boolean hasFrameTimers = true;
       synchronized (mTimerGuard) {
-        while (!mTimers.isEmpty() && mTimers.peek().mTargetTime < frameTimeMillis) {
-          Timer timer = mTimers.poll();
+        Timer timer;
+        while ((timer = mTimers.pollExpired(frameTimeMillis)) != null) {
           if (mTimersToCall == null) {
             mTimersToCall = Arguments.createArray();
           }
@@ -92,10 +102,13 @@ public final class Timing extends ReactContextBaseJavaModule implements Lifecycl
           if (timer.mRepeat) {
             timer.mTargetTime = frameTimeMillis + timer.mInterval;
             mTimers.add(timer);
-          } else {
-            mTimerIdsToTimers.remove(timer.mCallbackID);
           }
         }
+        if (mBackgroundTimersEnabled && mTimers.isEmpty()) {
+          // Stop waking up the UI thread until the next frame aligned timer gets created.
+          mFrameTimersIdle = true;
+          hasFrameTimers = false;
+        }
       }
 
       if (mTimersToCall != null) {
@@ -103,7 +116,57 @@ public final class Timing extends ReactContextBaseJavaModule implements Lifecycl
         mTimersToCall = null;
       }
 
-      mReactChoreographer.postFrameCallback(ReactChoreographer.CallbackType.TIMERS_EVENTS, this);
+      if (hasFrameTimers) {
+        mReactChoreographer.postFrameCallback(ReactChoreographer.CallbackType.TIMERS_EVENTS, this);
+      } else {
+        mFrameCallbackPosted = false;
+      }
+    }
+  }
+
+  /**
+   * Fires the timers that are not aligned with frames, runs on the JS thread. Every instance is
+   * posted for a given wakeup time and does nothing if a different wakeup has been scheduled since.
+   */
+  private class BackgroundTimersRunnable implements Runnable {
+
+    private final long mWakeupTime;
+
+    public BackgroundTimersRunnable(long wakeupTime) {
+      mWakeupTime = wakeupTime;
+    }
+
+    @Override
+    public void run() {
+      if (!getReactApplicationContext().hasActiveCatalystInstance()) {
+        return;
+      }
+
+      long timeMillis = SystemClock.nanoTime() / 1000000;
+      WritableArray timersToCall = null;
+      synchronized (mTimerGuard) {
+        if (mWakeupTime != mNextBackgroundWakeupTime) {
+          return;
+        }
+        mNextBackgroundWakeupTime = Long.MAX_VALUE;
+
+        Timer timer;
+        while ((timer = mBackgroundTimers.pollExpired(timeMillis + 1)) != null) {
+          if (timersToCall == null) {
+            timersToCall = Arguments.createArray();
+          }
+          timersToCall.pushInt(timer.mCallbackID);
+          if (timer.mRepeat) {
+            timer.mTargetTime = timeMillis + timer.mInterval;
+            mBackgroundTimers.add(timer);
+          }
+        }
+        scheduleBackgroundWakeupLocked(timeMillis);
+      }
+
+      if (timersToCall != null) {
+        getReactApplicationContext().getJSModule(JSTimersExecution.class).callTimers(timersToCall);
+      }
     }
   }
 
@@ -115,12 +178,15 @@ public final class Timing extends ReactContextBaseJavaModule implements Lifecycl
         return;
       }
 
+      mIdleTimeEstimator.onFrame(frameTimeNanos);
+
       // If the JS thread is busy for multiple frames we cancel any other pending runnable.
-      if (mCurrentIdleCallbackRunnable != null) {
-        mCurrentIdleCallbackRunnable.cancel();
+      if (mCurrentIdleCallbackRunnable != null && mCurrentIdleCallbackRunnable.cancel()) {
+        mIdleTimeEstimator.onIdleFrameSkipped();
       }
 
-      mCurrentIdleCallbackRunnable = new IdleCallbackRunnable(frameTimeNanos);
+      mCurrentIdleCallbackRunnable =
+          new IdleCallbackRunnable(frameTimeNanos, mIdleTimeEstimator.getFrameDurationNanos());
       getReactApplicationContext().runOnJSQueueThread(mCurrentIdleCallbackRunnable);
 
       mReactChoreographer.postFrameCallback(ReactChoreographer.CallbackType.IDLE_EVENT, this);
@@ -129,10 +195,13 @@ public final class Timing extends ReactContextBaseJavaModule implements Lifecycl
 
   private class IdleCallbackRunnable implements Runnable {
     private volatile boolean mCancelled = false;
+    private volatile boolean mStarted = false;
     private final long mFrameStartTime;
+    private final long mFrameDuration;
 
-    public IdleCallbackRunnable(long frameStartTime) {
+    public IdleCallbackRunnable(long frameStartTime, long frameDuration) {
       mFrameStartTime = frameStartTime;
+      mFrameDuration = frameDuration;
     }
 
     @Override
@@ -140,14 +209,19 @@ public final class Timing extends ReactContextBaseJavaModule implements Lifecycl
       if (mCancelled) {
         return;
       }
+      mStarted = true;
 
       long frameTimeMillis = mFrameStartTime / 1000000;
       long timeSinceBoot = SystemClock.uptimeMillis();
       long frameTimeElapsed = timeSinceBoot - frameTimeMillis;
       long time = SystemClock.currentTimeMillis();
       long absoluteFrameStartTime = time - frameTimeElapsed;
+      double frameDurationMillis = mFrameDuration / 1000000.0;
+      double idleTime = frameDurationMillis - frameTimeElapsed;
 
-      if (FRAME_DURATION_MS - (float) frameTimeElapsed < IDLE_CALLBACK_FRAME_DEADLINE_MS) {
+      if (idleTime < IDLE_CALLBACK_FRAME_DEADLINE_MS) {
+        mIdleTimeEstimator.onIdleFrameSkipped();
+        mCurrentIdleCallbackRunnable = null;
         return;
       }
 
@@ -158,54 +232,81 @@ public final class Timing extends ReactContextBaseJavaModule implements Lifecycl
 
       if (sendIdleEvents) {
         getReactApplicationContext().getJSModule(JSTimersExecution.class)
-            .callIdleCallbacks(absoluteFrameStartTime);
+            .callIdleCallbacks(absoluteFrameStartTime, absoluteFrameStartTime + frameDurationMillis);
+        mIdleTimeEstimator.onIdleFrameDispatched(
+            (long) (idleTime * 1000000),
+            frameTimeElapsed * 1000000);
       }
 
       mCurrentIdleCallbackRunnable = null;
     }
 
-    public void cancel() {
+    /**
+     * @return whether the runnable was cancelled before it got to run
+     */
+    public boolean cancel() {
       mCancelled = true;
+      return !mStarted;
     }
   }
 
   private final Object mTimerGuard = new Object();
   private final Object mIdleCallbackGuard = new Object();
-  private final PriorityQueue<Timer> mTimers;
-  private final SparseArray<Timer> mTimerIdsToTimers;
+  private final TimerQueue mTimers;
+  private final TimerQueue mBackgroundTimers;
+  private final boolean mBackgroundTimersEnabled;
   private final AtomicBoolean isPaused = new AtomicBoolean(true);
   private final AtomicBoolean isRunningTasks = new AtomicBoolean(false);
   private final TimerFrameCallback mTimerFrameCallback = new TimerFrameCallback();
   private final IdleFrameCallback mIdleFrameCallback = new IdleFrameCallback();
+  private final IdleTimeEstimator mIdleTimeEstimator = new IdleTimeEstimator();
   private final ReactChoreographer mReactChoreographer;
   private @Nullable IdleCallbackRunnable mCurrentIdleCallbackRunnable;
   private boolean mFrameCallbackPosted = false;
   private boolean mFrameIdleCallbackPosted = false;
   private boolean mSendIdleEvents = false;
+  // Guarded by mTimerGuard
+  private boolean mFrameTimersIdle = false;
+  private long mNextBackgroundWakeupTime = Long.MAX_VALUE;
+
+  private final Runnable mResumeFrameCallbackRunnable = new Runnable() {
+    @Override
+    public void run() {
+      if (!isPaused.get() || isRunningTasks.get()) {
+        setChoreographerCallback();
+      }
+    }
+  };
 
   public Timing(ReactApplicationContext reactContext, DevSupportManager devSupportManager) {
+    this(reactContext, devSupportManager, false, false);
+  }
+
+  /**
+   * @param useTimerWheel store timers in a {@link TimerWheel} instead of a priority queue. Adding
+   * and cancelling timers becomes O(1), which pays off for apps keeping thousands of timers alive.
+   * @param backgroundTimersEnabled schedule timers longer than a frame on the JS thread instead of
+   * checking them on every frame from the UI thread.
+   */
+  public Timing(
+      ReactApplicationContext reactContext,
+      DevSupportManager devSupportManager,
+      boolean useTimerWheel,
+      boolean backgroundTimersEnabled) {
     super(reactContext);
     mDevSupportManager = devSupportManager;
-    // We store timers sorted by finish time.
-    mTimers = new PriorityQueue<Timer>(
-        11, // Default capacity: for some reason they don't expose a (Comparator) constructor
-        new Comparator<Timer>() {
-          @Override
-          public int compare(Timer lhs, Timer rhs) {
-            long diff = lhs.mTargetTime - rhs.mTargetTime;
-            if (diff == 0) {
-              return 0;
-            } else if (diff < 0) {
-              return -1;
-            } else {
-              return 1;
-            }
-          }
-        });
-    mTimerIdsToTimers = new SparseArray<>();
+    mTimers = createTimerQueue(useTimerWheel);
+    mBackgroundTimers = createTimerQueue(useTimerWheel);
+    mBackgroundTimersEnabled = backgroundTimersEnabled;
     mReactChoreographer = ReactChoreographer.getInstance();
   }
 
+  private static TimerQueue createTimerQueue(boolean useTimerWheel) {
+    return useTimerWheel ?
+        new TimerWheel(SystemClock.nanoTime() / 1000000) :
+        new PriorityTimerQueue();
+  }
+
   @Override
   public void initialize() {
     getReactApplicationContext().addLifecycleEventListener(this);
@@ -354,26 +455,57 @@ public final class Timing extends ReactContextBaseJavaModule implements Lifecycl
       return;
     }
 
-    long initialTargetTime = SystemClock.nanoTime() / 1000000 + adjustedDuration;
+    long timeMillis = SystemClock.nanoTime() / 1000000;
+    long initialTargetTime = timeMillis + adjustedDuration;
     Timer timer = new Timer(callbackID, initialTargetTime, duration, repeat);
+    boolean needsFrameCallback = false;
     synchronized (mTimerGuard) {
-      mTimers.add(timer);
-      mTimerIdsToTimers.put(callbackID, timer);
+      if (mBackgroundTimersEnabled && duration > FRAME_DURATION_MS) {
+        mBackgroundTimers.add(timer);
+        scheduleBackgroundWakeupLocked(timeMillis);
+      } else {
+        mTimers.add(timer);
+        needsFrameCallback = mFrameTimersIdle;
+        mFrameTimersIdle = false;
+      }
+    }
+    if (needsFrameCallback) {
+      UiThreadUtil.runOnUiThread(mResumeFrameCallbackRunnable);
+    }
+  }
+
+  private void scheduleBackgroundWakeupLocked(long timeMillis) {
+    long wakeupTime = mBackgroundTimers.getNextWakeupTime();
+    if (wakeupTime < mNextBackgroundWakeupTime) {
+      mNextBackgroundWakeupTime = wakeupTime;
+      getReactApplicationContext().runOnJSQueueThreadDelayed(
+          new BackgroundTimersRunnable(wakeupTime),
+          Math.max(0, wakeupTime - timeMillis));
     }
   }
 
   @ReactMethod
   public void deleteTimer(int timerId) {
     synchronized (mTimerGuard) {
-      Timer timer = mTimerIdsToTimers.get(timerId);
-      if (timer == null) {
-        return;
+      if (mTimers.remove(timerId) == null) {
+        // A wakeup that was scheduled for this timer will find nothing to fire and reschedule.
+        mBackgroundTimers.remove(timerId);
       }
-      mTimerIdsToTimers.remove(timerId);
-      mTimers.remove(timer);
     }
   }
 
+  @Override
+  public Map<String, Double> getPerformanceCounters() {
+    Map<String, Double> perfMap = new HashMap<>();
+    perfMap.put("IdleFrameDuration", mIdleTimeEstimator.getFrameDurationNanos() / 1000000.0);
+    perfMap.put("IdleFramesDispatched", (double) mIdleTimeEstimator.getDispatchedFrames());
+    perfMap.put("IdleFramesSkipped", (double) mIdleTimeEstimator.getSkippedFrames());
+    perfMap.put("IdleTimeOffered", mIdleTimeEstimator.getIdleTimeOfferedMs());
+    perfMap.put("IdleJSDelay", mIdleTimeEstimator.getAverageJSDelayMs());
+    perfMap.put("IdleUtilisation", mIdleTimeEstimator.getIdleUtilisation());
+    return perfMap;
+  }
+
   @ReactMethod
   public void setSendIdleEvents(final boolean sendIdleEvents) {
     synchronized (mIdleCallbackGuard) {
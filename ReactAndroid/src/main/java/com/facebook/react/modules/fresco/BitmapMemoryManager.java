@@ -0,0 +1,120 @@
+/**
+ * Copyright (c) 2015-present, Facebook, Inc.
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree. An additional grant
+ * of patent rights can be found in the PATENTS file in the same directory.
+ */
+
+package com.facebook.react.modules.fresco;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import com.facebook.common.logging.FLog;
+import com.facebook.common.memory.MemoryTrimType;
+import com.facebook.common.memory.MemoryTrimmable;
+import com.facebook.common.memory.MemoryTrimmableRegistry;
+import com.facebook.drawee.backends.pipeline.Fresco;
+import com.facebook.imagepipeline.core.ImagePipelineFactory;
+import com.facebook.react.bridge.MemoryPressure;
+import com.facebook.react.bridge.MemoryPressureListener;
+import com.facebook.react.common.ReactConstants;
+
+/**
+ * Single place where the memory held by the image pipeline is trimmed when the system runs low on
+ * memory. The default Fresco configuration registers its bitmap and encoded memory caches and its
+ * bitmap pool here, so that every image in the app (image views, flat images, inline text images)
+ * gives memory back when {@link FrescoModule} receives a memory pressure event, instead of only
+ * when the last activity is destroyed.
+ *
+ * If Fresco was initialized with a custom configuration that doesn't use this registry, critical
+ * memory pressure still clears the memory caches of the pipeline.
+ */
+public class BitmapMemoryManager implements MemoryTrimmableRegistry, MemoryPressureListener {
+
+  private static final BitmapMemoryManager sInstance = new BitmapMemoryManager();
+
+  private final Set<MemoryTrimmable> mTrimmables =
+    Collections.synchronizedSet(new LinkedHashSet<MemoryTrimmable>());
+
+  public static BitmapMemoryManager getInstance() {
+    return sInstance;
+  }
+
+  private BitmapMemoryManager() {
+  }
+
+  @Override
+  public void registerMemoryTrimmable(MemoryTrimmable trimmable) {
+    mTrimmables.add(trimmable);
+  }
+
+  @Override
+  public void unregisterMemoryTrimmable(MemoryTrimmable trimmable) {
+    mTrimmables.remove(trimmable);
+  }
+
+  @Override
+  public void handleMemoryPressure(MemoryPressure level) {
+    if (!FrescoModule.hasBeenInitialized()) {
+      return;
+    }
+    int sizeBeforeTrim = getBitmapCacheSizeInBytes();
+    trim(getTrimType(level));
+    if (level == MemoryPressure.CRITICAL) {
+      Fresco.getImagePipeline().clearMemoryCaches();
+    }
+    FLog.i(
+        ReactConstants.TAG,
+        "Trimmed image memory for %s: bitmap cache went from %d to %d bytes",
+        level,
+        sizeBeforeTrim,
+        getBitmapCacheSizeInBytes());
+  }
+
+  /**
+   * @return the size of the decoded bitmaps held by the memory cache of the image pipeline,
+   * including the ones currently displayed
+   */
+  public int getBitmapCacheSizeInBytes() {
+    if (!FrescoModule.hasBeenInitialized()) {
+      return 0;
+    }
+    return ImagePipelineFactory.getInstance().getBitmapCountingMemoryCache().getSizeInBytes();
+  }
+
+  /**
+   * @return the number of decoded bitmaps held by the memory cache of the image pipeline
+   */
+  public int getBitmapCacheCount() {
+    if (!FrescoModule.hasBeenInitialized()) {
+      return 0;
+    }
+    return ImagePipelineFactory.getInstance().getBitmapCountingMemoryCache().getCount();
+  }
+
+  private void trim(MemoryTrimType trimType) {
+    // copy the trimmables to avoid ConcurrentModificationException if any of them unregister
+    // themselves in trim()
+    MemoryTrimmable[] trimmables = mTrimmables.toArray(new MemoryTrimmable[mTrimmables.size()]);
+    for (MemoryTrimmable trimmable : trimmables) {
+      trimmable.trim(trimType);
+    }
+  }
+
+  private static MemoryTrimType getTrimType(MemoryPressure level) {
+    switch (level) {
+      case UI_HIDDEN:
+        return MemoryTrimType.OnAppBackgrounded;
+      case MODERATE:
+        return MemoryTrimType.OnSystemLowMemoryWhileAppInForeground;
+      case CRITICAL:
+        return MemoryTrimType.OnSystemLowMemoryWhileAppInBackground;
+      default:
+        throw new IllegalArgumentException("Unknown memory pressure level: " + level);
+    }
+  }
+}
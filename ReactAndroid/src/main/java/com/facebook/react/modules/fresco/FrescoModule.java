@@ -20,7 +20,11 @@ import com.facebook.drawee.backends.pipeline.Fresco;
 import com.facebook.imagepipeline.backends.okhttp3.OkHttpImagePipelineConfigFactory;
 import com.facebook.imagepipeline.core.ImagePipelineConfig;
 import com.facebook.imagepipeline.listener.RequestListener;
+import com.facebook.imagepipeline.memory.PoolConfig;
+import com.facebook.imagepipeline.memory.PoolFactory;
 import com.facebook.react.bridge.LifecycleEventListener;
+import com.facebook.react.bridge.MemoryPressure;
+import com.facebook.react.bridge.MemoryPressureListener;
 import com.facebook.react.bridge.ReactApplicationContext;
 import com.facebook.react.bridge.ReactContext;
 import com.facebook.react.bridge.ReactContextBaseJavaModule;
@@ -42,7 +46,7 @@ import okhttp3.OkHttpClient;
  */
 @ReactModule(name = "FrescoModule")
 public class FrescoModule extends ReactContextBaseJavaModule implements
-    ModuleDataCleaner.Cleanable, LifecycleEventListener {
+    ModuleDataCleaner.Cleanable, LifecycleEventListener, MemoryPressureListener {
 
   private final boolean mClearOnDestroy;
   private @Nullable ImagePipelineConfig mConfig;
@@ -155,6 +159,7 @@ public class FrescoModule extends ReactContextBaseJavaModule implements
     requestListeners.add(new SystraceRequestListener());
 
     OkHttpClient client = OkHttpClientProvider.createClient();
+    BitmapMemoryManager memoryManager = BitmapMemoryManager.getInstance();
 
     // make sure to forward cookies for any requests via the okHttpClient
     // so that image requests to endpoints that use cookies still work
@@ -166,7 +171,10 @@ public class FrescoModule extends ReactContextBaseJavaModule implements
       .newBuilder(context.getApplicationContext(), client)
       .setNetworkFetcher(new ReactOkHttpNetworkFetcher(client))
       .setDownsampleEnabled(false)
-      .setRequestListeners(requestListeners);
+      .setRequestListeners(requestListeners)
+      .setMemoryTrimmableRegistry(memoryManager)
+      .setPoolFactory(new PoolFactory(
+        PoolConfig.newBuilder().setMemoryTrimmableRegistry(memoryManager).build()));
   }
 
   @Override
@@ -187,6 +195,11 @@ public class FrescoModule extends ReactContextBaseJavaModule implements
     }
   }
 
+  @Override
+  public void handleMemoryPressure(MemoryPressure level) {
+    BitmapMemoryManager.getInstance().handleMemoryPressure(level);
+  }
+
   private static class FrescoHandler implements SoLoaderShim.Handler {
     @Override
     public void loadLibrary(String libraryName) {
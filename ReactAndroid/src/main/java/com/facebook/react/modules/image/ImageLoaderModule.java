@@ -11,6 +11,10 @@ package com.facebook.react.modules.image;
 
 import javax.annotation.Nullable;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import android.net.Uri;
 import android.util.SparseArray;
 
@@ -25,13 +29,13 @@ import com.facebook.imagepipeline.image.CloseableImage;
 import com.facebook.imagepipeline.request.ImageRequest;
 import com.facebook.imagepipeline.request.ImageRequestBuilder;
 import com.facebook.react.bridge.Arguments;
-import com.facebook.react.bridge.GuardedAsyncTask;
 import com.facebook.react.bridge.LifecycleEventListener;
 import com.facebook.react.bridge.Promise;
 import com.facebook.react.bridge.ReactApplicationContext;
 import com.facebook.react.bridge.ReactContextBaseJavaModule;
 import com.facebook.react.bridge.ReactMethod;
 import com.facebook.react.bridge.ReadableArray;
+import com.facebook.react.bridge.ReadableMap;
 import com.facebook.react.bridge.WritableMap;
 import com.facebook.react.module.annotations.ReactModule;
 
@@ -43,9 +47,16 @@ public class ImageLoaderModule extends ReactContextBaseJavaModule implements
   private static final String ERROR_PREFETCH_FAILURE = "E_PREFETCH_FAILURE";
   private static final String ERROR_GET_SIZE_FAILURE = "E_GET_SIZE_FAILURE";
 
+  private static final String PREFETCH_OPTION_MEMORY = "memory";
+  private static final String PREFETCH_STATUS_SUCCESS = "success";
+  private static final String PREFETCH_STATUS_FAILURE = "failure";
+  private static final String PREFETCH_STATUS_INVALID_URI = "invalid";
+  private static final String PREFETCH_STATUS_ABORTED = "aborted";
+
   private final Object mCallerContext;
   private final Object mEnqueuedRequestMonitor = new Object();
   private final SparseArray<DataSource<Void>> mEnqueuedRequests = new SparseArray<>();
+  private final SparseArray<List<DataSource<Void>>> mEnqueuedBatchRequests = new SparseArray<>();
 
   public ImageLoaderModule(ReactApplicationContext reactContext) {
     super(reactContext);
@@ -172,34 +183,162 @@ public class ImageLoaderModule extends ReactContextBaseJavaModule implements
     prefetchSource.subscribe(prefetchSubscriber, CallerThreadExecutor.getInstance());
   }
 
+  /**
+   * Prefetches the given images with a single call, which saves a bridge call per image when
+   * hydrating an image heavy screen.
+   *
+   * @param uriStrings the URIs of the remote images to prefetch
+   * @param requestId the client-supplied request ID used to abort all of the prefetches
+   * @param options "memory": whether to prefetch the decoded images to the bitmap memory cache
+   *                instead of the encoded images to the disk cache
+   * @param promise the promise that is fulfilled with a map from each URI to "success",
+   *                "failure", "invalid" or "aborted" once all prefetches are done or aborted
+   */
+  @ReactMethod
+  public void prefetchImages(
+      final ReadableArray uriStrings,
+      final int requestId,
+      final ReadableMap options,
+      final Promise promise) {
+    boolean toMemoryCache = options.hasKey(PREFETCH_OPTION_MEMORY) &&
+        options.getBoolean(PREFETCH_OPTION_MEMORY);
+    final WritableMap result = Arguments.createMap();
+    ImagePipeline imagePipeline = Fresco.getImagePipeline();
+    List<DataSource<Void>> prefetchSources = new ArrayList<>(uriStrings.size());
+    List<String> prefetchUriStrings = new ArrayList<>(uriStrings.size());
+    for (int i = 0; i < uriStrings.size(); i++) {
+      String uriString = uriStrings.getString(i);
+      if (uriString == null || uriString.isEmpty()) {
+        result.putString(uriString == null ? "" : uriString, PREFETCH_STATUS_INVALID_URI);
+        continue;
+      }
+      ImageRequest request = ImageRequestBuilder.newBuilderWithSource(Uri.parse(uriString)).build();
+      prefetchSources.add(
+          toMemoryCache ?
+              imagePipeline.prefetchToBitmapCache(request, mCallerContext) :
+              imagePipeline.prefetchToDiskCache(request, mCallerContext));
+      prefetchUriStrings.add(uriString);
+    }
+
+    if (prefetchSources.isEmpty()) {
+      promise.resolve(result);
+      return;
+    }
+
+    final AtomicInteger remaining = new AtomicInteger(prefetchSources.size());
+    registerBatchRequest(requestId, prefetchSources);
+    for (int i = 0; i < prefetchSources.size(); i++) {
+      final String uriString = prefetchUriStrings.get(i);
+      DataSubscriber<Void> prefetchSubscriber = new BaseDataSubscriber<Void>() {
+        @Override
+        protected void onNewResultImpl(DataSource<Void> dataSource) {
+          if (!dataSource.isFinished()) {
+            return;
+          }
+          onPrefetchDone(dataSource, PREFETCH_STATUS_SUCCESS);
+        }
+
+        @Override
+        protected void onFailureImpl(DataSource<Void> dataSource) {
+          onPrefetchDone(dataSource, PREFETCH_STATUS_FAILURE);
+        }
+
+        @Override
+        public void onCancellation(DataSource<Void> dataSource) {
+          // abortRequest closed the data source before it finished.
+          onPrefetchDone(dataSource, PREFETCH_STATUS_ABORTED);
+        }
+
+        private void onPrefetchDone(DataSource<Void> dataSource, String status) {
+          try {
+            synchronized (result) {
+              result.putString(uriString, status);
+            }
+            if (remaining.decrementAndGet() == 0) {
+              removeBatchRequest(requestId);
+              promise.resolve(result);
+            }
+          } finally {
+            dataSource.close();
+          }
+        }
+      };
+      prefetchSources.get(i).subscribe(prefetchSubscriber, CallerThreadExecutor.getInstance());
+    }
+  }
+
   @ReactMethod
   public void abortRequest(final int requestId) {
     DataSource<Void> request = removeRequest(requestId);
     if (request != null) {
       request.close();
     }
+    List<DataSource<Void>> batchRequest = removeBatchRequest(requestId);
+    if (batchRequest != null) {
+      for (DataSource<Void> prefetchSource : batchRequest) {
+        prefetchSource.close();
+      }
+    }
   }
 
+  /**
+   * Resolves the promise with a map from URI to "memory" or "disk" for the URIs that are in one of
+   * the caches. The memory cache is checked right away, the disk cache probes of all URIs that are
+   * not in memory run in parallel on Fresco's executors.
+   */
   @ReactMethod
   public void queryCache(final ReadableArray uris, final Promise promise) {
-    // perform cache interrogation in async task as disk cache checks are expensive
-    new GuardedAsyncTask<Void, Void>(getReactApplicationContext()) {
-      @Override
-      protected void doInBackgroundGuarded(Void... params) {
-        WritableMap result = Arguments.createMap();
-        ImagePipeline imagePipeline = Fresco.getImagePipeline();
-        for (int i = 0; i < uris.size(); i++) {
-          String uriString = uris.getString(i);
-          final Uri uri = Uri.parse(uriString);
-          if (imagePipeline.isInBitmapMemoryCache(uri)) {
-            result.putString(uriString, "memory");
-          } else if (imagePipeline.isInDiskCacheSync(uri)) {
-            result.putString(uriString, "disk");
+    final WritableMap result = Arguments.createMap();
+    ImagePipeline imagePipeline = Fresco.getImagePipeline();
+    List<String> diskUriStrings = new ArrayList<>(uris.size());
+    for (int i = 0; i < uris.size(); i++) {
+      String uriString = uris.getString(i);
+      if (imagePipeline.isInBitmapMemoryCache(Uri.parse(uriString))) {
+        result.putString(uriString, "memory");
+      } else {
+        diskUriStrings.add(uriString);
+      }
+    }
+
+    if (diskUriStrings.isEmpty()) {
+      promise.resolve(result);
+      return;
+    }
+
+    final AtomicInteger remaining = new AtomicInteger(diskUriStrings.size());
+    for (final String uriString : diskUriStrings) {
+      DataSource<Boolean> diskCacheSource = imagePipeline.isInDiskCache(Uri.parse(uriString));
+      DataSubscriber<Boolean> diskCacheSubscriber = new BaseDataSubscriber<Boolean>() {
+        @Override
+        protected void onNewResultImpl(DataSource<Boolean> dataSource) {
+          if (!dataSource.isFinished()) {
+            return;
           }
+          onProbeDone(dataSource, Boolean.TRUE.equals(dataSource.getResult()));
         }
-        promise.resolve(result);
-      }
-    }.executeOnExecutor(GuardedAsyncTask.THREAD_POOL_EXECUTOR);
+
+        @Override
+        protected void onFailureImpl(DataSource<Boolean> dataSource) {
+          onProbeDone(dataSource, false);
+        }
+
+        private void onProbeDone(DataSource<Boolean> dataSource, boolean inDiskCache) {
+          try {
+            if (inDiskCache) {
+              synchronized (result) {
+                result.putString(uriString, "disk");
+              }
+            }
+            if (remaining.decrementAndGet() == 0) {
+              promise.resolve(result);
+            }
+          } finally {
+            dataSource.close();
+          }
+        }
+      };
+      diskCacheSource.subscribe(diskCacheSubscriber, CallerThreadExecutor.getInstance());
+    }
   }
 
   private void registerRequest(int requestId, DataSource<Void> request) {
@@ -216,6 +355,20 @@ public class ImageLoaderModule extends ReactContextBaseJavaModule implements
     }
   }
 
+  private void registerBatchRequest(int requestId, List<DataSource<Void>> request) {
+    synchronized (mEnqueuedRequestMonitor) {
+      mEnqueuedBatchRequests.put(requestId, request);
+    }
+  }
+
+  private @Nullable List<DataSource<Void>> removeBatchRequest(int requestId) {
+    synchronized (mEnqueuedRequestMonitor) {
+      List<DataSource<Void>> request = mEnqueuedBatchRequests.get(requestId);
+      mEnqueuedBatchRequests.remove(requestId);
+      return request;
+    }
+  }
+
   @Override
   public void onHostResume() {
   }
@@ -235,6 +388,16 @@ public class ImageLoaderModule extends ReactContextBaseJavaModule implements
         }
       }
       mEnqueuedRequests.clear();
+      List<DataSource<Void>> enqueuedBatchSources = new ArrayList<>();
+      for (int i = 0, size = mEnqueuedBatchRequests.size(); i < size; i++) {
+        enqueuedBatchSources.addAll(mEnqueuedBatchRequests.valueAt(i));
+      }
+      // Closing a batch resolves its promise, which removes the batch from the map, so clear the
+      // map before closing.
+      mEnqueuedBatchRequests.clear();
+      for (DataSource<Void> enqueuedRequest : enqueuedBatchSources) {
+        enqueuedRequest.close();
+      }
     }
   }
 }
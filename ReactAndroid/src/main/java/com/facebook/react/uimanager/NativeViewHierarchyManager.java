@@ -191,15 +191,22 @@ public class NativeViewHierarchyManager {
     }
   }
 
-  private void updateLayout(View viewToUpdate, int x, int y, int width, int height) {
-    if (mLayoutAnimationEnabled &&
-        mLayoutAnimator.shouldAnimateLayout(viewToUpdate)) {
+  /**
+   * Moves the view to the given position and size, animating the change if a layout animation is
+   * configured for the current batch. The view must already be measured at the new size.
+   */
+  protected final void updateLayout(View viewToUpdate, int x, int y, int width, int height) {
+    if (shouldAnimateLayout(viewToUpdate)) {
       mLayoutAnimator.applyLayoutUpdate(viewToUpdate, x, y, width, height);
     } else {
       viewToUpdate.layout(x, y, x + width, y + height);
     }
   }
 
+  protected final boolean shouldAnimateLayout(View view) {
+    return mLayoutAnimationEnabled && mLayoutAnimator.shouldAnimateLayout(view);
+  }
+
   public void createView(
       ThemedReactContext themedContext,
       int tag,
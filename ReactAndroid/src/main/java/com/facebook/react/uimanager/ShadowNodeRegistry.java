@@ -9,23 +9,39 @@
 
 package com.facebook.react.uimanager;
 
-import android.util.SparseArray;
 import android.util.SparseBooleanArray;
 
+import com.facebook.react.common.IntObjectMap;
 import com.facebook.react.common.SingleThreadAsserter;
 
 /**
  * Simple container class to keep track of {@link ReactShadowNode}s associated with a particular
  * UIManagerModule instance.
+ *
+ * Nodes are kept in open addressing hash tables instead of a SparseArray, whose inserts and
+ * removals shift the whole array and show up once there are tens of thousands of nodes. The tags
+ * are split over a fixed number of shards. Adding and removing nodes is only allowed from the
+ * thread that owns the registry, which also reads without locking. Writes take the lock of their
+ * shard so that {@link #getNodeFromAnyThread} can be called from a second thread (e.g. for
+ * background measure) without serializing all lookups behind one lock.
  */
 /*package*/ class ShadowNodeRegistry {
 
-  private final SparseArray<ReactShadowNode> mTagsToCSSNodes;
+  private static final int SHARD_BITS = 4;
+  private static final int SHARD_COUNT = 1 << SHARD_BITS;
+
+  private final IntObjectMap<ReactShadowNode>[] mShards;
   private final SparseBooleanArray mRootTags;
   private final SingleThreadAsserter mThreadAsserter;
 
   public ShadowNodeRegistry() {
-    mTagsToCSSNodes = new SparseArray<>();
+    // Arrays of a generic type can't be created, every shard is an IntObjectMap<ReactShadowNode>.
+    @SuppressWarnings("unchecked")
+    IntObjectMap<ReactShadowNode>[] shards = new IntObjectMap[SHARD_COUNT];
+    for (int i = 0; i < SHARD_COUNT; i++) {
+      shards[i] = new IntObjectMap<>();
+    }
+    mShards = shards;
     mRootTags = new SparseBooleanArray();
     mThreadAsserter = new SingleThreadAsserter();
   }
@@ -35,52 +51,94 @@ import com.facebook.react.common.SingleThreadAsserter;
     // thread-unsafe and calls this on the wrong thread.
     //mThreadAsserter.assertNow();
     int tag = node.getReactTag();
-    mTagsToCSSNodes.put(tag, node);
-    mRootTags.put(tag, true);
+    putNode(tag, node);
+    synchronized (mRootTags) {
+      mRootTags.put(tag, true);
+    }
   }
 
   public void removeRootNode(int tag) {
     mThreadAsserter.assertNow();
-    if (!mRootTags.get(tag)) {
-      throw new IllegalViewOperationException(
-          "View with tag " + tag + " is not registered as a root view");
+    synchronized (mRootTags) {
+      if (!mRootTags.get(tag)) {
+        throw new IllegalViewOperationException(
+            "View with tag " + tag + " is not registered as a root view");
+      }
+      mRootTags.delete(tag);
     }
 
-    mTagsToCSSNodes.remove(tag);
-    mRootTags.delete(tag);
+    removeNodeInternal(tag);
   }
 
   public void addNode(ReactShadowNode node) {
     mThreadAsserter.assertNow();
-    mTagsToCSSNodes.put(node.getReactTag(), node);
+    putNode(node.getReactTag(), node);
   }
 
   public void removeNode(int tag) {
     mThreadAsserter.assertNow();
-    if (mRootTags.get(tag)) {
+    if (isRootNode(tag)) {
       throw new IllegalViewOperationException(
           "Trying to remove root node " + tag + " without using removeRootNode!");
     }
-    mTagsToCSSNodes.remove(tag);
+    removeNodeInternal(tag);
   }
 
   public ReactShadowNode getNode(int tag) {
     mThreadAsserter.assertNow();
-    return mTagsToCSSNodes.get(tag);
+    // Only this thread modifies the shards, so it doesn't need to lock to read them.
+    return shardOf(tag).get(tag);
+  }
+
+  /**
+   * Like {@link #getNode}, but can be called from any thread.
+   */
+  public ReactShadowNode getNodeFromAnyThread(int tag) {
+    IntObjectMap<ReactShadowNode> shard = shardOf(tag);
+    synchronized (shard) {
+      return shard.get(tag);
+    }
   }
 
   public boolean isRootNode(int tag) {
     mThreadAsserter.assertNow();
-    return mRootTags.get(tag);
+    synchronized (mRootTags) {
+      return mRootTags.get(tag);
+    }
   }
 
   public int getRootNodeCount() {
     mThreadAsserter.assertNow();
-    return mRootTags.size();
+    synchronized (mRootTags) {
+      return mRootTags.size();
+    }
   }
 
   public int getRootTag(int index) {
     mThreadAsserter.assertNow();
-    return mRootTags.keyAt(index);
+    synchronized (mRootTags) {
+      return mRootTags.keyAt(index);
+    }
+  }
+
+  private void putNode(int tag, ReactShadowNode node) {
+    IntObjectMap<ReactShadowNode> shard = shardOf(tag);
+    synchronized (shard) {
+      shard.put(tag, node);
+    }
+  }
+
+  private void removeNodeInternal(int tag) {
+    IntObjectMap<ReactShadowNode> shard = shardOf(tag);
+    synchronized (shard) {
+      shard.remove(tag);
+    }
+  }
+
+  private IntObjectMap<ReactShadowNode> shardOf(int tag) {
+    // Tags are mostly sequential, the top bits of a multiplicative hash spread neighbouring tags
+    // over different shards.
+    int h = tag * 0x9E3779B9;
+    return mShards[h >>> (Integer.SIZE - SHARD_BITS)];
   }
 }
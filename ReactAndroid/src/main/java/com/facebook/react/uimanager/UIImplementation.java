@@ -13,12 +13,15 @@ import javax.annotation.Nullable;
 import java.util.Arrays;
 import java.util.List;
 
+import android.util.SparseArray;
+
 import com.facebook.common.logging.FLog;
 import com.facebook.yoga.YogaDirection;
 import com.facebook.infer.annotation.Assertions;
 import com.facebook.react.animation.Animation;
 import com.facebook.react.bridge.Arguments;
 import com.facebook.react.bridge.Callback;
+import com.facebook.react.bridge.GuardedRunnable;
 import com.facebook.react.bridge.ReactApplicationContext;
 import com.facebook.react.bridge.ReadableArray;
 import com.facebook.react.bridge.ReadableMap;
@@ -48,6 +51,12 @@ public class UIImplementation {
   private double mLayoutCount = 0.0;
   private double mLayoutTimer = 0.0;
 
+  // Layout props coming from native driven animations. Written on the UI thread and consumed on
+  // the native modules thread, the two arrays are swapped so we don't allocate on every frame.
+  private final Object mAnimatedLayoutUpdatesLock = new Object();
+  private SparseArray<ReactStylesDiffMap> mPendingAnimatedLayoutUpdates = new SparseArray<>();
+  private SparseArray<ReactStylesDiffMap> mAppliedAnimatedLayoutUpdates = new SparseArray<>();
+
   public UIImplementation(
     ReactApplicationContext reactContext,
     List<ViewManager> viewManagers,
@@ -240,6 +249,57 @@ public class UIImplementation {
     mOperationsQueue.getNativeViewHierarchyManager().updateProperties(tag, props);
   }
 
+  /**
+   * Used by native animated module to update layout-related properties (width, height, margins,
+   * flex, etc.) from the UI thread. The props are applied to the shadow node on the native modules
+   * thread and the affected part of the tree is laid out again, so siblings and parents follow the
+   * animated node without going through JS. Updates for the same view are coalesced until the
+   * native modules thread picks them up, which means only the latest frame is ever laid out.
+   */
+  public void enqueueAnimatedLayoutUpdate(int tag, ReactStylesDiffMap props) {
+    UiThreadUtil.assertOnUiThread();
+    boolean needsDispatch;
+    synchronized (mAnimatedLayoutUpdatesLock) {
+      needsDispatch = mPendingAnimatedLayoutUpdates.size() == 0;
+      mPendingAnimatedLayoutUpdates.put(tag, props);
+    }
+    if (needsDispatch) {
+      mReactContext.runUIBackgroundRunnable(
+        new GuardedRunnable(mReactContext) {
+          @Override
+          public void runGuarded() {
+            applyAnimatedLayoutUpdates();
+          }
+        });
+    }
+  }
+
+  private void applyAnimatedLayoutUpdates() {
+    SparseArray<ReactStylesDiffMap> updates;
+    synchronized (mAnimatedLayoutUpdatesLock) {
+      updates = mPendingAnimatedLayoutUpdates;
+      mPendingAnimatedLayoutUpdates = mAppliedAnimatedLayoutUpdates;
+      mAppliedAnimatedLayoutUpdates = updates;
+    }
+
+    boolean hasUpdates = false;
+    for (int i = 0; i < updates.size(); i++) {
+      ReactShadowNode cssNode = mShadowNodeRegistry.getNode(updates.keyAt(i));
+      // The view may have been removed by JS while the animation frame was in flight.
+      if (cssNode != null) {
+        cssNode.updateProperties(updates.valueAt(i));
+        hasUpdates = true;
+      }
+    }
+    updates.clear();
+
+    // Yoga only re-lays out dirty nodes, so this touches the animated subtree and the path up to
+    // its root. Same as in updateNodeSize, a JS batch in progress will pick the changes up itself.
+    if (hasUpdates && mOperationsQueue.isEmpty()) {
+      dispatchViewUpdates(-1); // -1 = no associated batch id
+    }
+  }
+
   protected void handleUpdateView(
       ReactShadowNode cssNode,
       String className,
@@ -542,16 +602,57 @@ public class UIImplementation {
   }
 
   protected void updateViewHierarchy() {
-    for (int i = 0; i < mShadowNodeRegistry.getRootNodeCount(); i++) {
-      int tag = mShadowNodeRegistry.getRootTag(i);
-      ReactShadowNode cssRoot = mShadowNodeRegistry.getNode(tag);
-      notifyOnBeforeLayoutRecursive(cssRoot);
+    Systrace.beginSection(
+        Systrace.TRACE_TAG_REACT_JAVA_BRIDGE,
+        "UIImplementation.updateViewHierarchy");
+    try {
+      for (int i = 0; i < mShadowNodeRegistry.getRootNodeCount(); i++) {
+        int tag = mShadowNodeRegistry.getRootTag(i);
+        ReactShadowNode cssRoot = mShadowNodeRegistry.getNode(tag);
+        if (!rootNeedsUpdate(cssRoot)) {
+          // Nothing changed under this root in this batch, e.g. because JS only updated views of
+          // another root or only sent props that don't go through the shadow hierarchy.
+          continue;
+        }
+
+        SystraceMessage.beginSection(
+            Systrace.TRACE_TAG_REACT_JAVA_BRIDGE,
+            "UIImplementation.notifyOnBeforeLayoutRecursive")
+            .arg("rootTag", tag)
+            .flush();
+        try {
+          notifyOnBeforeLayoutRecursive(cssRoot);
+        } finally {
+          Systrace.endSection(Systrace.TRACE_TAG_REACT_JAVA_BRIDGE);
+        }
 
-      calculateRootLayout(cssRoot);
-      applyUpdatesRecursive(cssRoot, 0f, 0f);
+        calculateRootLayout(cssRoot);
+
+        SystraceMessage.beginSection(
+            Systrace.TRACE_TAG_REACT_JAVA_BRIDGE,
+            "UIImplementation.applyUpdatesRecursive")
+            .arg("rootTag", tag)
+            .flush();
+        try {
+          applyUpdatesRecursive(cssRoot, 0f, 0f);
+        } finally {
+          Systrace.endSection(Systrace.TRACE_TAG_REACT_JAVA_BRIDGE);
+        }
+      }
+    } finally {
+      Systrace.endSection(Systrace.TRACE_TAG_REACT_JAVA_BRIDGE);
     }
   }
 
+  /**
+   * Whether the hierarchy under the given root has to be laid out and walked in this batch. Nodes
+   * that are updated or dirtied propagate that up to their root, so a root without updates has
+   * neither new layout nor unseen updates anywhere in its hierarchy.
+   */
+  protected boolean rootNeedsUpdate(ReactShadowNode cssRoot) {
+    return cssRoot.hasUpdates();
+  }
+
   /**
    * Registers a new Animation that can then be added to a View using {@link #addAnimation}.
    */
@@ -120,7 +120,10 @@ public class ViewProps {
             ALIGN_ITEMS,
             COLLAPSABLE,
             FLEX,
+            FLEX_BASIS,
             FLEX_DIRECTION,
+            FLEX_GROW,
+            FLEX_SHRINK,
             FLEX_WRAP,
             JUSTIFY_CONTENT,
             OVERFLOW,
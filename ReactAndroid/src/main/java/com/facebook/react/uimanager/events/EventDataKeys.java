@@ -0,0 +1,64 @@
+/**
+ * Copyright (c) 2015-present, Facebook, Inc.
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree. An additional grant
+ * of patent rights can be found in the PATENTS file in the same directory.
+ */
+
+package com.facebook.react.uimanager.events;
+
+import java.util.List;
+
+/**
+ * Integer keys for event payload values exposed through {@link NumericEventData}. Keys are
+ * resolved once from the path used in JS (e.g. ["contentOffset", "y"]) so that reading the value
+ * when the event is dispatched does not involve any string comparison.
+ */
+public final class EventDataKeys {
+
+  public static final int UNKNOWN = -1;
+
+  public static final int CONTENT_OFFSET_X = 0;
+  public static final int CONTENT_OFFSET_Y = 1;
+  public static final int CONTENT_SIZE_WIDTH = 2;
+  public static final int CONTENT_SIZE_HEIGHT = 3;
+  public static final int LAYOUT_MEASUREMENT_WIDTH = 4;
+  public static final int LAYOUT_MEASUREMENT_HEIGHT = 5;
+
+  private EventDataKeys() {
+  }
+
+  /**
+   * @return key corresponding to the given event data path or {@link #UNKNOWN} if the path can
+   * only be resolved by looking into the serialized event
+   */
+  public static int fromPath(List<String> path) {
+    if (path.size() != 2) {
+      return UNKNOWN;
+    }
+    String group = path.get(0);
+    String field = path.get(1);
+    if ("contentOffset".equals(group)) {
+      if ("x".equals(field)) {
+        return CONTENT_OFFSET_X;
+      } else if ("y".equals(field)) {
+        return CONTENT_OFFSET_Y;
+      }
+    } else if ("contentSize".equals(group)) {
+      if ("width".equals(field)) {
+        return CONTENT_SIZE_WIDTH;
+      } else if ("height".equals(field)) {
+        return CONTENT_SIZE_HEIGHT;
+      }
+    } else if ("layoutMeasurement".equals(group)) {
+      if ("width".equals(field)) {
+        return LAYOUT_MEASUREMENT_WIDTH;
+      } else if ("height".equals(field)) {
+        return LAYOUT_MEASUREMENT_HEIGHT;
+      }
+    }
+    return UNKNOWN;
+  }
+}
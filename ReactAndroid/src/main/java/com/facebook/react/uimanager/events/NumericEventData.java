@@ -0,0 +1,31 @@
+/**
+ * Copyright (c) 2015-present, Facebook, Inc.
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree. An additional grant
+ * of patent rights can be found in the PATENTS file in the same directory.
+ */
+
+package com.facebook.react.uimanager.events;
+
+/**
+ * Implemented by {@link Event}s that can hand out numeric values of their payload directly. This
+ * lets native consumers of high frequency events (e.g. native driven Animated.event on scroll)
+ * read a value without the event serializing the whole map that is built for JS.
+ *
+ * Values are addressed with the integer keys defined in {@link EventDataKeys}.
+ */
+public interface NumericEventData {
+
+  /**
+   * @return whether this event can provide a value for the given {@link EventDataKeys} key
+   */
+  boolean hasEventData(int key);
+
+  /**
+   * @return the value for the given {@link EventDataKeys} key, in the same units as the value sent
+   * to JS. Only valid if {@link #hasEventData} returned true for that key.
+   */
+  double getEventData(int key);
+}
@@ -12,6 +12,7 @@ package com.facebook.react.views.art;
 import javax.annotation.Nullable;
 
 import android.graphics.Canvas;
+import android.graphics.Matrix;
 import android.graphics.Paint;
 import android.graphics.RectF;
 import android.graphics.Region;
@@ -26,13 +27,14 @@ import com.facebook.react.uimanager.annotations.ReactProp;
 public class ARTGroupShadowNode extends ARTVirtualNode {
 
   protected @Nullable RectF mClipping;
+  private final Matrix mSurfaceMatrix = new Matrix();
 
   @ReactProp(name = "clipping")
   public void setClipping(@Nullable ReadableArray clippingDims) {
     float[] clippingData = PropHelper.toFloatArray(clippingDims);
     if (clippingData != null) {
       mClipping = createClipping(clippingData);
-      markUpdated();
+      markPropsUpdated();
     }
   }
 
@@ -65,6 +67,26 @@ public class ARTGroupShadowNode extends ARTVirtualNode {
     }
   }
 
+  @Override
+  /* package */ boolean collectDirtyBounds(
+      Matrix parentMatrix,
+      boolean ancestorUpdated,
+      RectF dirtyBounds) {
+    // A change to the transform, opacity or clipping of a group or to its children can affect
+    // anything drawn by the group, so it makes the surface redraw everything. So does clipping,
+    // since it replaces the clip of the canvas and would draw outside of the dirty area.
+    boolean propsUpdated = consumePropsUpdated();
+    getSurfaceMatrix(parentMatrix, mSurfaceMatrix);
+    boolean canRedrawRegion = !propsUpdated && mClipping == null;
+    for (int i = 0; i < getChildCount(); i++) {
+      ARTVirtualNode child = (ARTVirtualNode) getChildAt(i);
+      // Every child is visited so that all of them update their bounds.
+      canRedrawRegion &=
+          child.collectDirtyBounds(mSurfaceMatrix, ancestorUpdated || propsUpdated, dirtyBounds);
+    }
+    return canRedrawRegion;
+  }
+
   /**
    * Creates a {@link RectF} from an array of dimensions
    * (e.g. [x, y, width, height])
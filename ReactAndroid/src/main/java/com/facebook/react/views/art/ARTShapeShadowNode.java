@@ -12,6 +12,7 @@ package com.facebook.react.views.art;
 import javax.annotation.Nullable;
 
 import android.graphics.Canvas;
+import android.graphics.Matrix;
 import android.graphics.Paint;
 import android.graphics.Path;
 import android.graphics.RectF;
@@ -49,48 +50,50 @@ public class ARTShapeShadowNode extends ARTVirtualNode {
   private float mStrokeWidth = 1;
   private int mStrokeCap = CAP_ROUND;
   private int mStrokeJoin = JOIN_ROUND;
+  // Area the shape covered when it was last drawn, in surface coordinates.
+  private final RectF mSurfaceBounds = new RectF();
 
   @ReactProp(name = "d")
   public void setShapePath(@Nullable ReadableArray shapePath) {
     float[] pathData = PropHelper.toFloatArray(shapePath);
     mPath = createPath(pathData);
-    markUpdated();
+    markPropsUpdated();
   }
 
   @ReactProp(name = "stroke")
   public void setStroke(@Nullable ReadableArray strokeColors) {
     mStrokeColor = PropHelper.toFloatArray(strokeColors);
-    markUpdated();
+    markPropsUpdated();
   }
 
   @ReactProp(name = "strokeDash")
   public void setStrokeDash(@Nullable ReadableArray strokeDash) {
     mStrokeDash = PropHelper.toFloatArray(strokeDash);
-    markUpdated();
+    markPropsUpdated();
   }
 
   @ReactProp(name = "fill")
   public void setFill(@Nullable ReadableArray fillColors) {
     mFillColor = PropHelper.toFloatArray(fillColors);
-    markUpdated();
+    markPropsUpdated();
   }
 
   @ReactProp(name = "strokeWidth", defaultFloat = 1f)
   public void setStrokeWidth(float strokeWidth) {
     mStrokeWidth = strokeWidth;
-    markUpdated();
+    markPropsUpdated();
   }
 
   @ReactProp(name = "strokeCap", defaultInt = CAP_ROUND)
   public void setStrokeCap(int strokeCap) {
     mStrokeCap = strokeCap;
-    markUpdated();
+    markPropsUpdated();
   }
 
   @ReactProp(name = "strokeJoin", defaultInt = JOIN_ROUND)
   public void setStrokeJoin(int strokeJoin) {
     mStrokeJoin = strokeJoin;
-    markUpdated();
+    markPropsUpdated();
   }
 
   @Override
@@ -113,6 +116,31 @@ public class ARTShapeShadowNode extends ARTVirtualNode {
     markUpdateSeen();
   }
 
+  @Override
+  /* package */ boolean collectDirtyBounds(
+      Matrix parentMatrix,
+      boolean ancestorUpdated,
+      RectF dirtyBounds) {
+    if (!consumePropsUpdated() && !ancestorUpdated) {
+      return true;
+    }
+    // Both the area the shape covered and the one it covers now have to be redrawn.
+    dirtyBounds.union(mSurfaceBounds);
+    if (mPath == null) {
+      mSurfaceBounds.setEmpty();
+      return true;
+    }
+    mPath.computeBounds(mSurfaceBounds, true);
+    // Miter joins reach up to twice the stroke width past the path, one more pixel covers
+    // anti-aliasing.
+    float outset = 2 * mStrokeWidth * mScale + 1;
+    mSurfaceBounds.inset(-outset, -outset);
+    mapRectToParent(mSurfaceBounds);
+    parentMatrix.mapRect(mSurfaceBounds);
+    dirtyBounds.union(mSurfaceBounds);
+    return true;
+  }
+
   /**
    * Sets up {@link #mPaint} according to the props set on a shadow view. Returns {@code true}
    * if the stroke should be drawn, {@code false} if not.
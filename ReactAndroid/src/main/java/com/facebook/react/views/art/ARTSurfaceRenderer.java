@@ -0,0 +1,162 @@
+/**
+ * Copyright (c) 2015-present, Facebook, Inc.
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree. An additional grant
+ * of patent rights can be found in the PATENTS file in the same directory.
+ */
+
+package com.facebook.react.views.art;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
+
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Picture;
+import android.graphics.PorterDuff;
+import android.graphics.Rect;
+import android.graphics.RectF;
+import android.os.Build;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.view.Surface;
+
+import com.facebook.common.logging.FLog;
+import com.facebook.react.common.ReactConstants;
+
+/**
+ * Draws the frames of an {@link ARTSurfaceViewShadowNode} onto its surface on a dedicated render
+ * thread shared by all surfaces. The shadow node only records its shapes into a {@link Picture},
+ * which is cheap compared to rasterizing anti-aliased paths, and hands it over.
+ *
+ * Starting with M the pictures are drawn with a hardware canvas, which always redraws the whole
+ * surface. Before that they are rasterized in software, limited to the area that changed.
+ *
+ * Frames submitted while the render thread is busy are coalesced: only the most recent picture
+ * is drawn, over the union of the dirty areas of the frames it replaces.
+ */
+/* package */ class ARTSurfaceRenderer implements Runnable {
+
+  private static @Nullable Handler sRenderHandler;
+
+  private final Object mLock = new Object();
+  // Held while drawing, so that the surface isn't released in the middle of a frame.
+  private final Object mSurfaceLock = new Object();
+
+  @GuardedBy("mLock") private @Nullable Picture mPicture;
+  @GuardedBy("mLock") private final Rect mDirtyRect = new Rect();
+  @GuardedBy("mLock") private boolean mRedrawAll = true;
+  @GuardedBy("mLock") private boolean mScheduled;
+  @GuardedBy("mSurfaceLock") private @Nullable Surface mSurface;
+
+  // Only used on the render thread.
+  private final Rect mFrameDirtyRect = new Rect();
+
+  private static synchronized Handler getRenderHandler() {
+    if (sRenderHandler == null) {
+      HandlerThread thread = new HandlerThread("ARTRenderThread");
+      thread.start();
+      sRenderHandler = new Handler(thread.getLooper());
+    }
+    return sRenderHandler;
+  }
+
+  /**
+   * Sets the surface to draw to, or null once it got destroyed. Blocks until the frame being drawn,
+   * if any, is done. A new surface gets the most recent frame drawn onto it.
+   */
+  public void setSurface(@Nullable Surface surface) {
+    synchronized (mSurfaceLock) {
+      mSurface = surface;
+    }
+    synchronized (mLock) {
+      mRedrawAll = true;
+      if (surface != null && mPicture != null) {
+        scheduleLocked();
+      }
+    }
+  }
+
+  /**
+   * Makes the content of the surface stale as a whole, e.g. because its size changed.
+   */
+  public void invalidate() {
+    synchronized (mLock) {
+      mRedrawAll = true;
+      if (mPicture != null) {
+        scheduleLocked();
+      }
+    }
+  }
+
+  /**
+   * @param picture all the shapes of the surface
+   * @param dirtyBounds the area that changed since the previous frame, or null if everything did
+   */
+  public void submitFrame(Picture picture, @Nullable RectF dirtyBounds) {
+    synchronized (mLock) {
+      mPicture = picture;
+      if (dirtyBounds == null) {
+        mRedrawAll = true;
+      } else {
+        Rect dirtyRect = new Rect();
+        dirtyBounds.roundOut(dirtyRect);
+        mDirtyRect.union(dirtyRect);
+      }
+      scheduleLocked();
+    }
+  }
+
+  @GuardedBy("mLock")
+  private void scheduleLocked() {
+    if (!mScheduled) {
+      mScheduled = true;
+      getRenderHandler().post(this);
+    }
+  }
+
+  @Override
+  public void run() {
+    Picture picture;
+    boolean redrawAll;
+    synchronized (mLock) {
+      mScheduled = false;
+      picture = mPicture;
+      redrawAll = mRedrawAll;
+      mFrameDirtyRect.set(mDirtyRect);
+      mRedrawAll = false;
+      mDirtyRect.setEmpty();
+    }
+    if (picture == null || (!redrawAll && mFrameDirtyRect.isEmpty())) {
+      return;
+    }
+
+    synchronized (mSurfaceLock) {
+      Surface surface = mSurface;
+      if (surface == null || !surface.isValid()) {
+        // The frame is drawn in full once there is a surface again.
+        return;
+      }
+      try {
+        Canvas canvas;
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.M) {
+          // Once a surface got drawn with a hardware canvas it can't be locked in software anymore,
+          // so frames that only changed in part are redrawn in full as well.
+          canvas = surface.lockHardwareCanvas();
+        } else {
+          canvas = surface.lockCanvas(redrawAll ? null : mFrameDirtyRect);
+        }
+        canvas.drawColor(Color.TRANSPARENT, PorterDuff.Mode.CLEAR);
+        canvas.drawPicture(picture);
+        surface.unlockCanvasAndPost(canvas);
+      } catch (IllegalArgumentException | IllegalStateException e) {
+        synchronized (mLock) {
+          mRedrawAll = true;
+        }
+        FLog.e(ReactConstants.TAG, e.getClass().getSimpleName() + " in Surface.unlockCanvasAndPost");
+      }
+    }
+  }
+}
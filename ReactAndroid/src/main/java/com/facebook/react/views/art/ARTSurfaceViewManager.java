@@ -38,6 +38,21 @@ public class ARTSurfaceViewManager extends
     }
   };
 
+  private final boolean mRenderOnRenderThread;
+
+  public ARTSurfaceViewManager() {
+    this(false);
+  }
+
+  /**
+   * @param renderOnRenderThread whether surfaces draw their shapes on a dedicated render thread
+   * instead of the thread that updates the shadow nodes, see {@link ARTSurfaceRenderer}. The render
+   * thread draws with a hardware canvas starting with M; otherwise shapes are drawn in software.
+   */
+  public ARTSurfaceViewManager(boolean renderOnRenderThread) {
+    mRenderOnRenderThread = renderOnRenderThread;
+  }
+
   @Override
   public String getName() {
     return REACT_CLASS;
@@ -45,7 +60,7 @@ public class ARTSurfaceViewManager extends
 
   @Override
   public ARTSurfaceViewShadowNode createShadowNodeInstance() {
-    ARTSurfaceViewShadowNode node = new ARTSurfaceViewShadowNode();
+    ARTSurfaceViewShadowNode node = new ARTSurfaceViewShadowNode(mRenderOnRenderThread);
     node.setMeasureFunction(MEASURE_FUNCTION);
     return node;
   }
@@ -14,6 +14,10 @@ import javax.annotation.Nullable;
 import android.graphics.Canvas;
 import android.graphics.Paint;
 import android.graphics.Color;
+import android.graphics.Matrix;
+import android.graphics.Picture;
+import android.graphics.Rect;
+import android.graphics.RectF;
 import android.view.Surface;
 import android.graphics.PorterDuff;
 import android.graphics.SurfaceTexture;
@@ -32,6 +36,26 @@ public class ARTSurfaceViewShadowNode extends LayoutShadowNode
   implements TextureView.SurfaceTextureListener {
 
   private @Nullable Surface mSurface;
+  private final Paint mPaint = new Paint();
+  private final Matrix mSurfaceMatrix = new Matrix();
+  private final RectF mDirtyBounds = new RectF();
+  private final Rect mDirtyRect = new Rect();
+  // Whether the content of the surface is stale as a whole, e.g. because it was just created.
+  private boolean mRedrawAll = true;
+  // Set if the shapes are drawn on the render thread rather than on this thread.
+  private final @Nullable ARTSurfaceRenderer mRenderer;
+
+  public ARTSurfaceViewShadowNode() {
+    this(false);
+  }
+
+  /**
+   * @param renderOnRenderThread whether to draw the shapes on a dedicated render thread, see
+   * {@link ARTSurfaceRenderer}
+   */
+  public ARTSurfaceViewShadowNode(boolean renderOnRenderThread) {
+    mRenderer = renderOnRenderThread ? new ARTSurfaceRenderer() : null;
+  }
 
   @Override
   public boolean isVirtual() {
@@ -50,20 +74,49 @@ public class ARTSurfaceViewShadowNode extends LayoutShadowNode
     uiUpdater.enqueueUpdateExtraData(getReactTag(), this);
   }
 
+  /**
+   * Draws the shapes onto the surface. The surface keeps its content between frames, so when only
+   * some shapes changed, only the area they cover (before and after the change) is cleared and
+   * redrawn.
+   */
   private void drawOutput() {
+    if (mRenderer != null) {
+      recordOutput(mRenderer);
+      return;
+    }
     if (mSurface == null || !mSurface.isValid()) {
       markChildrenUpdatesSeen(this);
       return;
     }
 
+    mDirtyBounds.setEmpty();
+    boolean canRedrawRegion = !mRedrawAll;
+    for (int i = 0; i < getChildCount(); i++) {
+      ARTVirtualNode child = (ARTVirtualNode) getChildAt(i);
+      canRedrawRegion &= child.collectDirtyBounds(mSurfaceMatrix, false, mDirtyBounds);
+    }
+    if (canRedrawRegion && mDirtyBounds.isEmpty()) {
+      // Nothing visible changed.
+      markChildrenUpdatesSeen(this);
+      return;
+    }
+
     try {
-      Canvas canvas = mSurface.lockCanvas(null);
+      Canvas canvas;
+      if (canRedrawRegion) {
+        mDirtyBounds.roundOut(mDirtyRect);
+        // Only the dirty rect (which the surface may grow) is drawn to, the rest of the surface
+        // keeps the previous frame.
+        canvas = mSurface.lockCanvas(mDirtyRect);
+      } else {
+        canvas = mSurface.lockCanvas(null);
+      }
+      mRedrawAll = false;
       canvas.drawColor(Color.TRANSPARENT, PorterDuff.Mode.CLEAR);
 
-      Paint paint = new Paint();
       for (int i = 0; i < getChildCount(); i++) {
         ARTVirtualNode child = (ARTVirtualNode) getChildAt(i);
-        child.draw(canvas, paint, 1f);
+        child.draw(canvas, mPaint, 1f);
         child.markUpdateSeen();
       }
 
@@ -73,10 +126,41 @@ public class ARTSurfaceViewShadowNode extends LayoutShadowNode
 
       mSurface.unlockCanvasAndPost(canvas);
     } catch (IllegalArgumentException | IllegalStateException e) {
+      mRedrawAll = true;
       FLog.e(ReactConstants.TAG, e.getClass().getSimpleName() + " in Surface.unlockCanvasAndPost");
     }
   }
 
+  /**
+   * Records the shapes and hands them over to the render thread. Unlike {@link #drawOutput()} this
+   * doesn't need the surface to be available, the renderer draws the latest frame once it is.
+   */
+  private void recordOutput(ARTSurfaceRenderer renderer) {
+    mDirtyBounds.setEmpty();
+    boolean canRedrawRegion = !mRedrawAll;
+    for (int i = 0; i < getChildCount(); i++) {
+      ARTVirtualNode child = (ARTVirtualNode) getChildAt(i);
+      canRedrawRegion &= child.collectDirtyBounds(mSurfaceMatrix, false, mDirtyBounds);
+    }
+    if (canRedrawRegion && mDirtyBounds.isEmpty()) {
+      markChildrenUpdatesSeen(this);
+      return;
+    }
+
+    Picture picture = new Picture();
+    Canvas canvas = picture.beginRecording(
+        (int) Math.ceil(getLayoutWidth()),
+        (int) Math.ceil(getLayoutHeight()));
+    for (int i = 0; i < getChildCount(); i++) {
+      ARTVirtualNode child = (ARTVirtualNode) getChildAt(i);
+      child.draw(canvas, mPaint, 1f);
+      child.markUpdateSeen();
+    }
+    picture.endRecording();
+    mRedrawAll = false;
+    renderer.submitFrame(picture, canRedrawRegion ? mDirtyBounds : null);
+  }
+
   private void markChildrenUpdatesSeen(ReactShadowNode shadowNode) {
     for (int i = 0; i < shadowNode.getChildCount(); i++) {
       ReactShadowNode child = shadowNode.getChildAt(i);
@@ -85,21 +169,55 @@ public class ARTSurfaceViewShadowNode extends LayoutShadowNode
     }
   }
 
+  @Override
+  public void addChildAt(ReactShadowNode child, int i) {
+    mRedrawAll = true;
+    super.addChildAt(child, i);
+  }
+
+  @Override
+  public ReactShadowNode removeChildAt(int i) {
+    mRedrawAll = true;
+    return super.removeChildAt(i);
+  }
+
+  @Override
+  public void removeAndDisposeAllChildren() {
+    mRedrawAll = true;
+    super.removeAndDisposeAllChildren();
+  }
+
   @Override
   public void onSurfaceTextureAvailable(SurfaceTexture surface, int width, int height) {
     mSurface = new Surface(surface);
+    if (mRenderer != null) {
+      mRenderer.setSurface(mSurface);
+      return;
+    }
+    mRedrawAll = true;
     drawOutput();
   }
 
   @Override
   public boolean onSurfaceTextureDestroyed(SurfaceTexture surface) {
+    if (mRenderer != null) {
+      mRenderer.setSurface(null);
+    }
     surface.release();
     mSurface = null;
     return true;
   }
 
   @Override
-  public void onSurfaceTextureSizeChanged(SurfaceTexture surface, int width, int height) {}
+  public void onSurfaceTextureSizeChanged(SurfaceTexture surface, int width, int height) {
+    // The buffers of the surface are reallocated, the previous frame is lost.
+    if (mRenderer != null) {
+      mRenderer.invalidate();
+      return;
+    }
+    mRedrawAll = true;
+    drawOutput();
+  }
 
   @Override
   public void onSurfaceTextureUpdated(SurfaceTexture surface) {}
@@ -12,7 +12,9 @@ package com.facebook.react.views.art;
 import javax.annotation.Nullable;
 
 import android.graphics.Canvas;
+import android.graphics.Matrix;
 import android.graphics.Paint;
+import android.graphics.RectF;
 import android.graphics.Typeface;
 import android.text.TextUtils;
 
@@ -45,11 +47,22 @@ public class ARTTextShadowNode extends ARTShapeShadowNode {
   @ReactProp(name = "frame")
   public void setFrame(@Nullable ReadableMap frame) {
     mFrame = frame;
+    markPropsUpdated();
   }
 
   @ReactProp(name = "alignment", defaultInt = TEXT_ALIGNMENT_LEFT)
   public void setAlignment(int alignment) {
     mTextAlignment = alignment;
+    markPropsUpdated();
+  }
+
+  @Override
+  /* package */ boolean collectDirtyBounds(
+      Matrix parentMatrix,
+      boolean ancestorUpdated,
+      RectF dirtyBounds) {
+    // The bounds of the text aren't tracked, a text that moved or changed redraws everything.
+    return !consumePropsUpdated() && !ancestorUpdated;
   }
 
   @Override
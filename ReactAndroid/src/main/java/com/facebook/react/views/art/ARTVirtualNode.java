@@ -14,6 +14,7 @@ import javax.annotation.Nullable;
 import android.graphics.Canvas;
 import android.graphics.Matrix;
 import android.graphics.Paint;
+import android.graphics.RectF;
 
 import com.facebook.react.bridge.JSApplicationIllegalArgumentException;
 import com.facebook.react.bridge.ReadableArray;
@@ -34,6 +35,8 @@ public abstract class ARTVirtualNode extends ReactShadowNode {
 
   protected float mOpacity = 1f;
   private @Nullable Matrix mMatrix = new Matrix();
+  // Unlike mNodeUpdated this is not set when a descendant changes.
+  private boolean mPropsUpdated = true;
 
   protected final float mScale;
 
@@ -48,6 +51,81 @@ public abstract class ARTVirtualNode extends ReactShadowNode {
 
   public abstract void draw(Canvas canvas, Paint paint, float opacity);
 
+  /**
+   * Adds the area of the surface that has to be redrawn because this node or one of its
+   * descendants changed since the previous frame to {@code dirtyBounds}. The default
+   * implementation can't tell, which makes the surface redraw everything.
+   *
+   * @param parentMatrix the transform from the coordinates of the parent to those of the surface
+   * @param ancestorUpdated whether the props of an ancestor changed since the previous frame, in
+   *        which case the node may have moved even if its own props didn't change
+   * @param dirtyBounds the area to redraw, in surface coordinates
+   * @return false if the whole surface has to be redrawn
+   */
+  /* package */ boolean collectDirtyBounds(
+      Matrix parentMatrix,
+      boolean ancestorUpdated,
+      RectF dirtyBounds) {
+    consumePropsUpdated();
+    return false;
+  }
+
+  /**
+   * Marks one of the props of this node as changed, so that the surface redraws the area the node
+   * covers. Also marks the node as updated with {@link #markUpdated()}.
+   */
+  protected void markPropsUpdated() {
+    mPropsUpdated = true;
+    markUpdated();
+  }
+
+  /**
+   * @return whether the props of this node changed since the previous call
+   */
+  protected final boolean consumePropsUpdated() {
+    boolean propsUpdated = mPropsUpdated;
+    mPropsUpdated = false;
+    return propsUpdated;
+  }
+
+  /**
+   * Sets {@code outMatrix} to the transform from the coordinates of this node to those of the
+   * surface, the same transform {@link #saveAndSetupCanvas} sets up on the canvas.
+   */
+  protected final void getSurfaceMatrix(Matrix parentMatrix, Matrix outMatrix) {
+    outMatrix.set(parentMatrix);
+    if (mMatrix != null) {
+      outMatrix.preConcat(mMatrix);
+    }
+  }
+
+  /**
+   * Maps a rectangle from the coordinates of this node to those of its parent.
+   */
+  protected final void mapRectToParent(RectF rect) {
+    if (mMatrix != null) {
+      mMatrix.mapRect(rect);
+    }
+  }
+
+  @Override
+  public void addChildAt(ReactShadowNode child, int i) {
+    mPropsUpdated = true;
+    super.addChildAt(child, i);
+  }
+
+  @Override
+  public ReactShadowNode removeChildAt(int i) {
+    mPropsUpdated = true;
+    return super.removeChildAt(i);
+  }
+
+  @Override
+  public void removeAndDisposeAllChildren() {
+    mPropsUpdated = true;
+    super.removeAndDisposeAllChildren();
+  }
+
   /**
    * Sets up the transform matrix on the canvas before an element is drawn.
    *
@@ -77,7 +155,7 @@ public abstract class ARTVirtualNode extends ReactShadowNode {
   @ReactProp(name = "opacity", defaultFloat = 1f)
   public void setOpacity(float opacity) {
     mOpacity = opacity;
-    markUpdated();
+    markPropsUpdated();
   }
 
   @ReactProp(name = "transform")
@@ -92,7 +170,7 @@ public abstract class ARTVirtualNode extends ReactShadowNode {
     } else {
       mMatrix = null;
     }
-    markUpdated();
+    markPropsUpdated();
   }
 
   protected void setupMatrix() {
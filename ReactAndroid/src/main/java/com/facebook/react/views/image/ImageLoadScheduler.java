@@ -0,0 +1,206 @@
+/**
+ * Copyright (c) 2015-present, Facebook, Inc.
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree. An additional grant
+ * of patent rights can be found in the PATENTS file in the same directory.
+ */
+
+package com.facebook.react.views.image;
+
+import javax.annotation.Nullable;
+
+import java.util.ArrayList;
+
+import android.view.ViewTreeObserver;
+
+import com.facebook.infer.annotation.Assertions;
+
+/**
+ * Decides in which order {@link ReactImageView}s start loading their images. Without it every
+ * image view starts its request as soon as it is attached, so a fast scroll through a long list
+ * queues up decodes for rows that are long gone by the time their turn comes.
+ *
+ * Pending requests are started closest to the viewport first, and only a bounded number of them
+ * are loading at any time. Whenever a view in a window with images scrolls, requests that are
+ * still loading but ended up far away from the viewport are cancelled and go back to the pending
+ * list, and requests that are too far away are not started until they come closer.
+ *
+ * Must only be used from the UI thread.
+ */
+public class ImageLoadScheduler implements ViewTreeObserver.OnScrollChangedListener {
+
+  public static final int DEFAULT_MAX_CONCURRENT_LOADS = 4;
+
+  /* package */ interface Request {
+
+    /**
+     * @return the distance in pixels between the image and the visible area of the window, 0 if
+     * the image is at least partly visible, or Float.POSITIVE_INFINITY if it isn't in a window
+     */
+    float getViewportDistance();
+
+    /**
+     * Starts loading the image. The request must call {@link #onLoadFinished} once the load
+     * either succeeded or failed.
+     */
+    void start();
+
+    /**
+     * Stops loading the image, the request will be started again once it is its turn.
+     */
+    void cancel();
+  }
+
+  private final int mMaxConcurrentLoads;
+  private final float mMaxViewportDistance;
+  private final ArrayList<Request> mPendingRequests = new ArrayList<>();
+  private final ArrayList<Request> mLoadingRequests = new ArrayList<>();
+  // The view trees of all windows with attached images, e.g. the main one and a Modal's.
+  private final ArrayList<WatchedViewTree> mWatchedViewTrees = new ArrayList<>();
+
+  private static class WatchedViewTree {
+    final ViewTreeObserver mViewTreeObserver;
+    int mImageCount;
+
+    WatchedViewTree(ViewTreeObserver viewTreeObserver) {
+      mViewTreeObserver = viewTreeObserver;
+    }
+  }
+
+  public ImageLoadScheduler() {
+    this(DEFAULT_MAX_CONCURRENT_LOADS, Float.POSITIVE_INFINITY);
+  }
+
+  /**
+   * @param maxConcurrentLoads how many images can be loading at the same time
+   * @param maxViewportDistance images further away from the viewport than this (in pixels) are
+   * not loaded
+   */
+  public ImageLoadScheduler(int maxConcurrentLoads, float maxViewportDistance) {
+    Assertions.assertCondition(maxConcurrentLoads > 0, "maxConcurrentLoads must be positive");
+    mMaxConcurrentLoads = maxConcurrentLoads;
+    mMaxViewportDistance = maxViewportDistance;
+  }
+
+  /**
+   * Adds a request to the pending requests unless it is already pending or loading, and starts
+   * the closest pending requests if there are free slots.
+   */
+  /* package */ void enqueue(Request request) {
+    if (!mPendingRequests.contains(request) && !mLoadingRequests.contains(request)) {
+      mPendingRequests.add(request);
+    }
+    startPendingRequests();
+  }
+
+  /**
+   * Forgets about a request without cancelling it, e.g. because its view was detached.
+   */
+  /* package */ void remove(Request request) {
+    mPendingRequests.remove(request);
+    if (mLoadingRequests.remove(request)) {
+      startPendingRequests();
+    }
+  }
+
+  /* package */ void onLoadFinished(Request request) {
+    if (mLoadingRequests.remove(request)) {
+      startPendingRequests();
+    }
+  }
+
+  /**
+   * Makes the scheduler re-rank the requests whenever a view in the given view tree scrolls, until
+   * every image that watched it called {@link #unwatchViewport}. Each window with images in it is
+   * watched, since scrolling in any of them changes which images are close to the viewport.
+   */
+  /* package */ void watchViewport(ViewTreeObserver viewTreeObserver) {
+    WatchedViewTree watchedViewTree = findWatchedViewTree(viewTreeObserver);
+    if (watchedViewTree == null) {
+      watchedViewTree = new WatchedViewTree(viewTreeObserver);
+      mWatchedViewTrees.add(watchedViewTree);
+      if (viewTreeObserver.isAlive()) {
+        viewTreeObserver.addOnScrollChangedListener(this);
+      }
+    }
+    watchedViewTree.mImageCount++;
+  }
+
+  /* package */ void unwatchViewport(ViewTreeObserver viewTreeObserver) {
+    WatchedViewTree watchedViewTree = findWatchedViewTree(viewTreeObserver);
+    if (watchedViewTree == null || --watchedViewTree.mImageCount > 0) {
+      return;
+    }
+    mWatchedViewTrees.remove(watchedViewTree);
+    if (viewTreeObserver.isAlive()) {
+      viewTreeObserver.removeOnScrollChangedListener(this);
+    }
+  }
+
+  @Override
+  public void onScrollChanged() {
+    onViewportChanged();
+  }
+
+  /* package */ void onViewportChanged() {
+    for (int i = mLoadingRequests.size() - 1; i >= 0; i--) {
+      Request request = mLoadingRequests.get(i);
+      if (request.getViewportDistance() > mMaxViewportDistance) {
+        mLoadingRequests.remove(i);
+        mPendingRequests.add(request);
+        request.cancel();
+      }
+    }
+    startPendingRequests();
+  }
+
+  /* package */ boolean isLoading(Request request) {
+    return mLoadingRequests.contains(request);
+  }
+
+  /* package */ int getPendingRequestCount() {
+    return mPendingRequests.size();
+  }
+
+  /* package */ int getLoadingRequestCount() {
+    return mLoadingRequests.size();
+  }
+
+  /* package */ int getWatchedViewTreeCount() {
+    return mWatchedViewTrees.size();
+  }
+
+  private @Nullable WatchedViewTree findWatchedViewTree(ViewTreeObserver viewTreeObserver) {
+    for (int i = 0; i < mWatchedViewTrees.size(); i++) {
+      WatchedViewTree watchedViewTree = mWatchedViewTrees.get(i);
+      if (watchedViewTree.mViewTreeObserver == viewTreeObserver) {
+        return watchedViewTree;
+      }
+    }
+    return null;
+  }
+
+  private void startPendingRequests() {
+    while (mLoadingRequests.size() < mMaxConcurrentLoads && !mPendingRequests.isEmpty()) {
+      int closest = -1;
+      float closestDistance = mMaxViewportDistance;
+      for (int i = 0; i < mPendingRequests.size(); i++) {
+        float distance = mPendingRequests.get(i).getViewportDistance();
+        // Requests with the same distance are started in the order they were enqueued.
+        if (distance < closestDistance || (closest == -1 && distance == closestDistance)) {
+          closest = i;
+          closestDistance = distance;
+        }
+      }
+      if (closest == -1 || closestDistance == Float.POSITIVE_INFINITY) {
+        // Everything left is too far away, wait for the viewport to move.
+        return;
+      }
+      Request request = mPendingRequests.remove(closest);
+      mLoadingRequests.add(request);
+      request.start();
+    }
+  }
+}
@@ -24,15 +24,15 @@ import com.facebook.react.bridge.ReadableArray;
 import com.facebook.react.bridge.ReadableMap;
 import com.facebook.react.common.MapBuilder;
 import com.facebook.react.module.annotations.ReactModule;
+import com.facebook.react.uimanager.BaseViewManager;
 import com.facebook.react.uimanager.PixelUtil;
-import com.facebook.react.uimanager.SimpleViewManager;
 import com.facebook.react.uimanager.ThemedReactContext;
 import com.facebook.react.uimanager.ViewProps;
 import com.facebook.react.uimanager.annotations.ReactProp;
 import com.facebook.react.uimanager.annotations.ReactPropGroup;
 
 @ReactModule(name = ReactImageManager.REACT_CLASS)
-public class ReactImageManager extends SimpleViewManager<ReactImageView> {
+public class ReactImageManager extends BaseViewManager<ReactImageView, ReactImageShadowNode> {
 
   protected static final String REACT_CLASS = "RCTImageView";
 
@@ -43,18 +43,32 @@ public class ReactImageManager extends SimpleViewManager<ReactImageView> {
 
   private @Nullable AbstractDraweeControllerBuilder mDraweeControllerBuilder;
   private final @Nullable Object mCallerContext;
+  private final @Nullable ImageLoadScheduler mLoadScheduler;
 
   public ReactImageManager(
       AbstractDraweeControllerBuilder draweeControllerBuilder,
       Object callerContext) {
+    this(draweeControllerBuilder, callerContext, null);
+  }
+
+  /**
+   * @param loadScheduler if set, decides in which order the image views load their images, see
+   * {@link ImageLoadScheduler}
+   */
+  public ReactImageManager(
+      @Nullable AbstractDraweeControllerBuilder draweeControllerBuilder,
+      @Nullable Object callerContext,
+      @Nullable ImageLoadScheduler loadScheduler) {
     mDraweeControllerBuilder = draweeControllerBuilder;
     mCallerContext = callerContext;
+    mLoadScheduler = loadScheduler;
   }
 
   public ReactImageManager() {
     // Lazily initialize as FrescoModule have not been initialized yet
     mDraweeControllerBuilder = null;
     mCallerContext = null;
+    mLoadScheduler = null;
   }
 
   public AbstractDraweeControllerBuilder getDraweeControllerBuilder() {
@@ -73,7 +87,8 @@ public class ReactImageManager extends SimpleViewManager<ReactImageView> {
     return new ReactImageView(
         context,
         getDraweeControllerBuilder(),
-        getCallerContext());
+        getCallerContext(),
+        mLoadScheduler);
   }
 
   // In JS this is Image.props.source
@@ -195,6 +210,29 @@ public class ReactImageManager extends SimpleViewManager<ReactImageView> {
         MapBuilder.of("registrationName", "onLoadEnd"));
   }
 
+  @Override
+  public ReactImageShadowNode createShadowNodeInstance() {
+    return new ReactImageShadowNode();
+  }
+
+  @Override
+  public Class<ReactImageShadowNode> getShadowNodeClass() {
+    return ReactImageShadowNode.class;
+  }
+
+  @Override
+  public void updateExtraData(ReactImageView view, Object extraData) {
+    ReactImageShadowNode.LayoutSize layoutSize = (ReactImageShadowNode.LayoutSize) extraData;
+    view.setLayoutSizeHint(layoutSize.mWidth, layoutSize.mHeight);
+    view.maybeUpdateView();
+  }
+
+  @Override
+  public void onDropViewInstance(ReactImageView view) {
+    super.onDropViewInstance(view);
+    view.onDropInstance();
+  }
+
   @Override
   protected void onAfterUpdateTransaction(ReactImageView view) {
     super.onAfterUpdateTransaction(view);
@@ -0,0 +1,52 @@
+/**
+ * Copyright (c) 2015-present, Facebook, Inc.
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree. An additional grant
+ * of patent rights can be found in the PATENTS file in the same directory.
+ */
+
+package com.facebook.react.views.image;
+
+import com.facebook.react.uimanager.LayoutShadowNode;
+import com.facebook.react.uimanager.UIViewOperationQueue;
+
+/**
+ * Shadow node for {@link ReactImageView}. Sends the size the layout computed for the image to the
+ * view as soon as it is known, so that the view can request a bitmap of that size from the first
+ * load on, instead of waiting until it gets laid out itself.
+ *
+ * Only images that get resized use the size: local images with the default resize method and any
+ * image with resizeMethod="resize". Remote images aren't resized unless asked to, because a resized
+ * bitmap has its own entry in the bitmap memory cache and would miss images prefetched into memory.
+ */
+public class ReactImageShadowNode extends LayoutShadowNode {
+
+  /* package */ static class LayoutSize {
+
+    /* package */ final int mWidth;
+    /* package */ final int mHeight;
+
+    /* package */ LayoutSize(int width, int height) {
+      mWidth = width;
+      mHeight = height;
+    }
+  }
+
+  private int mSentWidth;
+  private int mSentHeight;
+
+  @Override
+  public void onCollectExtraUpdates(UIViewOperationQueue uiViewOperationQueue) {
+    super.onCollectExtraUpdates(uiViewOperationQueue);
+    int width = Math.round(getLayoutWidth());
+    int height = Math.round(getLayoutHeight());
+    if (width <= 0 || height <= 0 || (width == mSentWidth && height == mSentHeight)) {
+      return;
+    }
+    mSentWidth = width;
+    mSentHeight = height;
+    uiViewOperationQueue.enqueueUpdateExtraData(getReactTag(), new LayoutSize(width, height));
+  }
+}
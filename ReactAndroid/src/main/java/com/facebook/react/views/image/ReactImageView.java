@@ -29,8 +29,12 @@ import android.graphics.Shader;
 import android.graphics.drawable.Animatable;
 import android.graphics.drawable.Drawable;
 import android.net.Uri;
+import android.view.View;
+import android.view.ViewTreeObserver;
 import android.widget.Toast;
 
+import com.facebook.cache.common.CacheKey;
+import com.facebook.cache.common.SimpleCacheKey;
 import com.facebook.common.util.UriUtil;
 import com.facebook.react.common.build.ReactBuildConfig;
 import com.facebook.yoga.YogaConstants;
@@ -44,6 +48,7 @@ import com.facebook.drawee.generic.GenericDraweeHierarchy;
 import com.facebook.drawee.generic.GenericDraweeHierarchyBuilder;
 import com.facebook.drawee.generic.RoundingParams;
 import com.facebook.drawee.view.GenericDraweeView;
+import com.facebook.infer.annotation.Assertions;
 import com.facebook.imagepipeline.common.ResizeOptions;
 import com.facebook.imagepipeline.image.ImageInfo;
 import com.facebook.imagepipeline.postprocessors.IterativeBoxBlurPostProcessor;
@@ -85,64 +90,92 @@ public class ReactImageView extends GenericDraweeView {
    * Because the postprocessor uses a modified bitmap, that would just get cropped in
    * 'cover' mode, so we fall back to Fresco's normal implementation.
    */
-  private static final Matrix sMatrix = new Matrix();
-  private static final Matrix sInverse = new Matrix();
   private ImageResizeMethod mResizeMethod = ImageResizeMethod.AUTO;
 
-  private class RoundedCornerPostprocessor extends BasePostprocessor {
+  /**
+   * Rounds the corners of the decoded bitmap. The radii and scale type are fixed when the
+   * postprocessor is created and make up its cache key, so Fresco can share the processed bitmap
+   * between all views showing the same image with the same corners (e.g. a grid of avatars)
+   * instead of processing it again for every view. The drawing objects are reused between images,
+   * only the shader wrapping the source bitmap is new every time.
+   */
+  private static class RoundedCornerPostprocessor extends BasePostprocessor {
+
+    private final float[] mCornerRadii;
+    private final ScalingUtils.ScaleType mScaleType;
+    private final CacheKey mCacheKey;
+
+    private final Matrix mMatrix = new Matrix();
+    private final Matrix mInverse = new Matrix();
+    private final float[] mMappedRadii = new float[8];
+    private final Rect mRect = new Rect();
+    private final RectF mRectF = new RectF();
+    private final Path mPath = new Path();
+    private final Paint mPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Canvas mCanvas = new Canvas();
+
+    RoundedCornerPostprocessor(float[] cornerRadii, ScalingUtils.ScaleType scaleType) {
+      mCornerRadii = Arrays.copyOf(cornerRadii, 4);
+      mScaleType = scaleType;
+      mCacheKey = new SimpleCacheKey(
+          "RoundedCornerPostprocessor:" + Arrays.toString(mCornerRadii) + ":" + scaleType);
+    }
+
+    boolean matches(float[] cornerRadii, ScalingUtils.ScaleType scaleType) {
+      return mScaleType == scaleType && Arrays.equals(mCornerRadii, cornerRadii);
+    }
 
     void getRadii(Bitmap source, float[] computedCornerRadii, float[] mappedRadii) {
+      mRect.set(0, 0, source.getWidth(), source.getHeight());
       mScaleType.getTransform(
-            sMatrix,
-            new Rect(0, 0, source.getWidth(), source.getHeight()),
-            source.getWidth(),
-            source.getHeight(),
-            0.0f,
-            0.0f);
-        sMatrix.invert(sInverse);
+          mMatrix,
+          mRect,
+          source.getWidth(),
+          source.getHeight(),
+          0.0f,
+          0.0f);
+      mMatrix.invert(mInverse);
 
-        mappedRadii[0] = sInverse.mapRadius(computedCornerRadii[0]);
-        mappedRadii[1] = mappedRadii[0];
+      mappedRadii[0] = mInverse.mapRadius(computedCornerRadii[0]);
+      mappedRadii[1] = mappedRadii[0];
 
-        mappedRadii[2] = sInverse.mapRadius(computedCornerRadii[1]);
-        mappedRadii[3] = mappedRadii[2];
+      mappedRadii[2] = mInverse.mapRadius(computedCornerRadii[1]);
+      mappedRadii[3] = mappedRadii[2];
 
-        mappedRadii[4] = sInverse.mapRadius(computedCornerRadii[2]);
-        mappedRadii[5] = mappedRadii[4];
+      mappedRadii[4] = mInverse.mapRadius(computedCornerRadii[2]);
+      mappedRadii[5] = mappedRadii[4];
 
-        mappedRadii[6] = sInverse.mapRadius(computedCornerRadii[3]);
-        mappedRadii[7] = mappedRadii[6];
+      mappedRadii[6] = mInverse.mapRadius(computedCornerRadii[3]);
+      mappedRadii[7] = mappedRadii[6];
     }
 
     @Override
-    public void process(Bitmap output, Bitmap source) {
-      cornerRadii(sComputedCornerRadii);
+    public String getName() {
+      return "RoundedCornerPostprocessor";
+    }
 
-      output.setHasAlpha(true);
-      if (FloatUtil.floatsEqual(sComputedCornerRadii[0], 0f) &&
-          FloatUtil.floatsEqual(sComputedCornerRadii[1], 0f) &&
-          FloatUtil.floatsEqual(sComputedCornerRadii[2], 0f) &&
-          FloatUtil.floatsEqual(sComputedCornerRadii[3], 0f)) {
-        super.process(output, source);
-        return;
-      }
-      Paint paint = new Paint();
-      paint.setAntiAlias(true);
-      paint.setShader(new BitmapShader(source, Shader.TileMode.CLAMP, Shader.TileMode.CLAMP));
-      Canvas canvas = new Canvas(output);
+    @Override
+    public CacheKey getPostprocessorCacheKey() {
+      return mCacheKey;
+    }
 
-      float[] radii = new float[8];
+    @Override
+    public synchronized void process(Bitmap output, Bitmap source) {
+      output.setHasAlpha(true);
 
-      getRadii(source, sComputedCornerRadii, radii);
+      getRadii(source, mCornerRadii, mMappedRadii);
 
-      Path pathForBorderRadius = new Path();
+      mRectF.set(0, 0, source.getWidth(), source.getHeight());
+      mPath.reset();
+      mPath.addRoundRect(mRectF, mMappedRadii, Path.Direction.CW);
 
-      pathForBorderRadius.addRoundRect(
-          new RectF(0, 0, source.getWidth(), source.getHeight()),
-          radii,
-          Path.Direction.CW);
+      mPaint.setShader(new BitmapShader(source, Shader.TileMode.CLAMP, Shader.TileMode.CLAMP));
+      mCanvas.setBitmap(output);
+      mCanvas.drawPath(mPath, mPaint);
 
-      canvas.drawPath(pathForBorderRadius, paint);
+      // Don't hold on to the bitmaps once we're done with them.
+      mCanvas.setBitmap(null);
+      mPaint.setShader(null);
     }
   }
 
@@ -158,8 +191,11 @@ public class ReactImageView extends GenericDraweeView {
   private @Nullable float[] mBorderCornerRadii;
   private ScalingUtils.ScaleType mScaleType;
   private boolean mIsDirty;
+  // Size the layout computed for the view, known before the view itself is laid out.
+  private int mLayoutWidthHint;
+  private int mLayoutHeightHint;
   private final AbstractDraweeControllerBuilder mDraweeControllerBuilder;
-  private final RoundedCornerPostprocessor mRoundedCornerPostprocessor;
+  private @Nullable RoundedCornerPostprocessor mRoundedCornerPostprocessor;
   private @Nullable IterativeBoxBlurPostProcessor mIterativeBoxBlurPostProcessor;
   private @Nullable ControllerListener mControllerListener;
   private @Nullable ControllerListener mControllerForTesting;
@@ -167,6 +203,65 @@ public class ReactImageView extends GenericDraweeView {
   private int mFadeDurationMs = -1;
   private boolean mProgressiveRenderingEnabled;
   private ReadableMap mHeaders;
+  private final @Nullable ImageLoadScheduler mLoadScheduler;
+  private final @Nullable ScheduledLoad mScheduledLoad;
+  // The observer of the window this view is attached to, which the scheduler watches for us.
+  private @Nullable ViewTreeObserver mWatchedViewTreeObserver;
+
+  private static final int[] sLocationInWindow = new int[2];
+
+  /**
+   * Lets the {@link ImageLoadScheduler} decide when this view starts loading its image, and
+   * tells it when the load is done.
+   */
+  private class ScheduledLoad extends BaseControllerListener<ImageInfo>
+      implements ImageLoadScheduler.Request {
+
+    @Override
+    public float getViewportDistance() {
+      if (getWindowToken() == null) {
+        return Float.POSITIVE_INFINITY;
+      }
+      View rootView = getRootView();
+      getLocationInWindow(sLocationInWindow);
+      float left = sLocationInWindow[0];
+      float top = sLocationInWindow[1];
+      float right = left + getWidth();
+      float bottom = top + getHeight();
+      float dx = Math.max(0, Math.max(left - rootView.getWidth(), -right));
+      float dy = Math.max(0, Math.max(top - rootView.getHeight(), -bottom));
+      return Math.max(dx, dy);
+    }
+
+    @Override
+    public void start() {
+      maybeUpdateView();
+      if (mIsDirty) {
+        // We're not ready to load yet (e.g. waiting for layout), we'll be enqueued again once
+        // we are.
+        Assertions.assertNotNull(mLoadScheduler).onLoadFinished(this);
+      }
+    }
+
+    @Override
+    public void cancel() {
+      setController(null);
+      mIsDirty = true;
+    }
+
+    @Override
+    public void onFinalImageSet(
+        String id,
+        @Nullable ImageInfo imageInfo,
+        @Nullable Animatable animatable) {
+      Assertions.assertNotNull(mLoadScheduler).onLoadFinished(this);
+    }
+
+    @Override
+    public void onFailure(String id, Throwable throwable) {
+      Assertions.assertNotNull(mLoadScheduler).onLoadFinished(this);
+    }
+  }
 
   // We can't specify rounding in XML, so have to do so here
   private static GenericDraweeHierarchy buildHierarchy(Context context) {
@@ -179,12 +274,21 @@ public class ReactImageView extends GenericDraweeView {
       Context context,
       AbstractDraweeControllerBuilder draweeControllerBuilder,
       @Nullable Object callerContext) {
+    this(context, draweeControllerBuilder, callerContext, null);
+  }
+
+  public ReactImageView(
+      Context context,
+      AbstractDraweeControllerBuilder draweeControllerBuilder,
+      @Nullable Object callerContext,
+      @Nullable ImageLoadScheduler loadScheduler) {
     super(context, buildHierarchy(context));
     mScaleType = ImageResizeMode.defaultValue();
     mDraweeControllerBuilder = draweeControllerBuilder;
-    mRoundedCornerPostprocessor = new RoundedCornerPostprocessor();
     mCallerContext = callerContext;
     mSources = new LinkedList<>();
+    mLoadScheduler = loadScheduler;
+    mScheduledLoad = loadScheduler != null ? new ScheduledLoad() : null;
   }
 
   public void setShouldNotifyLoadEvents(boolean shouldNotify) {
@@ -343,12 +447,31 @@ public class ReactImageView extends GenericDraweeView {
     mHeaders = headers;
   }
 
+  /**
+   * Sets the size the layout computed for this view, see {@link ReactImageShadowNode}. Until the
+   * view is laid out this is the size its images are decoded at.
+   */
+  public void setLayoutSizeHint(int width, int height) {
+    if (width == mLayoutWidthHint && height == mLayoutHeightHint) {
+      return;
+    }
+    mLayoutWidthHint = width;
+    mLayoutHeightHint = height;
+    if (getWidth() <= 0 &&
+        mImageSource != null &&
+        (hasMultipleSources() || shouldResize(mImageSource))) {
+      // The image was requested without knowing the size. Fresco only submits the request once
+      // the view is attached, so replacing it now doesn't cost a load.
+      mIsDirty = true;
+    }
+  }
+
   public void maybeUpdateView() {
     if (!mIsDirty) {
       return;
     }
 
-    if (hasMultipleSources() && (getWidth() <= 0 || getHeight() <= 0)) {
+    if (hasMultipleSources() && (getDecodeWidth() <= 0 || getDecodeHeight() <= 0)) {
       // If we need to choose from multiple uris but the size is not yet set, wait for layout pass
       return;
     }
@@ -359,11 +482,17 @@ public class ReactImageView extends GenericDraweeView {
     }
 
     boolean doResize = shouldResize(mImageSource);
-    if (doResize && (getWidth() <= 0 || getHeight() <= 0)) {
+    if (doResize && (getDecodeWidth() <= 0 || getDecodeHeight() <= 0)) {
       // If need a resize and the size is not yet set, wait until the layout pass provides one
       return;
     }
 
+    if (mLoadScheduler != null && !mLoadScheduler.isLoading(mScheduledLoad)) {
+      // Wait for our turn, the scheduler calls maybeUpdateView() again once it has come.
+      mLoadScheduler.enqueue(mScheduledLoad);
+      return;
+    }
+
     GenericDraweeHierarchy hierarchy = getHierarchy();
     hierarchy.setActualImageScaleType(mScaleType);
 
@@ -377,11 +506,16 @@ public class ReactImageView extends GenericDraweeView {
 
     RoundingParams roundingParams = hierarchy.getRoundingParams();
 
+    cornerRadii(sComputedCornerRadii);
+    boolean hasCornerRadii =
+        !FloatUtil.floatsEqual(sComputedCornerRadii[0], 0f) ||
+        !FloatUtil.floatsEqual(sComputedCornerRadii[1], 0f) ||
+        !FloatUtil.floatsEqual(sComputedCornerRadii[2], 0f) ||
+        !FloatUtil.floatsEqual(sComputedCornerRadii[3], 0f);
+
     if (usePostprocessorScaling) {
       roundingParams.setCornersRadius(0);
     } else {
-      cornerRadii(sComputedCornerRadii);
-
       roundingParams.setCornersRadii(sComputedCornerRadii[0], sComputedCornerRadii[1], sComputedCornerRadii[2], sComputedCornerRadii[3]);
     }
 
@@ -400,13 +534,19 @@ public class ReactImageView extends GenericDraweeView {
 
     // TODO: t13601664 Support multiple PostProcessors
     Postprocessor postprocessor = null;
-    if (usePostprocessorScaling) {
+    if (usePostprocessorScaling && hasCornerRadii) {
+      if (mRoundedCornerPostprocessor == null ||
+          !mRoundedCornerPostprocessor.matches(sComputedCornerRadii, mScaleType)) {
+        mRoundedCornerPostprocessor =
+            new RoundedCornerPostprocessor(sComputedCornerRadii, mScaleType);
+      }
       postprocessor = mRoundedCornerPostprocessor;
     } else if (mIterativeBoxBlurPostProcessor != null) {
       postprocessor = mIterativeBoxBlurPostProcessor;
     }
 
-    ResizeOptions resizeOptions = doResize ? new ResizeOptions(getWidth(), getHeight()) : null;
+    ResizeOptions resizeOptions =
+        doResize ? new ResizeOptions(getDecodeWidth(), getDecodeHeight()) : null;
 
     ImageRequestBuilder imageRequestBuilder = ImageRequestBuilder.newBuilderWithSource(mImageSource.getUri())
         .setPostprocessor(postprocessor)
@@ -436,7 +576,17 @@ public class ReactImageView extends GenericDraweeView {
       mDraweeControllerBuilder.setLowResImageRequest(cachedImageRequest);
     }
 
-    if (mControllerListener != null && mControllerForTesting != null) {
+    if (mScheduledLoad != null) {
+      ForwardingControllerListener combinedListener = new ForwardingControllerListener();
+      combinedListener.addListener(mScheduledLoad);
+      if (mControllerListener != null) {
+        combinedListener.addListener(mControllerListener);
+      }
+      if (mControllerForTesting != null) {
+        combinedListener.addListener(mControllerForTesting);
+      }
+      mDraweeControllerBuilder.setControllerListener(combinedListener);
+    } else if (mControllerListener != null && mControllerForTesting != null) {
       ForwardingControllerListener combinedListener = new ForwardingControllerListener();
       combinedListener.addListener(mControllerListener);
       combinedListener.addListener(mControllerForTesting);
@@ -466,11 +616,57 @@ public class ReactImageView extends GenericDraweeView {
   protected void onSizeChanged(int w, int h, int oldw, int oldh) {
     super.onSizeChanged(w, h, oldw, oldh);
     if (w > 0 && h > 0) {
-      mIsDirty = mIsDirty || hasMultipleSources();
+      // The source was already picked for this size if the layout size hint was right.
+      mIsDirty = mIsDirty ||
+          (hasMultipleSources() && (w != mLayoutWidthHint || h != mLayoutHeightHint));
       maybeUpdateView();
     }
   }
 
+  @Override
+  protected void onAttachedToWindow() {
+    super.onAttachedToWindow();
+    if (mLoadScheduler != null) {
+      // Only watch the observer of the window: the one of a detached view is merged into it on
+      // attach, which would register the scheduler twice.
+      unwatchViewport();
+      mWatchedViewTreeObserver = getViewTreeObserver();
+      mLoadScheduler.watchViewport(mWatchedViewTreeObserver);
+      if (mIsDirty) {
+        // Now that we are in a window the scheduler can tell how close to the viewport we are.
+        maybeUpdateView();
+      }
+    }
+  }
+
+  /**
+   * Called when the view is dropped, which may happen without it ever being attached (e.g. in a
+   * clipped subtree), in which case {@link #onDetachedFromWindow} is never called.
+   */
+  /* package */ void onDropInstance() {
+    if (mLoadScheduler != null) {
+      mLoadScheduler.remove(mScheduledLoad);
+      unwatchViewport();
+    }
+  }
+
+  @Override
+  protected void onDetachedFromWindow() {
+    super.onDetachedFromWindow();
+    if (mLoadScheduler != null) {
+      // Fresco releases the request of a detached view on its own.
+      mLoadScheduler.remove(mScheduledLoad);
+      unwatchViewport();
+    }
+  }
+
+  private void unwatchViewport() {
+    if (mWatchedViewTreeObserver != null) {
+      Assertions.assertNotNull(mLoadScheduler).unwatchViewport(mWatchedViewTreeObserver);
+      mWatchedViewTreeObserver = null;
+    }
+  }
+
   /**
    * ReactImageViews only render a single image.
    */
@@ -479,6 +675,14 @@ public class ReactImageView extends GenericDraweeView {
     return false;
   }
 
+  private int getDecodeWidth() {
+    return getWidth() > 0 ? getWidth() : mLayoutWidthHint;
+  }
+
+  private int getDecodeHeight() {
+    return getHeight() > 0 ? getHeight() : mLayoutHeightHint;
+  }
+
   private boolean hasMultipleSources() {
     return mSources.size() > 1;
   }
@@ -490,7 +694,7 @@ public class ReactImageView extends GenericDraweeView {
     }
     if (hasMultipleSources()) {
       MultiSourceResult multiSource =
-        MultiSourceHelper.getBestSourceForSize(getWidth(), getHeight(), mSources);
+        MultiSourceHelper.getBestSourceForSize(getDecodeWidth(), getDecodeHeight(), mSources);
       mImageSource = multiSource.getBestResult();
       mCachedImageSource = multiSource.getBestResultInCache();
       return;
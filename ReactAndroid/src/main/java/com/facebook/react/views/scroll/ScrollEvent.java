@@ -20,12 +20,14 @@ import com.facebook.react.bridge.Arguments;
 import com.facebook.react.bridge.WritableMap;
 import com.facebook.react.uimanager.PixelUtil;
 import com.facebook.react.uimanager.events.Event;
+import com.facebook.react.uimanager.events.EventDataKeys;
+import com.facebook.react.uimanager.events.NumericEventData;
 import com.facebook.react.uimanager.events.RCTEventEmitter;
 
 /**
  * A event dispatched from a ScrollView scrolling.
  */
-public class ScrollEvent extends Event<ScrollEvent> {
+public class ScrollEvent extends Event<ScrollEvent> implements NumericEventData {
 
   private static final Pools.SynchronizedPool<ScrollEvent> EVENTS_POOL =
       new Pools.SynchronizedPool<>(3);
@@ -115,6 +117,41 @@ public class ScrollEvent extends Event<ScrollEvent> {
     rctEventEmitter.receiveEvent(getViewTag(), getEventName(), serializeEventData());
   }
 
+  @Override
+  public boolean hasEventData(int key) {
+    switch (key) {
+      case EventDataKeys.CONTENT_OFFSET_X:
+      case EventDataKeys.CONTENT_OFFSET_Y:
+      case EventDataKeys.CONTENT_SIZE_WIDTH:
+      case EventDataKeys.CONTENT_SIZE_HEIGHT:
+      case EventDataKeys.LAYOUT_MEASUREMENT_WIDTH:
+      case EventDataKeys.LAYOUT_MEASUREMENT_HEIGHT:
+        return true;
+      default:
+        return false;
+    }
+  }
+
+  @Override
+  public double getEventData(int key) {
+    switch (key) {
+      case EventDataKeys.CONTENT_OFFSET_X:
+        return PixelUtil.toDIPFromPixel(mScrollX);
+      case EventDataKeys.CONTENT_OFFSET_Y:
+        return PixelUtil.toDIPFromPixel(mScrollY);
+      case EventDataKeys.CONTENT_SIZE_WIDTH:
+        return PixelUtil.toDIPFromPixel(mContentWidth);
+      case EventDataKeys.CONTENT_SIZE_HEIGHT:
+        return PixelUtil.toDIPFromPixel(mContentHeight);
+      case EventDataKeys.LAYOUT_MEASUREMENT_WIDTH:
+        return PixelUtil.toDIPFromPixel(mScrollViewWidth);
+      case EventDataKeys.LAYOUT_MEASUREMENT_HEIGHT:
+        return PixelUtil.toDIPFromPixel(mScrollViewHeight);
+      default:
+        throw new IllegalArgumentException("Unsupported scroll event data key: " + key);
+    }
+  }
+
   private WritableMap serializeEventData() {
     WritableMap contentInset = Arguments.createMap();
     contentInset.putDouble("top", 0);
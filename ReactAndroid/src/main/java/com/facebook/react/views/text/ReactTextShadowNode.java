@@ -105,18 +105,85 @@ public class ReactTextShadowNode extends LayoutShadowNode {
     }
   }
 
+  /**
+   * The text, spans and layout cache key built for a virtual text node and its children, with
+   * span positions relative to the start of the node's text. Unchanged nodes reuse it instead of
+   * creating all the spans of their subtree again.
+   */
+  private static class SpannedSegment {
+    private final String mText;
+    private final SetSpanOperation[] mOps;
+    private final String mAttributesKey;
+
+    SpannedSegment(String text, SetSpanOperation[] ops, String attributesKey) {
+      mText = text;
+      mOps = ops;
+      mAttributesKey = attributesKey;
+    }
+
+    public void appendTo(
+        SpannableStringBuilder sb,
+        List<SetSpanOperation> ops,
+        StringBuilder attributesKey) {
+      int start = sb.length();
+      sb.append(mText);
+      for (SetSpanOperation op : mOps) {
+        ops.add(new SetSpanOperation(start + op.start, start + op.end, op.what));
+      }
+      attributesKey.append(mAttributesKey);
+    }
+
+    /**
+     * Returns null if the spans contain inline images, those need to be created for each text.
+     */
+    public static @Nullable SpannedSegment create(
+        SpannableStringBuilder sb,
+        int start,
+        List<SetSpanOperation> ops,
+        int opsStart,
+        StringBuilder attributesKey,
+        int attributesKeyStart) {
+      SetSpanOperation[] segmentOps = new SetSpanOperation[ops.size() - opsStart];
+      for (int i = 0; i < segmentOps.length; i++) {
+        SetSpanOperation op = ops.get(opsStart + i);
+        if (op.what instanceof TextInlineImageSpan) {
+          return null;
+        }
+        segmentOps[i] = new SetSpanOperation(op.start - start, op.end - start, op.what);
+      }
+      return new SpannedSegment(
+          sb.subSequence(start, sb.length()).toString(),
+          segmentOps,
+          attributesKey.substring(attributesKeyStart));
+    }
+  }
+
   private static void buildSpannedFromTextCSSNode(
       ReactTextShadowNode textShadowNode,
       SpannableStringBuilder sb,
-      List<SetSpanOperation> ops) {
+      List<SetSpanOperation> ops,
+      StringBuilder attributesKey) {
     int start = sb.length();
+    int opsStart = ops.size();
+    int attributesKeyStart = attributesKey.length();
+    attributesKey.append('[');
     if (textShadowNode.mText != null) {
       sb.append(textShadowNode.mText);
     }
     for (int i = 0, length = textShadowNode.getChildCount(); i < length; i++) {
       ReactShadowNode child = textShadowNode.getChildAt(i);
       if (child instanceof ReactTextShadowNode) {
-        buildSpannedFromTextCSSNode((ReactTextShadowNode) child, sb, ops);
+        ReactTextShadowNode textChild = (ReactTextShadowNode) child;
+        // Offsets in the key are relative to the parent, so a child's key doesn't depend on where
+        // it ends up in the text.
+        attributesKey.append(sb.length() - start);
+        // Every prop change and change to the children marks the node and its ancestors as
+        // updated, so a node without unseen updates still looks like when it was last built.
+        if (!textChild.hasUnseenUpdates() && textChild.mSpannedSegment != null) {
+          textChild.mSpannedSegment.appendTo(sb, ops, attributesKey);
+        } else {
+          buildSpannedFromTextCSSNode(textChild, sb, ops, attributesKey);
+        }
       } else if (child instanceof ReactTextInlineImageShadowNode) {
         // We make the image take up 1 character in the span and put a corresponding character into
         // the text so that the image doesn't run over any following text.
@@ -181,26 +248,75 @@ public class ReactTextShadowNode extends LayoutShadowNode {
                 new CustomLineHeightSpan(textShadowNode.getEffectiveLineHeight())));
       }
       ops.add(new SetSpanOperation(start, end, new ReactTagSpan(textShadowNode.getReactTag())));
+      textShadowNode.appendAttributesKey(attributesKey, end - start);
+    }
+    attributesKey.append(']');
+
+    if (textShadowNode.isVirtual()) {
+      textShadowNode.mSpannedSegment =
+          SpannedSegment.create(sb, start, ops, opsStart, attributesKey, attributesKeyStart);
+    }
+  }
+
+  /**
+   * Describes the spans set above for the {@link TextLayoutCache} key. React tags are left out,
+   * they don't affect how the text is laid out or drawn.
+   */
+  private void appendAttributesKey(StringBuilder key, int length) {
+    key.append(length).append(':');
+    if (mIsColorSet) {
+      key.append('c').append(mColor);
+    }
+    if (mIsBackgroundColorSet) {
+      key.append('b').append(mBackgroundColor);
+    }
+    if (mFontSize != UNSET) {
+      key.append('s').append(mFontSize);
     }
+    if (mFontStyle != UNSET || mFontWeight != UNSET || mFontFamily != null) {
+      key.append('f').append(mFontStyle).append(',').append(mFontWeight);
+      if (mFontFamily != null) {
+        key.append(',').append(mFontFamily.length()).append(',').append(mFontFamily);
+      }
+    }
+    if (mIsUnderlineTextDecorationSet) {
+      key.append('u');
+    }
+    if (mIsLineThroughTextDecorationSet) {
+      key.append('t');
+    }
+    if (mTextShadowOffsetDx != 0 || mTextShadowOffsetDy != 0) {
+      key.append('h')
+          .append(mTextShadowOffsetDx).append(',')
+          .append(mTextShadowOffsetDy).append(',')
+          .append(mTextShadowRadius).append(',')
+          .append(mTextShadowColor);
+    }
+    if (!Float.isNaN(getEffectiveLineHeight())) {
+      key.append('l').append(getEffectiveLineHeight());
+    }
+    key.append(';');
   }
 
   protected static Spannable fromTextCSSNode(ReactTextShadowNode textCSSNode) {
     SpannableStringBuilder sb = new SpannableStringBuilder();
-    // TODO(5837930): Investigate whether it's worth optimizing this part and do it if so
 
     // The {@link SpannableStringBuilder} implementation require setSpan operation to be called
     // up-to-bottom, otherwise all the spannables that are withing the region for which one may set
     // a new spannable will be wiped out
     List<SetSpanOperation> ops = new ArrayList<>();
-    buildSpannedFromTextCSSNode(textCSSNode, sb, ops);
+    StringBuilder attributesKey = new StringBuilder();
+    buildSpannedFromTextCSSNode(textCSSNode, sb, ops, attributesKey);
     if (textCSSNode.mFontSize == UNSET) {
-      sb.setSpan(
-          new AbsoluteSizeSpan(textCSSNode.mAllowFontScaling
+      int defaultFontSize = textCSSNode.mAllowFontScaling
           ? (int) Math.ceil(PixelUtil.toPixelFromSP(ViewDefaults.FONT_SIZE_SP))
-          : (int) Math.ceil(PixelUtil.toPixelFromDIP(ViewDefaults.FONT_SIZE_SP))),
+          : (int) Math.ceil(PixelUtil.toPixelFromDIP(ViewDefaults.FONT_SIZE_SP));
+      sb.setSpan(
+          new AbsoluteSizeSpan(defaultFontSize),
           0,
           sb.length(),
           Spannable.SPAN_INCLUSIVE_EXCLUSIVE);
+      attributesKey.append('d').append(defaultFontSize);
     }
 
     textCSSNode.mContainsImages = false;
@@ -218,6 +334,11 @@ public class ReactTextShadowNode extends LayoutShadowNode {
       }
       op.execute(sb);
     }
+
+    // Font sizes are in pixels, so the key changes with the font scale as well.
+    textCSSNode.mPreparedSpannableTextKey = textCSSNode.mContainsImages ?
+        null :
+        sb.toString() + '\u0000' + attributesKey;
     return sb;
   }
 
@@ -231,79 +352,30 @@ public class ReactTextShadowNode extends LayoutShadowNode {
             float height,
             YogaMeasureMode heightMode) {
           // TODO(5578671): Handle text direction (see View#getTextDirectionHeuristic)
-          TextPaint textPaint = sTextPaintInstance;
-          Layout layout;
           Spanned text = Assertions.assertNotNull(
               mPreparedSpannableText,
               "Spannable element has not been prepared in onBeforeLayout");
-          BoringLayout.Metrics boring = BoringLayout.isBoring(text, textPaint);
-          float desiredWidth = boring == null ?
-              Layout.getDesiredWidth(text, textPaint) : Float.NaN;
 
           // technically, width should never be negative, but there is currently a bug in
           boolean unconstrainedWidth = widthMode == YogaMeasureMode.UNDEFINED || width < 0;
-
-          if (boring == null &&
-              (unconstrainedWidth ||
-                  (!YogaConstants.isUndefined(desiredWidth) && desiredWidth <= width))) {
-            // Is used when the width is not known and the text is not boring, ie. if it contains
-            // unicode characters.
-
-            int hintWidth = (int) Math.ceil(desiredWidth);
-            if (Build.VERSION.SDK_INT < Build.VERSION_CODES.M) {
-              layout = new StaticLayout(
-                text,
-                textPaint,
-                hintWidth,
-                Layout.Alignment.ALIGN_NORMAL,
-                1.f,
-                0.f,
-                true);
-            } else {
-              layout = StaticLayout.Builder.obtain(text, 0, text.length(), textPaint, hintWidth)
-                .setAlignment(Layout.Alignment.ALIGN_NORMAL)
-                .setLineSpacing(0.f, 1.f)
-                .setIncludePad(true)
-                .setBreakStrategy(mTextBreakStrategy)
-                .setHyphenationFrequency(Layout.HYPHENATION_FREQUENCY_NORMAL)
-                .build();
-            }
-
-          } else if (boring != null && (unconstrainedWidth || boring.width <= width)) {
-            // Is used for single-line, boring text when the width is either unknown or bigger
-            // than the width of the text.
-            layout = BoringLayout.make(
-                text,
-                textPaint,
-                boring.width,
-                Layout.Alignment.ALIGN_NORMAL,
-                1.f,
-                0.f,
-                boring,
-                true);
-          } else {
-            // Is used for multiline, boring text and the width is known.
-
-            if (Build.VERSION.SDK_INT < Build.VERSION_CODES.M) {
-              layout = new StaticLayout(
-                  text,
-                  textPaint,
-                  (int) width,
-                  Layout.Alignment.ALIGN_NORMAL,
-                  1.f,
-                  0.f,
-                  true);
-            } else {
-              layout = StaticLayout.Builder.obtain(text, 0, text.length(), textPaint, (int) width)
-                .setAlignment(Layout.Alignment.ALIGN_NORMAL)
-                .setLineSpacing(0.f, 1.f)
-                .setIncludePad(true)
-                .setBreakStrategy(mTextBreakStrategy)
-                .setHyphenationFrequency(Layout.HYPHENATION_FREQUENCY_NORMAL)
-                .build();
+          // The layout only depends on the width if it is constrained, and not on whether it's
+          // an exact or a maximum width.
+          float cacheWidth = unconstrainedWidth ? -1 : width;
+
+          String textKey = mPreparedSpannableTextKey;
+          Layout layout = textKey == null ?
+              null :
+              TextLayoutCache.getInstance().get(textKey, cacheWidth, mTextBreakStrategy);
+          if (layout == null) {
+            layout = createLayout(text, width, unconstrainedWidth);
+            mCreatedLayout = layout;
+            if (textKey != null) {
+              TextLayoutCache.getInstance().put(textKey, cacheWidth, mTextBreakStrategy, layout);
             }
           }
 
+          mMeasuredLayout = layout;
+
           if (mNumberOfLines != UNSET &&
               mNumberOfLines < layout.getLineCount()) {
             return YogaMeasureOutput.make(
@@ -315,6 +387,77 @@ public class ReactTextShadowNode extends LayoutShadowNode {
         }
       };
 
+  private Layout createLayout(Spanned text, float width, boolean unconstrainedWidth) {
+    // Every layout gets a paint of its own, as the view the layout is handed to draws with it.
+    TextPaint textPaint = new TextPaint(sTextPaintInstance);
+    Layout layout;
+    BoringLayout.Metrics boring = BoringLayout.isBoring(text, textPaint);
+    float desiredWidth = boring == null ?
+        Layout.getDesiredWidth(text, textPaint) : Float.NaN;
+
+    if (boring == null &&
+        (unconstrainedWidth ||
+            (!YogaConstants.isUndefined(desiredWidth) && desiredWidth <= width))) {
+      // Is used when the width is not known and the text is not boring, ie. if it contains
+      // unicode characters.
+
+      int hintWidth = (int) Math.ceil(desiredWidth);
+      if (Build.VERSION.SDK_INT < Build.VERSION_CODES.M) {
+        layout = new StaticLayout(
+          text,
+          textPaint,
+          hintWidth,
+          Layout.Alignment.ALIGN_NORMAL,
+          1.f,
+          0.f,
+          true);
+      } else {
+        layout = StaticLayout.Builder.obtain(text, 0, text.length(), textPaint, hintWidth)
+          .setAlignment(Layout.Alignment.ALIGN_NORMAL)
+          .setLineSpacing(0.f, 1.f)
+          .setIncludePad(true)
+          .setBreakStrategy(mTextBreakStrategy)
+          .setHyphenationFrequency(Layout.HYPHENATION_FREQUENCY_NORMAL)
+          .build();
+      }
+
+    } else if (boring != null && (unconstrainedWidth || boring.width <= width)) {
+      // Is used for single-line, boring text when the width is either unknown or bigger
+      // than the width of the text.
+      layout = BoringLayout.make(
+          text,
+          textPaint,
+          boring.width,
+          Layout.Alignment.ALIGN_NORMAL,
+          1.f,
+          0.f,
+          boring,
+          true);
+    } else {
+      // Is used for multiline, boring text and the width is known.
+
+      if (Build.VERSION.SDK_INT < Build.VERSION_CODES.M) {
+        layout = new StaticLayout(
+            text,
+            textPaint,
+            (int) width,
+            Layout.Alignment.ALIGN_NORMAL,
+            1.f,
+            0.f,
+            true);
+      } else {
+        layout = StaticLayout.Builder.obtain(text, 0, text.length(), textPaint, (int) width)
+          .setAlignment(Layout.Alignment.ALIGN_NORMAL)
+          .setLineSpacing(0.f, 1.f)
+          .setIncludePad(true)
+          .setBreakStrategy(mTextBreakStrategy)
+          .setHyphenationFrequency(Layout.HYPHENATION_FREQUENCY_NORMAL)
+          .build();
+      }
+    }
+    return layout;
+  }
+
   /**
    * Return -1 if the input string is not a valid numeric fontWeight (100, 200, ..., 900), otherwise
    * return the weight.
@@ -379,6 +522,11 @@ public class ReactTextShadowNode extends LayoutShadowNode {
   private @Nullable String mText = null;
 
   private @Nullable Spannable mPreparedSpannableText;
+  private @Nullable String mPreparedSpannableTextKey;
+  private @Nullable Layout mMeasuredLayout;
+  // The last layout this node built itself, rather than got from the TextLayoutCache.
+  private @Nullable Layout mCreatedLayout;
+  private @Nullable SpannedSegment mSpannedSegment;
 
   protected boolean mContainsImages = false;
   private float mHeightOfTallestInlineImage = Float.NaN;
@@ -653,7 +801,12 @@ public class ReactTextShadowNode extends LayoutShadowNode {
           getPadding(Spacing.END),
           getPadding(Spacing.BOTTOM),
           getTextAlign(),
-          mTextBreakStrategy
+          mTextBreakStrategy,
+          // The view decides whether the layout matches its final size, images need the view's
+          // own layout to be drawn. The view draws with the paint of the layout, so it is only
+          // handed over by the node that built it; nodes that got it from the cache only read its
+          // metrics.
+          mContainsImages || mMeasuredLayout != mCreatedLayout ? null : mMeasuredLayout
         );
       uiViewOperationQueue.enqueueUpdateExtraData(getReactTag(), reactTextUpdate);
     }
@@ -9,6 +9,8 @@
 
 package com.facebook.react.views.text;
 
+import javax.annotation.Nullable;
+
 import android.text.Layout;
 import android.text.Spannable;
 
@@ -28,6 +30,7 @@ public class ReactTextUpdate {
   private final float mPaddingBottom;
   private final int mTextAlign;
   private final int mTextBreakStrategy;
+  private final @Nullable Layout mLayout;
 
   /**
    * @deprecated Use a non-deprecated constructor for ReactTextUpdate instead. This one remains
@@ -64,6 +67,33 @@ public class ReactTextUpdate {
     float paddingBottom,
     int textAlign,
     int textBreakStrategy) {
+    this(text,
+        jsEventCounter,
+        containsImages,
+        paddingStart,
+        paddingTop,
+        paddingEnd,
+        paddingBottom,
+        textAlign,
+        textBreakStrategy,
+        null);
+  }
+
+  /**
+   * @param layout the layout measured for the text, which the view can draw instead of laying out
+   * the text again if its final size matches
+   */
+  public ReactTextUpdate(
+    Spannable text,
+    int jsEventCounter,
+    boolean containsImages,
+    float paddingStart,
+    float paddingTop,
+    float paddingEnd,
+    float paddingBottom,
+    int textAlign,
+    int textBreakStrategy,
+    @Nullable Layout layout) {
     mText = text;
     mJsEventCounter = jsEventCounter;
     mContainsImages = containsImages;
@@ -73,6 +103,7 @@ public class ReactTextUpdate {
     mPaddingBottom = paddingBottom;
     mTextAlign = textAlign;
     mTextBreakStrategy = textBreakStrategy;
+    mLayout = layout;
   }
 
   public Spannable getText() {
@@ -110,4 +141,8 @@ public class ReactTextUpdate {
   public int getTextBreakStrategy() {
     return mTextBreakStrategy;
   }
+
+  public @Nullable Layout getLayout() {
+    return mLayout;
+  }
 }
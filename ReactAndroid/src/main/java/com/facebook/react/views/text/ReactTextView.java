@@ -11,18 +11,28 @@ package com.facebook.react.views.text;
 
 import javax.annotation.Nullable;
 
+import java.lang.reflect.Field;
+
 import android.content.Context;
+import android.graphics.Canvas;
 import android.graphics.Color;
+import android.graphics.Typeface;
 import android.graphics.drawable.Drawable;
 import android.graphics.drawable.LayerDrawable;
 import android.os.Build;
+import android.support.v4.view.ViewCompat;
+import android.text.BoringLayout;
 import android.text.Layout;
 import android.text.Spanned;
+import android.text.TextPaint;
 import android.text.TextUtils;
+import android.util.Log;
 import android.view.Gravity;
+import android.view.View;
 import android.view.ViewGroup;
 import android.widget.TextView;
 
+import com.facebook.react.common.ReactConstants;
 import com.facebook.react.uimanager.ReactCompoundView;
 import com.facebook.react.uimanager.ViewDefaults;
 import com.facebook.react.views.view.ReactViewBackgroundDrawable;
@@ -32,6 +42,9 @@ public class ReactTextView extends TextView implements ReactCompoundView {
   private static final ViewGroup.LayoutParams EMPTY_LAYOUT_PARAMS =
     new ViewGroup.LayoutParams(0, 0);
 
+  private static @Nullable Field sLayoutField;
+  private static boolean sTriedToGetLayoutField = false;
+
   private boolean mContainsImages;
   private int mDefaultGravityHorizontal;
   private int mDefaultGravityVertical;
@@ -40,6 +53,8 @@ public class ReactTextView extends TextView implements ReactCompoundView {
   private int mTextAlign = Gravity.NO_GRAVITY;
   private int mNumberOfLines = ViewDefaults.NUMBER_OF_LINES;
   private TextUtils.TruncateAt mEllipsizeLocation = TextUtils.TruncateAt.END;
+  private boolean mIncludeFontPadding = true;
+  private @Nullable Layout mPrecomputedLayout;
 
   private ReactViewBackgroundDrawable mReactBackgroundDrawable;
 
@@ -48,10 +63,28 @@ public class ReactTextView extends TextView implements ReactCompoundView {
     mDefaultGravityHorizontal =
       getGravity() & (Gravity.HORIZONTAL_GRAVITY_MASK | Gravity.RELATIVE_HORIZONTAL_GRAVITY_MASK);
     mDefaultGravityVertical = getGravity() & Gravity.VERTICAL_GRAVITY_MASK;
+
+    if (!sTriedToGetLayoutField) {
+      sTriedToGetLayoutField = true;
+      try {
+        sLayoutField = TextView.class.getDeclaredField("mLayout");
+        sLayoutField.setAccessible(true);
+      } catch (NoSuchFieldException e) {
+        Log.w(
+          ReactConstants.TAG,
+          "Failed to get mLayout field for TextView! Text will be laid out again on the UI thread.");
+      }
+    }
   }
 
   public void setText(ReactTextUpdate update) {
     mContainsImages = update.containsImages();
+    mPrecomputedLayout = sLayoutField == null ? null : update.getLayout();
+    if (mPrecomputedLayout != null) {
+      // Without a layout TextView doesn't lay out the new text right away, it waits for the next
+      // measure, where it gets handed the layout the text was measured with if that one fits.
+      setTextViewLayout(null);
+    }
     // Android's TextView crashes when it tries to relayout if LayoutParams are
     // null; explicitly set the LayoutParams to prevent this crash. See:
     // https://github.com/facebook/react-native/pull/7011
@@ -75,6 +108,101 @@ public class ReactTextView extends TextView implements ReactCompoundView {
         setBreakStrategy(update.getTextBreakStrategy());
       }
     }
+    if (mPrecomputedLayout != null) {
+      // The view isn't measured again if its size doesn't change with the text.
+      Layout layout = getUsablePrecomputedLayout(getWidth());
+      if (layout != null) {
+        setTextViewLayout(layout);
+      }
+      requestLayout();
+      invalidate();
+    }
+  }
+
+  @Override
+  protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+    // TextView only builds a layout while measuring if it doesn't have one for the width yet. The
+    // UIManager always measures views exactly, so if the layout from the shadow node fits that
+    // width TextView measures and draws with it instead of laying out the text again.
+    Layout layout = View.MeasureSpec.getMode(widthMeasureSpec) == View.MeasureSpec.EXACTLY ?
+        getUsablePrecomputedLayout(View.MeasureSpec.getSize(widthMeasureSpec)) :
+        null;
+    if (layout != null) {
+      setTextViewLayout(layout);
+    } else if (mPrecomputedLayout != null && getLayout() == mPrecomputedLayout) {
+      // TextView may widen the layout it has in place, which must not happen to ours.
+      setTextViewLayout(null);
+    }
+    super.onMeasure(widthMeasureSpec, heightMeasureSpec);
+  }
+
+  @Override
+  protected void onDraw(Canvas canvas) {
+    Layout layout = getLayout();
+    if (layout == null) {
+      // TextView would lay out the text now.
+      layout = getUsablePrecomputedLayout(getWidth());
+      if (layout != null) {
+        setTextViewLayout(layout);
+      }
+    }
+    if (layout != null && layout == mPrecomputedLayout) {
+      // TextView draws its layout after giving its own paint the text color and drawable state.
+      // The layout from the shadow node has a paint of its own, which only this view draws with.
+      TextPaint paint = layout.getPaint();
+      paint.setColor(getCurrentTextColor());
+      paint.drawableState = getDrawableState();
+    }
+    super.onDraw(canvas);
+  }
+
+  /**
+   * Returns the layout the text was measured with if it can be drawn in place of the one TextView
+   * would build for the given view width, or null otherwise. The layout is only usable if it was
+   * laid out for exactly the content width, with the typeface and alignment TextView would use, and
+   * the view doesn't need features only TextView's own layout supports, like selection or
+   * ellipsizing. BoringLayouts are cheap to build and TextView reuses them in place for its next
+   * layout, so they aren't handed over.
+   */
+  private @Nullable Layout getUsablePrecomputedLayout(int width) {
+    Layout layout = mPrecomputedLayout;
+    if (layout == null ||
+        layout instanceof BoringLayout ||
+        mTextIsSelectable ||
+        !mIncludeFontPadding ||
+        layout.getWidth() != width - getCompoundPaddingLeft() - getCompoundPaddingRight() ||
+        layout.getLineCount() > mNumberOfLines ||
+        !getTypefaceOrDefault(layout.getPaint()).equals(getTypefaceOrDefault(getPaint())) ||
+        (getGravity() & (Gravity.HORIZONTAL_GRAVITY_MASK |
+            Gravity.RELATIVE_HORIZONTAL_GRAVITY_MASK)) != Gravity.START ||
+        ViewCompat.getLayoutDirection(this) != ViewCompat.LAYOUT_DIRECTION_LTR) {
+      return null;
+    }
+    return layout;
+  }
+
+  private void setTextViewLayout(@Nullable Layout layout) {
+    if (sLayoutField == null) {
+      return;
+    }
+    try {
+      sLayoutField.set(this, layout);
+    } catch (IllegalAccessException e) {
+      sLayoutField = null;
+      mPrecomputedLayout = null;
+      Log.w(ReactConstants.TAG, "Failed to set mLayout field for TextView!", e);
+    }
+  }
+
+  private static Typeface getTypefaceOrDefault(TextPaint paint) {
+    Typeface typeface = paint.getTypeface();
+    return typeface == null ? Typeface.DEFAULT : typeface;
+  }
+
+  @Override
+  public void setIncludeFontPadding(boolean includePad) {
+    mIncludeFontPadding = includePad;
+    super.setIncludeFontPadding(includePad);
   }
 
   @Override
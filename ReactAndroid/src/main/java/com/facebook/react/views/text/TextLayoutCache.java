@@ -0,0 +1,108 @@
+/**
+ * Copyright (c) 2015-present, Facebook, Inc.
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree. An additional grant
+ * of patent rights can be found in the PATENTS file in the same directory.
+ */
+
+package com.facebook.react.views.text;
+
+import javax.annotation.Nullable;
+
+import android.text.Layout;
+import android.util.LruCache;
+
+/**
+ * Process wide cache of text {@link Layout}s built when measuring text. Lists often contain the
+ * same labels many times (e.g. "Reply", timestamps or prices), which would otherwise be laid out
+ * again for every row.
+ *
+ * Entries are keyed by a description of the text and all of its styles as built by
+ * {@link ReactTextShadowNode}, together with the width constraint and the break strategy. Since
+ * the key covers everything that affects how the text is drawn, a cached layout can be drawn for
+ * any node with an equal key. Text containing inline images is never cached.
+ */
+public class TextLayoutCache {
+
+  private static final int MAX_ENTRIES = 512;
+
+  private static @Nullable TextLayoutCache sInstance;
+
+  private final LruCache<Key, Layout> mLayouts = new LruCache<>(MAX_ENTRIES);
+
+  private TextLayoutCache() {
+  }
+
+  public static synchronized TextLayoutCache getInstance() {
+    if (sInstance == null) {
+      sInstance = new TextLayoutCache();
+    }
+    return sInstance;
+  }
+
+  /**
+   * @param textKey description of the text and its styles
+   * @param width the width the text was laid out for, or a negative value if the width was not
+   * constrained
+   */
+  public @Nullable Layout get(String textKey, float width, int textBreakStrategy) {
+    return mLayouts.get(new Key(textKey, width, textBreakStrategy));
+  }
+
+  public void put(String textKey, float width, int textBreakStrategy, Layout layout) {
+    mLayouts.put(new Key(textKey, width, textBreakStrategy), layout);
+  }
+
+  public void clear() {
+    mLayouts.evictAll();
+  }
+
+  public int getHitCount() {
+    return mLayouts.hitCount();
+  }
+
+  public int getMissCount() {
+    return mLayouts.missCount();
+  }
+
+  public int getSize() {
+    return mLayouts.size();
+  }
+
+  private static final class Key {
+
+    private final String mTextKey;
+    private final float mWidth;
+    private final int mTextBreakStrategy;
+
+    private Key(String textKey, float width, int textBreakStrategy) {
+      mTextKey = textKey;
+      mWidth = width;
+      mTextBreakStrategy = textBreakStrategy;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Key)) {
+        return false;
+      }
+      Key other = (Key) o;
+      return mWidth == other.mWidth &&
+          mTextBreakStrategy == other.mTextBreakStrategy &&
+          mTextKey.equals(other.mTextKey);
+    }
+
+    @Override
+    public int hashCode() {
+      int result = mTextKey.hashCode();
+      result = 31 * result + Float.floatToIntBits(mWidth);
+      result = 31 * result + mTextBreakStrategy;
+      return result;
+    }
+  }
+}
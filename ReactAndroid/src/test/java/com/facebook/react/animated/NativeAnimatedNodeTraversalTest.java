@@ -19,7 +19,9 @@ import com.facebook.react.uimanager.ReactStylesDiffMap;
 import com.facebook.react.uimanager.UIImplementation;
 import com.facebook.react.uimanager.UIManagerModule;
 import com.facebook.react.uimanager.events.Event;
+import com.facebook.react.uimanager.events.EventDataKeys;
 import com.facebook.react.uimanager.events.EventDispatcher;
+import com.facebook.react.uimanager.events.NumericEventData;
 import com.facebook.react.uimanager.events.RCTEventEmitter;
 
 import org.junit.Before;
@@ -916,6 +918,36 @@ public class NativeAnimatedNodeTraversalTest {
     };
   }
 
+  private static class NumericScrollEvent extends Event<NumericScrollEvent>
+      implements NumericEventData {
+    private final double mValue;
+
+    public NumericScrollEvent(int tag, double value) {
+      super(tag);
+      mValue = value;
+    }
+
+    @Override
+    public String getEventName() {
+      return "topScroll";
+    }
+
+    @Override
+    public boolean hasEventData(int key) {
+      return key == EventDataKeys.CONTENT_OFFSET_Y;
+    }
+
+    @Override
+    public double getEventData(int key) {
+      return mValue;
+    }
+
+    @Override
+    public void dispatch(RCTEventEmitter rctEventEmitter) {
+      throw new AssertionError("Event data should be read without serializing the event");
+    }
+  }
+
   @Test
   public void testNativeAnimatedEventDoUpdate() {
     int viewTag = 1000;
@@ -992,4 +1024,134 @@ public class NativeAnimatedNodeTraversalTest {
     verify(mUIImplementationMock).synchronouslyUpdateViewOnUIThread(eq(viewTag), stylesCaptor.capture());
     assertThat(stylesCaptor.getValue().getDouble("opacity", Double.NaN)).isEqualTo(10);
   }
+
+  @Test
+  public void testLayoutPropsAreSentThroughShadowHierarchy() {
+    int viewTag = 1000;
+
+    mNativeAnimatedNodesManager.createAnimatedNode(
+      1,
+      JavaOnlyMap.of("type", "value", "value", 0d, "offset", 0d));
+    mNativeAnimatedNodesManager.createAnimatedNode(
+      2,
+      JavaOnlyMap.of("type", "value", "value", 100d, "offset", 0d));
+    mNativeAnimatedNodesManager.createAnimatedNode(
+      3,
+      JavaOnlyMap.of("type", "style", "style", JavaOnlyMap.of("opacity", 1, "height", 2)));
+    mNativeAnimatedNodesManager.createAnimatedNode(
+      4,
+      JavaOnlyMap.of("type", "props", "props", JavaOnlyMap.of("style", 3)));
+    mNativeAnimatedNodesManager.connectAnimatedNodes(1, 3);
+    mNativeAnimatedNodesManager.connectAnimatedNodes(2, 3);
+    mNativeAnimatedNodesManager.connectAnimatedNodes(3, 4);
+    mNativeAnimatedNodesManager.connectAnimatedNodeToView(4, viewTag);
+
+    ArgumentCaptor<ReactStylesDiffMap> viewStylesCaptor =
+      ArgumentCaptor.forClass(ReactStylesDiffMap.class);
+    ArgumentCaptor<ReactStylesDiffMap> layoutStylesCaptor =
+      ArgumentCaptor.forClass(ReactStylesDiffMap.class);
+
+    mNativeAnimatedNodesManager.runUpdates(nextFrameTime());
+    verify(mUIImplementationMock)
+      .synchronouslyUpdateViewOnUIThread(eq(viewTag), viewStylesCaptor.capture());
+    verify(mUIImplementationMock)
+      .enqueueAnimatedLayoutUpdate(eq(viewTag), layoutStylesCaptor.capture());
+    assertThat(viewStylesCaptor.getValue().hasKey("height")).isFalse();
+    assertThat(viewStylesCaptor.getValue().getDouble("opacity", Double.NaN)).isEqualTo(0);
+    assertThat(layoutStylesCaptor.getValue().hasKey("opacity")).isFalse();
+    assertThat(layoutStylesCaptor.getValue().getDouble("height", Double.NaN)).isEqualTo(100);
+  }
+
+  @Test
+  public void testLayoutOnlyPropsSkipViewUpdate() {
+    int viewTag = 1000;
+
+    mNativeAnimatedNodesManager.createAnimatedNode(
+      1,
+      JavaOnlyMap.of("type", "value", "value", 50d, "offset", 0d));
+    mNativeAnimatedNodesManager.createAnimatedNode(
+      2,
+      JavaOnlyMap.of("type", "style", "style", JavaOnlyMap.of("width", 1)));
+    mNativeAnimatedNodesManager.createAnimatedNode(
+      3,
+      JavaOnlyMap.of("type", "props", "props", JavaOnlyMap.of("style", 2)));
+    mNativeAnimatedNodesManager.connectAnimatedNodes(1, 2);
+    mNativeAnimatedNodesManager.connectAnimatedNodes(2, 3);
+    mNativeAnimatedNodesManager.connectAnimatedNodeToView(3, viewTag);
+
+    mNativeAnimatedNodesManager.runUpdates(nextFrameTime());
+    verify(mUIImplementationMock)
+      .enqueueAnimatedLayoutUpdate(eq(viewTag), any(ReactStylesDiffMap.class));
+    verifyNoMoreInteractions(mUIImplementationMock);
+  }
+
+  @Test
+  public void testFlexPropsAreSentThroughShadowHierarchy() {
+    int viewTag = 1000;
+
+    mNativeAnimatedNodesManager.createAnimatedNode(
+      1,
+      JavaOnlyMap.of("type", "value", "value", 2d, "offset", 0d));
+    mNativeAnimatedNodesManager.createAnimatedNode(
+      2,
+      JavaOnlyMap.of("type", "style", "style", JavaOnlyMap.of("flexGrow", 1)));
+    mNativeAnimatedNodesManager.createAnimatedNode(
+      3,
+      JavaOnlyMap.of("type", "props", "props", JavaOnlyMap.of("style", 2)));
+    mNativeAnimatedNodesManager.connectAnimatedNodes(1, 2);
+    mNativeAnimatedNodesManager.connectAnimatedNodes(2, 3);
+    mNativeAnimatedNodesManager.connectAnimatedNodeToView(3, viewTag);
+
+    ArgumentCaptor<ReactStylesDiffMap> layoutStylesCaptor =
+      ArgumentCaptor.forClass(ReactStylesDiffMap.class);
+
+    mNativeAnimatedNodesManager.runUpdates(nextFrameTime());
+    verify(mUIImplementationMock)
+      .enqueueAnimatedLayoutUpdate(eq(viewTag), layoutStylesCaptor.capture());
+    assertThat(layoutStylesCaptor.getValue().getDouble("flexGrow", Double.NaN)).isEqualTo(2);
+    verifyNoMoreInteractions(mUIImplementationMock);
+  }
+
+  @Test
+  public void testNativeAnimatedEventReadsNumericEventData() {
+    int viewTag = 1000;
+
+    createSimpleAnimatedViewWithOpacity(viewTag, 0d);
+
+    mNativeAnimatedNodesManager.addAnimatedEventToView(viewTag, "topScroll", JavaOnlyMap.of(
+      "animatedValueTag", 1,
+      "nativeEventPath", JavaOnlyArray.of("contentOffset", "y")));
+
+    mNativeAnimatedNodesManager.onEventDispatch(new NumericScrollEvent(viewTag, 10));
+
+    ArgumentCaptor<ReactStylesDiffMap> stylesCaptor =
+      ArgumentCaptor.forClass(ReactStylesDiffMap.class);
+
+    reset(mUIImplementationMock);
+    mNativeAnimatedNodesManager.runUpdates(nextFrameTime());
+    verify(mUIImplementationMock).synchronouslyUpdateViewOnUIThread(eq(viewTag), stylesCaptor.capture());
+    assertThat(stylesCaptor.getValue().getDouble("opacity", Double.NaN)).isEqualTo(10);
+  }
+
+  @Test
+  public void testRemoveAnimatedEventFromView() {
+    int viewTag = 1000;
+
+    createSimpleAnimatedViewWithOpacity(viewTag, 0d);
+
+    mNativeAnimatedNodesManager.addAnimatedEventToView(viewTag, "topScroll", JavaOnlyMap.of(
+      "animatedValueTag", 1,
+      "nativeEventPath", JavaOnlyArray.of("contentOffset", "y")));
+    mNativeAnimatedNodesManager.removeAnimatedEventFromView(viewTag, "topScroll", 1);
+
+    mNativeAnimatedNodesManager.onEventDispatch(createScrollEvent(viewTag, 10));
+
+    ArgumentCaptor<ReactStylesDiffMap> stylesCaptor =
+      ArgumentCaptor.forClass(ReactStylesDiffMap.class);
+
+    reset(mUIImplementationMock);
+    mNativeAnimatedNodesManager.runUpdates(nextFrameTime());
+    verify(mUIImplementationMock).synchronouslyUpdateViewOnUIThread(eq(viewTag), stylesCaptor.capture());
+    assertThat(stylesCaptor.getValue().getDouble("opacity", Double.NaN)).isEqualTo(0);
+  }
 }
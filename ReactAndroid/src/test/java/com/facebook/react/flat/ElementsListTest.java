@@ -0,0 +1,220 @@
+/**
+ * Copyright (c) 2015-present, Facebook, Inc.
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree. An additional grant
+ * of patent rights can be found in the PATENTS file in the same directory.
+ */
+
+package com.facebook.react.flat;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests for {@link ElementsList}.
+ */
+public class ElementsListTest {
+
+  private static final String[] EMPTY_ARRAY = new String[0];
+
+  private ElementsList<String> mElementsList;
+
+  @Before
+  public void setUp() {
+    mElementsList = new ElementsList<>(EMPTY_ARRAY);
+  }
+
+  private static String[] createElements(int count, String prefix) {
+    String[] elements = new String[count];
+    for (int i = 0; i < count; i++) {
+      elements[i] = prefix + i;
+    }
+    return elements;
+  }
+
+  private String[] collect(Object[] baseline, String[] elements) {
+    mElementsList.start(baseline);
+    for (String element : elements) {
+      mElementsList.add(element);
+    }
+    return mElementsList.finish();
+  }
+
+  private static void assertSameElements(String[] expected, String[] actual) {
+    assertThat(actual).isNotNull();
+    assertThat(actual.length).isEqualTo(expected.length);
+    for (int i = 0; i < expected.length; i++) {
+      assertThat(actual[i]).isSameAs(expected[i]);
+    }
+  }
+
+  @Test
+  public void testIdenticalElementsReturnNull() {
+    String[] baseline = createElements(100, "a");
+    assertThat(collect(baseline, baseline.clone())).isNull();
+    assertThat(collect(EMPTY_ARRAY, EMPTY_ARRAY)).isNull();
+  }
+
+  @Test
+  public void testElementsAreComparedByIdentity() {
+    String[] baseline = createElements(3, "a");
+    String[] elements = createElements(3, "a");
+    assertSameElements(elements, collect(baseline, elements));
+  }
+
+  @Test
+  public void testChangeAfterLongPrefix() {
+    String[] baseline = createElements(1000, "a");
+    String[] elements = baseline.clone();
+    elements[990] = "changed";
+
+    String[] result = collect(baseline, elements);
+    assertSameElements(elements, result);
+    assertThat(result).isNotSameAs(baseline);
+  }
+
+  @Test
+  public void testChangeOfFirstAndLastElement() {
+    String[] baseline = createElements(10, "a");
+
+    String[] elements = baseline.clone();
+    elements[0] = "changed";
+    assertSameElements(elements, collect(baseline, elements));
+
+    elements = baseline.clone();
+    elements[9] = "changed";
+    assertSameElements(elements, collect(baseline, elements));
+  }
+
+  @Test
+  public void testReorderedElements() {
+    String[] baseline = createElements(2, "a");
+    String[] elements = new String[] {baseline[1], baseline[0]};
+    assertSameElements(elements, collect(baseline, elements));
+  }
+
+  @Test
+  public void testShrinkingElements() {
+    String[] baseline = createElements(100, "a");
+
+    // Only a prefix of the baseline is added.
+    String[] elements = new String[60];
+    System.arraycopy(baseline, 0, elements, 0, elements.length);
+    assertSameElements(elements, collect(baseline, elements));
+
+    // A prefix followed by a changed element.
+    elements[59] = "changed";
+    assertSameElements(elements, collect(baseline, elements));
+
+    assertThat(collect(baseline, EMPTY_ARRAY)).isSameAs(EMPTY_ARRAY);
+  }
+
+  @Test
+  public void testGrowingElements() {
+    String[] baseline = createElements(100, "a");
+
+    String[] elements = new String[101];
+    System.arraycopy(baseline, 0, elements, 0, baseline.length);
+    elements[100] = "added";
+    assertSameElements(elements, collect(baseline, elements));
+
+    elements = createElements(5, "b");
+    assertSameElements(elements, collect(EMPTY_ARRAY, elements));
+  }
+
+  @Test
+  public void testNestedScopes() {
+    String[] outerBaseline = createElements(50, "outer");
+    String[] innerBaseline = createElements(50, "inner");
+
+    // Unchanged inner scope in a changed outer scope.
+    mElementsList.start(outerBaseline);
+    for (int i = 0; i < 40; i++) {
+      mElementsList.add(outerBaseline[i]);
+    }
+    mElementsList.add("changed outer");
+    assertThat(collect(innerBaseline, innerBaseline)).isNull();
+    for (int i = 41; i < 50; i++) {
+      mElementsList.add(outerBaseline[i]);
+    }
+    String[] expected = outerBaseline.clone();
+    expected[40] = "changed outer";
+    assertSameElements(expected, mElementsList.finish());
+
+    // Changed inner scope, started after the outer scope changed, in an unchanged outer scope and
+    // in a changed one.
+    String[] innerElements = innerBaseline.clone();
+    innerElements[45] = "changed inner";
+    for (boolean changeOuter : new boolean[] {false, true}) {
+      mElementsList.start(outerBaseline);
+      for (int i = 0; i < 50; i++) {
+        if (changeOuter && i == 10) {
+          mElementsList.add("changed outer");
+        } else {
+          mElementsList.add(outerBaseline[i]);
+        }
+        if (i == 20) {
+          assertSameElements(innerElements, collect(innerBaseline, innerElements));
+        }
+      }
+      String[] result = mElementsList.finish();
+      if (changeOuter) {
+        expected = outerBaseline.clone();
+        expected[10] = "changed outer";
+        assertSameElements(expected, result);
+      } else {
+        assertThat(result).isNull();
+      }
+    }
+    mElementsList.clear();
+  }
+
+  @Test
+  public void testDeeplyNestedScopesAreRecycled() {
+    String[][] baselines = new String[5][];
+    String[] changed = createElements(baselines.length, "changed");
+    for (int depth = 0; depth < baselines.length; depth++) {
+      baselines[depth] = createElements(3, "depth" + depth);
+    }
+
+    for (int pass = 0; pass < 2; pass++) {
+      for (int depth = 0; depth < baselines.length; depth++) {
+        mElementsList.start(baselines[depth]);
+        mElementsList.add(baselines[depth][0]);
+        if (depth % 2 == 1) {
+          mElementsList.add(changed[depth]);
+        }
+      }
+      for (int depth = baselines.length - 1; depth >= 0; depth--) {
+        String[] result = mElementsList.finish();
+        if (depth % 2 == 1) {
+          assertSameElements(new String[] {baselines[depth][0], changed[depth]}, result);
+        } else {
+          // Only the first element was added again.
+          assertSameElements(new String[] {baselines[depth][0]}, result);
+        }
+      }
+      mElementsList.clear();
+    }
+  }
+
+  @Test
+  public void testClearRequiresFinishedScopes() {
+    mElementsList.start(EMPTY_ARRAY);
+    try {
+      mElementsList.clear();
+      fail("Expected clear() to throw while a scope is open");
+    } catch (RuntimeException e) {
+      // expected
+    }
+    assertArrayEquals(new String[] {"a"}, collect(EMPTY_ARRAY, new String[] {"a"}));
+    assertThat(mElementsList.finish()).isNull();
+    mElementsList.clear();
+  }
+}
@@ -0,0 +1,256 @@
+/**
+ * Copyright (c) 2015-present, Facebook, Inc.
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree. An additional grant
+ * of patent rights can be found in the PATENTS file in the same directory.
+ */
+
+package com.facebook.react.flat;
+
+import java.util.List;
+
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.Picture;
+import android.text.Layout;
+import android.text.SpannableString;
+import android.text.Spanned;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.powermock.core.classloader.annotations.PowerMockIgnore;
+import org.powermock.modules.junit4.rule.PowerMockRule;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+import static org.junit.Assert.assertArrayEquals;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyFloat;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests which draw commands {@link FlatViewGroup} records into cached Pictures, and when it
+ * records them again.
+ */
+@RunWith(RobolectricTestRunner.class)
+@PowerMockIgnore({"org.mockito.*", "org.robolectric.*", "android.*"})
+public class FlatViewGroupDrawCommandCacheTest {
+
+  private static final int SIZE = 100;
+
+  @Rule
+  public PowerMockRule rule = new PowerMockRule();
+
+  private FlatViewGroup mView;
+
+  @Before
+  public void setUp() {
+    mView = new FlatViewGroup(RuntimeEnvironment.application);
+    mView.layout(0, 0, SIZE, SIZE);
+  }
+
+  private static DrawCommand freeze(
+      AbstractDrawCommand drawCommand,
+      float left,
+      float top,
+      float right,
+      float bottom) {
+    return drawCommand.updateBoundsAndFreeze(
+        left,
+        top,
+        right,
+        bottom,
+        Float.NEGATIVE_INFINITY,
+        Float.NEGATIVE_INFINITY,
+        Float.POSITIVE_INFINITY,
+        Float.POSITIVE_INFINITY);
+  }
+
+  private static DrawCommand background(float left, float top, float right, float bottom) {
+    return freeze(new DrawBackgroundColor(Color.RED), left, top, right, bottom);
+  }
+
+  /**
+   * Small backgrounds that fit in the view, each with its own bounds so that draws can be told
+   * apart.
+   */
+  private static DrawCommand[] backgrounds(int count, int offset) {
+    DrawCommand[] drawCommands = new DrawCommand[count];
+    for (int i = 0; i < count; i++) {
+      float left = offset + i;
+      drawCommands[i] = background(left, 0, left + 1, 1);
+    }
+    return drawCommands;
+  }
+
+  private static DrawCommand text(CharSequence text) {
+    Layout layout = mock(Layout.class);
+    when(layout.getText()).thenReturn(text);
+    return freeze(new DrawTextLayout(layout), 0, 0, SIZE, SIZE);
+  }
+
+  private List<Picture> drawAndCapturePictures(Canvas canvas, int draws) {
+    for (int i = 0; i < draws; i++) {
+      mView.dispatchDraw(canvas);
+    }
+    ArgumentCaptor<Picture> pictures = ArgumentCaptor.forClass(Picture.class);
+    verify(canvas, times(draws)).drawPicture(pictures.capture());
+    return pictures.getAllValues();
+  }
+
+  @Test
+  public void testFindsRunsOfCacheableCommands() {
+    DrawCommand[] drawCommands = new DrawCommand[] {
+        background(0, 0, 10, 10),
+        background(0, 0, 10, 10),
+        background(0, 0, 10, 10),
+        background(0, 0, 10, 10),
+        freeze(new DrawImageWithDrawee(), 0, 0, 10, 10),
+        background(0, 0, 10, 10),
+        background(0, 0, 10, 10),
+        background(0, 0, 10, 10),
+        new DrawView(1),
+        background(0, 0, 10, 10),
+        background(0, 0, 10, 10),
+        background(0, 0, 10, 10),
+        background(0, 0, 10, 10),
+        background(0, 0, 10, 10),
+        background(0, 0, SIZE + 1, 10),
+        background(0, 0, 10, 10),
+        background(0, 0, 10, 10),
+        background(0, 0, 10, 10),
+        background(0, 0, 10, 10),
+    };
+
+    int[] expected = new int[drawCommands.length];
+    expected[0] = 4;
+    // The 3 commands between the image and the DrawView are too few to be worth a Picture.
+    expected[9] = 14;
+    expected[15] = 19;
+    assertArrayEquals(expected, mView.findCacheableRuns(drawCommands));
+  }
+
+  @Test
+  public void testRunsOfMinimumLength() {
+    DrawCommand[] drawCommands = backgrounds(FlatViewGroup.MIN_CACHED_DRAW_COMMANDS, 0);
+    int[] expected = new int[drawCommands.length];
+    expected[0] = drawCommands.length;
+    assertArrayEquals(expected, mView.findCacheableRuns(drawCommands));
+
+    drawCommands = backgrounds(FlatViewGroup.MIN_CACHED_DRAW_COMMANDS - 1, 0);
+    assertArrayEquals(new int[drawCommands.length], mView.findCacheableRuns(drawCommands));
+    assertArrayEquals(new int[0], mView.findCacheableRuns(DrawCommand.EMPTY_ARRAY));
+  }
+
+  @Test
+  public void testImagesAndDrawViewsAreNotCacheable() {
+    assertThat(mView.isCacheable(freeze(new DrawImageWithDrawee(), 0, 0, 10, 10))).isFalse();
+    assertThat(mView.isCacheable(new DrawView(1))).isFalse();
+
+    SpannableString withInlineImage = new SpannableString("text with an image");
+    withInlineImage.setSpan(
+        new InlineImageSpanWithPipeline(),
+        5,
+        6,
+        Spanned.SPAN_EXCLUSIVE_EXCLUSIVE);
+    assertThat(mView.isCacheable(text(withInlineImage))).isFalse();
+
+    assertThat(mView.isCacheable(text("only text"))).isTrue();
+    assertThat(mView.isCacheable(freeze(new DrawBorder(), 0, 0, SIZE, SIZE))).isTrue();
+    assertThat(mView.isCacheable(background(0, 0, SIZE, SIZE))).isTrue();
+  }
+
+  @Test
+  public void testOutOfBoundsCommandsAreNotCacheable() {
+    assertThat(mView.isCacheable(background(-1, 0, 10, 10))).isFalse();
+    assertThat(mView.isCacheable(background(0, -1, 10, 10))).isFalse();
+    assertThat(mView.isCacheable(background(0, 0, SIZE + 1, 10))).isFalse();
+    assertThat(mView.isCacheable(background(0, 0, 10, SIZE + 1))).isFalse();
+    assertThat(mView.isCacheable(freeze(new DrawBorder(), 0, 0, SIZE, SIZE + 1))).isFalse();
+  }
+
+  @Test
+  public void testReplaysPictureUntilCommandsAreMounted() {
+    DrawCommand[] drawCommands = backgrounds(FlatViewGroup.MIN_CACHED_DRAW_COMMANDS, 0);
+    mView.mountDrawCommands(drawCommands, true);
+
+    Canvas canvas = mock(Canvas.class);
+    List<Picture> pictures = drawAndCapturePictures(canvas, 3);
+    assertThat(pictures.get(1)).isSameAs(pictures.get(0));
+    assertThat(pictures.get(2)).isSameAs(pictures.get(0));
+    // The cached commands are only drawn into the Picture.
+    verify(canvas, never()).drawRect(
+        anyFloat(),
+        anyFloat(),
+        anyFloat(),
+        anyFloat(),
+        any(Paint.class));
+
+    // Mounting the same commands again still records them again.
+    mView.mountDrawCommands(drawCommands, true);
+    Canvas remountedCanvas = mock(Canvas.class);
+    Picture remounted = drawAndCapturePictures(remountedCanvas, 1).get(0);
+    assertThat(remounted).isNotSameAs(pictures.get(0));
+  }
+
+  @Test
+  public void testRecordsAgainWhenSizeChanges() {
+    DrawCommand[] drawCommands = new DrawCommand[FlatViewGroup.MIN_CACHED_DRAW_COMMANDS + 1];
+    System.arraycopy(
+        backgrounds(FlatViewGroup.MIN_CACHED_DRAW_COMMANDS, 0),
+        0,
+        drawCommands,
+        0,
+        FlatViewGroup.MIN_CACHED_DRAW_COMMANDS);
+    drawCommands[FlatViewGroup.MIN_CACHED_DRAW_COMMANDS] = background(50, 50, 150, 150);
+    mView.mountDrawCommands(drawCommands, true);
+
+    Canvas canvas = mock(Canvas.class);
+    Picture beforeResize = drawAndCapturePictures(canvas, 1).get(0);
+    // The command that doesn't fit in the view is drawn directly.
+    verify(canvas).drawRect(eq(50f), eq(50f), eq(150f), eq(150f), any(Paint.class));
+
+    mView.layout(0, 0, 2 * SIZE, 2 * SIZE);
+    Canvas resizedCanvas = mock(Canvas.class);
+    Picture afterResize = drawAndCapturePictures(resizedCanvas, 1).get(0);
+    assertThat(afterResize).isNotSameAs(beforeResize);
+    // Now that it fits it is recorded along with the other commands.
+    verify(resizedCanvas, never()).drawRect(
+        eq(50f),
+        eq(50f),
+        eq(150f),
+        eq(150f),
+        any(Paint.class));
+  }
+
+  @Test
+  public void testNothingIsCachedWhenCachingIsDisabled() {
+    DrawCommand[] drawCommands = backgrounds(FlatViewGroup.MIN_CACHED_DRAW_COMMANDS, 0);
+    mView.mountDrawCommands(drawCommands, false);
+
+    Canvas canvas = mock(Canvas.class);
+    mView.dispatchDraw(canvas);
+    mView.dispatchDraw(canvas);
+    verify(canvas, never()).drawPicture(any(Picture.class));
+    for (DrawCommand drawCommand : drawCommands) {
+      verify(canvas, times(2)).drawRect(
+          eq(drawCommand.getLeft()),
+          eq(drawCommand.getTop()),
+          eq(drawCommand.getRight()),
+          eq(drawCommand.getBottom()),
+          any(Paint.class));
+    }
+  }
+}
@@ -0,0 +1,276 @@
+/**
+ * Copyright (c) 2015-present, Facebook, Inc.
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree. An additional grant
+ * of patent rights can be found in the PATENTS file in the same directory.
+ */
+
+package com.facebook.react.flat;
+
+import javax.annotation.Nullable;
+
+import java.util.Random;
+
+import android.graphics.Rect;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.powermock.core.classloader.annotations.PowerMockIgnore;
+import org.powermock.modules.junit4.rule.PowerMockRule;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+/**
+ * Tests that {@link NodeRegionIndex} finds the same node region as scanning the regions from the
+ * end, which is what FlatViewGroup does when it has few regions.
+ */
+@RunWith(RobolectricTestRunner.class)
+@PowerMockIgnore({"org.mockito.*", "org.robolectric.*", "android.*"})
+public class NodeRegionIndexTest {
+
+  private static final int SIZE = 1000;
+
+  @Rule
+  public PowerMockRule rule = new PowerMockRule();
+
+  private static @Nullable NodeRegion findLinearly(
+      NodeRegion[] nodeRegions,
+      float touchX,
+      float touchY,
+      boolean virtualOnly) {
+    for (int i = nodeRegions.length - 1; i >= 0; --i) {
+      NodeRegion nodeRegion = nodeRegions[i];
+      if (virtualOnly && !nodeRegion.mIsVirtual) {
+        continue;
+      }
+      if (nodeRegion.withinBounds(touchX, touchY)) {
+        return nodeRegion;
+      }
+    }
+    return null;
+  }
+
+  private static void assertMatchesLinearScan(NodeRegion[] nodeRegions) {
+    NodeRegionIndex index = new NodeRegionIndex(nodeRegions);
+    for (float touchY = -20; touchY <= SIZE + 20; touchY += 6.5f) {
+      for (float touchX = -20; touchX <= SIZE + 20; touchX += 6.5f) {
+        assertThat(index.findNodeRegion(touchX, touchY, false))
+            .isSameAs(findLinearly(nodeRegions, touchX, touchY, false));
+        assertThat(index.findNodeRegion(touchX, touchY, true))
+            .isSameAs(findLinearly(nodeRegions, touchX, touchY, true));
+      }
+    }
+    // The edges of the regions, where off-by-one errors in the cell lookup would show.
+    for (NodeRegion nodeRegion : nodeRegions) {
+      float[] xs = {nodeRegion.getTouchableLeft(), nodeRegion.getTouchableRight()};
+      float[] ys = {nodeRegion.getTouchableTop(), nodeRegion.getTouchableBottom()};
+      for (float touchX : xs) {
+        for (float touchY : ys) {
+          assertThat(index.findNodeRegion(touchX, touchY, false))
+              .isSameAs(findLinearly(nodeRegions, touchX, touchY, false));
+          assertThat(index.findNodeRegion(touchX, touchY, true))
+              .isSameAs(findLinearly(nodeRegions, touchX, touchY, true));
+        }
+      }
+    }
+  }
+
+  private static NodeRegion[] createRegions(int count, long seed) {
+    Random random = new Random(seed);
+    NodeRegion[] nodeRegions = new NodeRegion[count];
+    for (int i = 0; i < count; i++) {
+      int tag = i + 1;
+      boolean isVirtual = random.nextBoolean();
+      float left = random.nextInt(SIZE);
+      float top = random.nextInt(SIZE);
+      switch (i % 10) {
+        case 0:
+          // Spans many cells, like the background of a row or a container.
+          nodeRegions[i] = new NodeRegion(
+              left / 2,
+              top / 2,
+              left / 2 + 300 + random.nextInt(SIZE / 2),
+              top / 2 + 300 + random.nextInt(SIZE / 2),
+              tag,
+              isVirtual);
+          break;
+        case 1:
+          nodeRegions[i] = new HitSlopNodeRegion(
+              new Rect(5, 10, 15, 20),
+              left,
+              top,
+              left + 10 + random.nextInt(20),
+              top + 10 + random.nextInt(20),
+              tag,
+              isVirtual);
+          break;
+        case 2:
+          // Bounds that can't be put into cells.
+          switch (i % 3) {
+            case 0:
+              nodeRegions[i] = new NodeRegion(
+                  Float.NEGATIVE_INFINITY,
+                  top,
+                  Float.POSITIVE_INFINITY,
+                  top + 5,
+                  tag,
+                  isVirtual);
+              break;
+            case 1:
+              nodeRegions[i] = new NodeRegion(left, Float.NaN, left + 20, top, tag, isVirtual);
+              break;
+            default:
+              nodeRegions[i] = new NodeRegion(
+                  left,
+                  Float.NEGATIVE_INFINITY,
+                  left + 5,
+                  top,
+                  tag,
+                  isVirtual);
+              break;
+          }
+          break;
+        default:
+          nodeRegions[i] = new NodeRegion(
+              left,
+              top,
+              left + 5 + random.nextInt(40),
+              top + 5 + random.nextInt(40),
+              tag,
+              isVirtual);
+          break;
+      }
+    }
+    return nodeRegions;
+  }
+
+  @Test
+  public void testMatchesLinearScan() {
+    assertMatchesLinearScan(createRegions(NodeRegionIndex.MIN_INDEXED_REGIONS, 1));
+    assertMatchesLinearScan(createRegions(500, 2));
+    assertMatchesLinearScan(createRegions(2000, 3));
+  }
+
+  @Test
+  public void testFindsTopmostRegionFirst() {
+    NodeRegion[] nodeRegions = new NodeRegion[NodeRegionIndex.MIN_INDEXED_REGIONS];
+    for (int i = 0; i < nodeRegions.length; i++) {
+      // Stacked regions of decreasing size, all containing (10, 10).
+      float size = 20 + (nodeRegions.length - i) * 10;
+      nodeRegions[i] = new NodeRegion(0, 0, size, size, i + 1, i % 2 == 0);
+    }
+    NodeRegionIndex index = new NodeRegionIndex(nodeRegions);
+
+    assertThat(index.findNodeRegion(10, 10, false)).isSameAs(nodeRegions[nodeRegions.length - 1]);
+    assertThat(index.findNodeRegion(10, 10, true)).isSameAs(nodeRegions[nodeRegions.length - 2]);
+    // Only the bottom region covers its far corner.
+    float corner = nodeRegions[0].getRight() - 1;
+    assertThat(index.findNodeRegion(corner, corner, false)).isSameAs(nodeRegions[0]);
+    assertThat(index.findNodeRegion(corner, corner, true)).isSameAs(nodeRegions[0]);
+  }
+
+  @Test
+  public void testLargeRegionsAreMergedInOrder() {
+    // A 16x16 grid of small regions, with a large region below and one above them.
+    int columns = 16;
+    NodeRegion[] nodeRegions = new NodeRegion[columns * columns + 2];
+    nodeRegions[0] = new NodeRegion(0, 0, SIZE, SIZE, 1, false);
+    for (int i = 1; i < nodeRegions.length - 1; i++) {
+      float left = ((i - 1) % columns) * 60;
+      float top = ((i - 1) / columns) * 60;
+      nodeRegions[i] = new NodeRegion(left, top, left + 50, top + 50, i + 1, false);
+    }
+    NodeRegion cover = new NodeRegion(0, 0, SIZE / 2, SIZE, nodeRegions.length, true);
+    nodeRegions[nodeRegions.length - 1] = cover;
+    NodeRegionIndex index = new NodeRegionIndex(nodeRegions);
+
+    assertThat(index.findNodeRegion(10, 10, false)).isSameAs(cover);
+    assertThat(index.findNodeRegion(610, 10, false)).isSameAs(nodeRegions[11]);
+    // Between two small regions only the one below them is hit.
+    assertThat(index.findNodeRegion(655, 10, false)).isSameAs(nodeRegions[0]);
+    assertThat(index.findNodeRegion(655, 10, true)).isNull();
+    assertMatchesLinearScan(nodeRegions);
+  }
+
+  @Test
+  public void testHitSlopExtendsIndexedBounds() {
+    NodeRegion[] nodeRegions = createRegions(NodeRegionIndex.MIN_INDEXED_REGIONS, 4);
+    // The hit slop reaches beyond the bounds of every other region.
+    NodeRegion slop = new HitSlopNodeRegion(
+        new Rect(100, 100, 100, 100),
+        2 * SIZE,
+        2 * SIZE,
+        2 * SIZE + 10,
+        2 * SIZE + 10,
+        -1,
+        true);
+    nodeRegions[nodeRegions.length - 1] = slop;
+    NodeRegionIndex index = new NodeRegionIndex(nodeRegions);
+
+    assertThat(index.findNodeRegion(2 * SIZE + 100, 2 * SIZE + 100, true)).isSameAs(slop);
+    assertThat(index.findNodeRegion(2 * SIZE - 50, 2 * SIZE - 50, false)).isSameAs(slop);
+    assertThat(index.findNodeRegion(2 * SIZE + 111, 2 * SIZE + 111, false)).isNull();
+    assertMatchesLinearScan(nodeRegions);
+  }
+
+  @Test
+  public void testOnlyNonFiniteRegions() {
+    NodeRegion[] nodeRegions = new NodeRegion[NodeRegionIndex.MIN_INDEXED_REGIONS];
+    for (int i = 0; i < nodeRegions.length; i++) {
+      nodeRegions[i] = new NodeRegion(
+          Float.NEGATIVE_INFINITY,
+          i * 10,
+          Float.POSITIVE_INFINITY,
+          i * 10 + 10,
+          i + 1,
+          true);
+    }
+    NodeRegionIndex index = new NodeRegionIndex(nodeRegions);
+
+    assertThat(index.findNodeRegion(-1e9f, 25, true)).isSameAs(nodeRegions[2]);
+    assertThat(index.findNodeRegion(1e9f, 635, false)).isSameAs(nodeRegions[63]);
+    assertThat(index.findNodeRegion(0, 640, false)).isNull();
+  }
+
+  @Test
+  public void testClippingFlatViewGroupMatchesDrawCommandManager() {
+    // A vertical list: every row has a native background and a virtual text region.
+    int rows = 100;
+    NodeRegion[] nodeRegions = new NodeRegion[rows * 2];
+    for (int row = 0; row < rows; row++) {
+      float top = row * 20;
+      nodeRegions[row * 2] = new NodeRegion(0, top, 300, top + 20, row * 2 + 1, false);
+      nodeRegions[row * 2 + 1] =
+          new NodeRegion(10, top + 5, 100 + row, top + 15, row * 2 + 2, true);
+    }
+    float[] maxBottom = new float[nodeRegions.length];
+    float[] minTop = new float[nodeRegions.length];
+    VerticalDrawCommandManager.fillMaxMinArrays(nodeRegions, maxBottom, minTop);
+
+    FlatViewGroup view = new FlatViewGroup(RuntimeEnvironment.application);
+    view.setId(-1);
+    view.setRemoveClippedSubviews(true);
+    view.mountClippingNodeRegions(nodeRegions, maxBottom, minTop);
+
+    DrawCommandManager manager = DrawCommandManager.getVerticalClippingInstance(
+        new FlatViewGroup(RuntimeEnvironment.application),
+        DrawCommand.EMPTY_ARRAY);
+    manager.mountNodeRegions(nodeRegions, maxBottom, minTop);
+
+    for (float touchY = -5; touchY < rows * 20 + 5; touchY += 2.5f) {
+      for (float touchX = -5; touchX < 320; touchX += 7.5f) {
+        NodeRegion virtualRegion = manager.virtualNodeRegionWithinBounds(touchX, touchY);
+        assertThat(view.reactTagForTouch(touchX, touchY))
+            .isEqualTo(virtualRegion == null ? -1 : virtualRegion.mTag);
+        NodeRegion anyRegion = manager.anyNodeRegionWithinBounds(touchX, touchY);
+        assertThat(view.interceptsTouchEvent(touchX, touchY))
+            .isEqualTo(anyRegion != null && anyRegion.mIsVirtual);
+      }
+    }
+  }
+}
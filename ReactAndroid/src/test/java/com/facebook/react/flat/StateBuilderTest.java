@@ -0,0 +1,129 @@
+/**
+ * Copyright (c) 2015-present, Facebook, Inc.
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree. An additional grant
+ * of patent rights can be found in the PATENTS file in the same directory.
+ */
+
+package com.facebook.react.flat;
+
+import android.graphics.Color;
+
+import com.facebook.react.uimanager.Spacing;
+import com.facebook.yoga.YogaPositionType;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.powermock.api.mockito.PowerMockito;
+import org.powermock.core.classloader.annotations.PowerMockIgnore;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.rule.PowerMockRule;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+import static org.junit.Assert.assertArrayEquals;
+
+/**
+ * Tests the order in which {@link StateBuilder} collects the children of a node, which decides
+ * both the order their draw commands are drawn in and the order their node regions are hit in.
+ */
+@RunWith(RobolectricTestRunner.class)
+@PrepareForTest({FlatUIViewOperationQueue.class})
+@PowerMockIgnore({"org.mockito.*", "org.robolectric.*", "android.*"})
+public class StateBuilderTest {
+
+  @Rule
+  public PowerMockRule rule = new PowerMockRule();
+
+  @Test
+  public void testDrawingOrderKeepsChildOrderWithoutZIndex() {
+    assertArrayEquals(new int[] {0, 1, 2}, StateBuilder.getDrawingOrder(new int[] {0, 0, 0}));
+  }
+
+  @Test
+  public void testDrawingOrderSortsByZIndex() {
+    assertArrayEquals(
+        new int[] {1, 2, 3, 0},
+        StateBuilder.getDrawingOrder(new int[] {2, -1, 0, 1}));
+  }
+
+  @Test
+  public void testDrawingOrderIsStableForEqualZIndex() {
+    assertArrayEquals(
+        new int[] {1, 3, 0, 2, 4},
+        StateBuilder.getDrawingOrder(new int[] {1, 0, 1, 0, 1}));
+    assertArrayEquals(new int[] {0, 1, 2}, StateBuilder.getDrawingOrder(new int[] {-3, -3, -3}));
+  }
+
+  private static FlatShadowNode createNode(
+      int reactTag,
+      float left,
+      float top,
+      float width,
+      float height) {
+    FlatShadowNode node = new FlatShadowNode();
+    node.setReactTag(reactTag);
+    // Nodes only collect a node region when they draw something.
+    node.setBackgroundColor(Color.RED);
+    node.setPositionType(YogaPositionType.ABSOLUTE);
+    node.setPosition(Spacing.LEFT, left);
+    node.setPosition(Spacing.TOP, top);
+    node.setStyleWidth(width);
+    node.setStyleHeight(height);
+    return node;
+  }
+
+  private static NodeRegion[] collectNodeRegions(FlatShadowNode root) {
+    root.calculateLayout();
+    new StateBuilder(PowerMockito.mock(FlatUIViewOperationQueue.class)).applyUpdates(root);
+    return root.getNodeRegions();
+  }
+
+  private static int[] getTags(NodeRegion[] nodeRegions) {
+    int[] tags = new int[nodeRegions.length];
+    for (int i = 0; i != nodeRegions.length; ++i) {
+      tags[i] = nodeRegions[i].mTag;
+    }
+    return tags;
+  }
+
+  @Test
+  public void testHigherZIndexNodeRegionIsHitFirst() {
+    FlatShadowNode root = new FlatShadowNode();
+    root.setReactTag(1);
+    root.forceMountToView();
+    root.setStyleWidth(200);
+    root.setStyleHeight(200);
+
+    // Three overlapping children, the first one has the highest zIndex.
+    FlatShadowNode first = createNode(2, 0, 0, 100, 100);
+    root.addChildAt(first, 0);
+    root.addChildAt(createNode(3, 0, 0, 100, 100), 1);
+    root.addChildAt(createNode(4, 50, 50, 100, 100), 2);
+    first.setZIndex(1);
+
+    NodeRegion[] nodeRegions = collectNodeRegions(root);
+    assertArrayEquals(new int[] {3, 4, 2}, getTags(nodeRegions));
+
+    FlatViewGroup view = new FlatViewGroup(RuntimeEnvironment.application);
+    view.mountNodeRegions(nodeRegions);
+    // The first child is on top of its later siblings.
+    assertThat(view.reactTagForTouch(25, 25)).isEqualTo(2);
+    assertThat(view.reactTagForTouch(75, 75)).isEqualTo(2);
+    assertThat(view.reactTagForTouch(125, 125)).isEqualTo(4);
+
+    // Resetting the zIndex makes the parent collect its children in their own order again, so
+    // the later sibling is on top.
+    first.setZIndex(0);
+    nodeRegions = collectNodeRegions(root);
+    assertArrayEquals(new int[] {2, 3, 4}, getTags(nodeRegions));
+
+    view.mountNodeRegions(nodeRegions);
+    assertThat(view.reactTagForTouch(25, 25)).isEqualTo(3);
+    assertThat(view.reactTagForTouch(75, 75)).isEqualTo(4);
+  }
+}
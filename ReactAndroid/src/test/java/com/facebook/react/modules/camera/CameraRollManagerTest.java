@@ -0,0 +1,191 @@
+/**
+ * Copyright (c) 2015-present, Facebook, Inc.
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree. An additional grant
+ * of patent rights can be found in the PATENTS file in the same directory.
+ */
+
+package com.facebook.react.modules.camera;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import android.content.ContentResolver;
+import android.database.MatrixCursor;
+import android.provider.MediaStore.Images;
+
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.JavaOnlyArray;
+import com.facebook.react.bridge.JavaOnlyMap;
+import com.facebook.react.bridge.ReadableArray;
+import com.facebook.react.bridge.ReadableMap;
+import com.facebook.react.bridge.WritableMap;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.powermock.api.mockito.PowerMockito;
+import org.powermock.core.classloader.annotations.PowerMockIgnore;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.rule.PowerMockRule;
+import org.robolectric.RobolectricTestRunner;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for the photo enumeration of {@link CameraRollManager}.
+ */
+@PrepareForTest({Arguments.class})
+@RunWith(RobolectricTestRunner.class)
+@PowerMockIgnore({"org.mockito.*", "org.robolectric.*", "android.*"})
+public class CameraRollManagerTest {
+
+  private static final int PHOTO_COUNT = 50000;
+
+  @Rule
+  public PowerMockRule rule = new PowerMockRule();
+
+  private final List<ReadableMap> mPages = new ArrayList<>();
+  private final CameraRollManager.PageListener mPageListener =
+      new CameraRollManager.PageListener() {
+        @Override
+        public void onPage(WritableMap page) {
+          mPages.add(page);
+        }
+      };
+
+  @Before
+  public void setUp() {
+    PowerMockito.mockStatic(Arguments.class);
+    when(Arguments.createArray()).thenAnswer(new Answer<Object>() {
+      @Override
+      public Object answer(InvocationOnMock invocation) throws Throwable {
+        return new JavaOnlyArray();
+      }
+    });
+    when(Arguments.createMap()).thenAnswer(new Answer<Object>() {
+      @Override
+      public Object answer(InvocationOnMock invocation) throws Throwable {
+        return new JavaOnlyMap();
+      }
+    });
+  }
+
+  /**
+   * Stands in for the MediaStore, newest photos first like the real query.
+   */
+  private static MatrixCursor createPhotosCursor(int count) {
+    MatrixCursor cursor = new MatrixCursor(new String[] {
+        Images.Media._ID,
+        Images.Media.MIME_TYPE,
+        Images.Media.BUCKET_DISPLAY_NAME,
+        Images.Media.DATE_TAKEN,
+        Images.Media.WIDTH,
+        Images.Media.HEIGHT,
+        Images.Media.LONGITUDE,
+        Images.Media.LATITUDE,
+    });
+    for (int i = 0; i < count; i++) {
+      cursor.addRow(new Object[] {
+          (long) i,
+          "image/jpeg",
+          "Camera",
+          1000000L * (count - i),
+          640,
+          480,
+          0.0,
+          0.0,
+      });
+    }
+    return cursor;
+  }
+
+  @Test
+  public void testEnumeratesAllPhotosInPages() {
+    List<Runnable> thumbnailTasks = new ArrayList<>();
+    int count = CameraRollManager.enumeratePhotos(
+        mock(ContentResolver.class),
+        createPhotosCursor(PHOTO_COUNT),
+        3000,
+        mPageListener,
+        recordingExecutor(thumbnailTasks),
+        new AtomicBoolean());
+
+    assertThat(count).isEqualTo(PHOTO_COUNT);
+    assertThat(thumbnailTasks.size()).isEqualTo(PHOTO_COUNT);
+    // 16 full pages and one with the remaining 2000 photos.
+    assertThat(mPages.size()).isEqualTo(17);
+    int seen = 0;
+    for (int i = 0; i < mPages.size(); i++) {
+      ReadableMap page = mPages.get(i);
+      ReadableArray edges = page.getArray("edges");
+      ReadableMap pageInfo = page.getMap("page_info");
+      boolean isLastPage = i == mPages.size() - 1;
+      assertThat(edges.size()).isEqualTo(isLastPage ? 2000 : 3000);
+      assertThat(pageInfo.getBoolean("has_next_page")).isEqualTo(!isLastPage);
+
+      ReadableMap firstNode = edges.getMap(0).getMap("node");
+      assertThat(firstNode.getMap("image").getString("uri"))
+          .isEqualTo(Images.Media.EXTERNAL_CONTENT_URI + "/" + seen);
+      seen += edges.size();
+      // The end cursor is the date taken of the last photo of the page, like for getPhotos.
+      assertThat(pageInfo.getString("end_cursor"))
+          .isEqualTo(String.valueOf(1000000L * (PHOTO_COUNT - seen + 1)));
+    }
+  }
+
+  @Test
+  public void testStopsWhenCancelled() {
+    final AtomicBoolean cancelled = new AtomicBoolean();
+    int count = CameraRollManager.enumeratePhotos(
+        mock(ContentResolver.class),
+        createPhotosCursor(PHOTO_COUNT),
+        1000,
+        new CameraRollManager.PageListener() {
+          @Override
+          public void onPage(WritableMap page) {
+            mPages.add(page);
+            if (mPages.size() == 3) {
+              cancelled.set(true);
+            }
+          }
+        },
+        null,
+        cancelled);
+
+    assertThat(count).isEqualTo(3000);
+    assertThat(mPages.size()).isEqualTo(3);
+  }
+
+  @Test
+  public void testEmptyCursorSendsNoPages() {
+    int count = CameraRollManager.enumeratePhotos(
+        mock(ContentResolver.class),
+        createPhotosCursor(0),
+        100,
+        mPageListener,
+        null,
+        new AtomicBoolean());
+
+    assertThat(count).isEqualTo(0);
+    assertThat(mPages).isEmpty();
+  }
+
+  private static Executor recordingExecutor(final List<Runnable> tasks) {
+    return new Executor() {
+      @Override
+      public void execute(Runnable command) {
+        tasks.add(command);
+      }
+    };
+  }
+}
@@ -0,0 +1,75 @@
+/**
+ * Copyright (c) 2015-present, Facebook, Inc.
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree. An additional grant
+ * of patent rights can be found in the PATENTS file in the same directory.
+ */
+
+package com.facebook.react.modules.camera;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Random;
+
+import android.util.Base64;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.powermock.core.classloader.annotations.PowerMockIgnore;
+import org.powermock.modules.junit4.rule.PowerMockRule;
+import org.robolectric.RobolectricTestRunner;
+
+import static org.junit.Assert.assertEquals;
+
+@RunWith(RobolectricTestRunner.class)
+@PowerMockIgnore({"org.mockito.*", "org.robolectric.*", "android.*"})
+public class ImageStoreManagerTest {
+
+  @Rule
+  public PowerMockRule rule = new PowerMockRule();
+
+  @Test
+  public void testEncodeBase64MatchesBase64Default() throws IOException {
+    Random random = new Random(42);
+    int[] lengths = {0, 1, 2, 3, 56, 57, 58, 8207, 8208, 8209, 100000};
+    for (int length : lengths) {
+      byte[] data = new byte[length];
+      random.nextBytes(data);
+      String expected = Base64.encodeToString(data, Base64.DEFAULT);
+
+      assertEquals(
+          expected,
+          ImageStoreManager.encodeBase64(new ByteArrayInputStream(data), length));
+      // Without a known length the output buffer has to grow.
+      assertEquals(
+          expected,
+          ImageStoreManager.encodeBase64(new ByteArrayInputStream(data), -1));
+      // A wrong length only makes the output buffer the wrong size.
+      assertEquals(
+          expected,
+          ImageStoreManager.encodeBase64(new ByteArrayInputStream(data), length / 2));
+    }
+  }
+
+  @Test
+  public void testEncodeBase64LargeInputInShortReads() throws IOException {
+    // Streams from content providers often return fewer bytes than requested.
+    byte[] data = new byte[30 * 1024 * 1024];
+    new Random(42).nextBytes(data);
+    InputStream shortReads = new FilterInputStream(new ByteArrayInputStream(data)) {
+      @Override
+      public int read(byte[] buffer, int offset, int count) throws IOException {
+        return super.read(buffer, offset, Math.min(count, 1000));
+      }
+    };
+
+    assertEquals(
+        Base64.encodeToString(data, Base64.DEFAULT),
+        ImageStoreManager.encodeBase64(shortReads, data.length));
+  }
+}
@@ -0,0 +1,187 @@
+/**
+ * Copyright (c) 2015-present, Facebook, Inc.
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree. An additional grant
+ * of patent rights can be found in the PATENTS file in the same directory.
+ */
+
+package com.facebook.react.modules.image;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.facebook.datasource.AbstractDataSource;
+import com.facebook.datasource.DataSource;
+import com.facebook.drawee.backends.pipeline.Fresco;
+import com.facebook.imagepipeline.core.ImagePipeline;
+import com.facebook.imagepipeline.request.ImageRequest;
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.JavaOnlyArray;
+import com.facebook.react.bridge.JavaOnlyMap;
+import com.facebook.react.bridge.Promise;
+import com.facebook.react.bridge.ReactTestHelper;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.powermock.api.mockito.PowerMockito;
+import org.powermock.core.classloader.annotations.PowerMockIgnore;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.rule.PowerMockRule;
+import org.robolectric.RobolectricTestRunner;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests that the promise of {@link ImageLoaderModule#prefetchImages} settles exactly once, whether
+ * the prefetches finish or are aborted.
+ */
+@PrepareForTest({Arguments.class, Fresco.class})
+@RunWith(RobolectricTestRunner.class)
+@PowerMockIgnore({"org.mockito.*", "org.robolectric.*", "android.*"})
+public class ImageLoaderModuleTest {
+
+  private static final int REQUEST_ID = 42;
+
+  @Rule
+  public PowerMockRule rule = new PowerMockRule();
+
+  private final List<FakePrefetchSource> mPrefetchSources = new ArrayList<>();
+  private ImageLoaderModule mImageLoaderModule;
+
+  /**
+   * A prefetch that finishes or fails when the test says so.
+   */
+  private static class FakePrefetchSource extends AbstractDataSource<Void> {
+
+    void succeed() {
+      setResult(null, true);
+    }
+
+    void fail() {
+      setFailure(new RuntimeException("prefetch failed"));
+    }
+  }
+
+  @Before
+  public void setUp() {
+    PowerMockito.mockStatic(Arguments.class, Fresco.class);
+    when(Arguments.createMap()).thenAnswer(new Answer<Object>() {
+      @Override
+      public Object answer(InvocationOnMock invocation) throws Throwable {
+        return new JavaOnlyMap();
+      }
+    });
+
+    Answer<DataSource<Void>> prefetch = new Answer<DataSource<Void>>() {
+      @Override
+      public DataSource<Void> answer(InvocationOnMock invocation) throws Throwable {
+        FakePrefetchSource prefetchSource = new FakePrefetchSource();
+        mPrefetchSources.add(prefetchSource);
+        return prefetchSource;
+      }
+    };
+    ImagePipeline imagePipeline = mock(ImagePipeline.class);
+    when(imagePipeline.prefetchToDiskCache(any(ImageRequest.class), any())).thenAnswer(prefetch);
+    when(imagePipeline.prefetchToBitmapCache(any(ImageRequest.class), any())).thenAnswer(prefetch);
+    when(Fresco.getImagePipeline()).thenReturn(imagePipeline);
+
+    mImageLoaderModule = new ImageLoaderModule(ReactTestHelper.createCatalystContextForTest());
+  }
+
+  private static JavaOnlyMap getResolvedResult(Promise promise) {
+    ArgumentCaptor<Object> result = ArgumentCaptor.forClass(Object.class);
+    verify(promise).resolve(result.capture());
+    verify(promise, never()).reject(any(String.class), any(Throwable.class));
+    return (JavaOnlyMap) result.getValue();
+  }
+
+  @Test
+  public void testResolvesOnceAllPrefetchesAreDone() {
+    Promise promise = mock(Promise.class);
+    mImageLoaderModule.prefetchImages(
+        JavaOnlyArray.of("https://a.png", "", "https://b.png"),
+        REQUEST_ID,
+        new JavaOnlyMap(),
+        promise);
+    assertThat(mPrefetchSources).hasSize(2);
+
+    mPrefetchSources.get(0).succeed();
+    verify(promise, never()).resolve(any());
+
+    mPrefetchSources.get(1).fail();
+    assertThat(getResolvedResult(promise)).isEqualTo(
+        JavaOnlyMap.of(
+            "https://a.png", "success",
+            "", "invalid",
+            "https://b.png", "failure"));
+    assertThat(mPrefetchSources.get(0).isClosed()).isTrue();
+    assertThat(mPrefetchSources.get(1).isClosed()).isTrue();
+
+    // Aborting a batch that is already done doesn't settle its promise again.
+    mImageLoaderModule.abortRequest(REQUEST_ID);
+    verify(promise).resolve(any());
+  }
+
+  @Test
+  public void testAbortResolvesRemainingPrefetches() {
+    Promise promise = mock(Promise.class);
+    JavaOnlyMap options = new JavaOnlyMap();
+    options.putBoolean("memory", true);
+    mImageLoaderModule.prefetchImages(
+        JavaOnlyArray.of("https://a.png", "https://b.png", "https://c.png"),
+        REQUEST_ID,
+        options,
+        promise);
+    assertThat(mPrefetchSources).hasSize(3);
+
+    mPrefetchSources.get(0).succeed();
+    mImageLoaderModule.abortRequest(REQUEST_ID);
+
+    assertThat(getResolvedResult(promise)).isEqualTo(
+        JavaOnlyMap.of(
+            "https://a.png", "success",
+            "https://b.png", "aborted",
+            "https://c.png", "aborted"));
+    for (FakePrefetchSource prefetchSource : mPrefetchSources) {
+      assertThat(prefetchSource.isClosed()).isTrue();
+    }
+
+    // Prefetches that finish after the abort are ignored.
+    mPrefetchSources.get(1).succeed();
+    verify(promise).resolve(any());
+  }
+
+  @Test
+  public void testHostDestroyResolvesAllBatches() {
+    Promise first = mock(Promise.class);
+    Promise second = mock(Promise.class);
+    mImageLoaderModule.prefetchImages(
+        JavaOnlyArray.of("https://a.png", "https://b.png"),
+        REQUEST_ID,
+        new JavaOnlyMap(),
+        first);
+    mImageLoaderModule.prefetchImages(
+        JavaOnlyArray.of("https://c.png"),
+        REQUEST_ID + 1,
+        new JavaOnlyMap(),
+        second);
+
+    mImageLoaderModule.onHostDestroy();
+
+    assertThat(getResolvedResult(first)).isEqualTo(
+        JavaOnlyMap.of("https://a.png", "aborted", "https://b.png", "aborted"));
+    assertThat(getResolvedResult(second)).isEqualTo(JavaOnlyMap.of("https://c.png", "aborted"));
+  }
+}
@@ -20,10 +20,13 @@ import com.facebook.react.modules.core.JSTimersExecution;
 import com.facebook.react.modules.core.ReactChoreographer;
 import com.facebook.react.modules.core.Timing;
 
+import java.util.Map;
+
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.invocation.InvocationOnMock;
 import org.mockito.stubbing.Answer;
 import org.powermock.api.mockito.PowerMockito;
@@ -32,6 +35,7 @@ import org.powermock.core.classloader.annotations.PowerMockIgnore;
 import org.powermock.modules.junit4.rule.PowerMockRule;
 import org.robolectric.RobolectricTestRunner;
 
+import static org.fest.assertions.api.Assertions.assertThat;
 import static org.mockito.Mockito.*;
 
 /**
@@ -47,6 +51,7 @@ public class TimingModuleTest {
   private static final long FRAME_TIME_NS = 17 * 1000 * 1000; // 17 ms
 
   private Timing mTiming;
+  private ReactApplicationContext mReactContext;
   private ReactChoreographer mReactChoreographerMock;
   private PostFrameCallbackHandler mPostFrameCallbackHandler;
   private PostFrameIdleCallbackHandler mIdlePostFrameCallbackHandler;
@@ -79,6 +84,7 @@ public class TimingModuleTest {
     CatalystInstance reactInstance = mock(CatalystInstance.class);
     ReactApplicationContext reactContext = mock(ReactApplicationContext.class);
     when(reactContext.getCatalystInstance()).thenReturn(reactInstance);
+    mReactContext = reactContext;
 
     mCurrentTimeNs = 0;
     mPostFrameCallbackHandler = new PostFrameCallbackHandler();
@@ -112,10 +118,14 @@ public class TimingModuleTest {
   }
 
   private void stepChoreographerFrame() {
+    stepChoreographerFrame(FRAME_TIME_NS);
+  }
+
+  private void stepChoreographerFrame(long frameTimeNs) {
     ChoreographerCompat.FrameCallback callback = mPostFrameCallbackHandler.getAndResetFrameCallback();
     ChoreographerCompat.FrameCallback idleCallback = mIdlePostFrameCallbackHandler.getAndResetFrameCallback();
 
-    mCurrentTimeNs += FRAME_TIME_NS;
+    mCurrentTimeNs += frameTimeNs;
     when(SystemClock.uptimeMillis()).thenReturn(mCurrentTimeNs / 1000000);
     if (callback != null) {
       callback.doFrame(mCurrentTimeNs);
@@ -250,7 +260,215 @@ public class TimingModuleTest {
     mTiming.setSendIdleEvents(true);
 
     stepChoreographerFrame();
-    verify(mJSTimersMock).callIdleCallbacks(SystemClock.currentTimeMillis());
+    verify(mJSTimersMock).callIdleCallbacks(
+        eq((double) SystemClock.currentTimeMillis()),
+        eq(SystemClock.currentTimeMillis() + 1000000000L / 60 / 1000000.0));
+  }
+
+  @Test
+  public void testIdleCallbackDeadlineFollowsFrameRate() {
+    mTiming.onHostResume();
+    mTiming.setSendIdleEvents(true);
+
+    long frameTimeNs = 8 * 1000 * 1000; // 120 Hz
+    stepChoreographerFrame(frameTimeNs);
+    stepChoreographerFrame(frameTimeNs);
+    reset(mJSTimersMock);
+    stepChoreographerFrame(frameTimeNs);
+
+    ArgumentCaptor<Double> frameTimeCaptor = ArgumentCaptor.forClass(Double.class);
+    ArgumentCaptor<Double> deadlineCaptor = ArgumentCaptor.forClass(Double.class);
+    verify(mJSTimersMock).callIdleCallbacks(frameTimeCaptor.capture(), deadlineCaptor.capture());
+    assertThat(deadlineCaptor.getValue() - frameTimeCaptor.getValue()).isEqualTo(8.0);
+
+    Map<String, Double> counters = mTiming.getPerformanceCounters();
+    assertThat(counters.get("IdleFrameDuration")).isEqualTo(8.0);
+    assertThat(counters.get("IdleFramesDispatched")).isEqualTo(3.0);
+    assertThat(counters.get("IdleFramesSkipped")).isEqualTo(0.0);
+  }
+
+  @Test
+  public void testIdleCallbackSkippedWhenFrameIsOver() {
+    mTiming.onHostResume();
+    mTiming.setSendIdleEvents(true);
+
+    // The JS thread only gets to the idle callbacks 16ms into a 17ms frame.
+    doAnswer(new Answer() {
+      @Override
+      public Object answer(InvocationOnMock invocation) throws Throwable {
+        when(SystemClock.uptimeMillis()).thenReturn(mCurrentTimeNs / 1000000 + 16);
+        ((Runnable) invocation.getArguments()[0]).run();
+        return null;
+      }
+    }).when(mReactContext).runOnJSQueueThread(any(Runnable.class));
+
+    stepChoreographerFrame();
+    verify(mJSTimersMock, never()).callIdleCallbacks(anyDouble(), anyDouble());
+    assertThat(mTiming.getPerformanceCounters().get("IdleFramesSkipped")).isEqualTo(1.0);
+  }
+
+  private void useTimerWheel() {
+    mTiming = new Timing(mReactContext, mock(DevSupportManager.class), true, false);
+    mTiming.initialize();
+  }
+
+  @Test
+  public void testTimerWheelSimpleTimer() {
+    useTimerWheel();
+    mTiming.onHostResume();
+    mTiming.createTimer(1, 1, 0, false);
+    stepChoreographerFrame();
+    verify(mJSTimersMock).callTimers(JavaOnlyArray.of(1));
+    reset(mJSTimersMock);
+    stepChoreographerFrame();
+    verifyNoMoreInteractions(mJSTimersMock);
+  }
+
+  @Test
+  public void testTimerWheelRecurringTimer() {
+    useTimerWheel();
+    mTiming.createTimer(100, 1, 0, true);
+    mTiming.onHostResume();
+    stepChoreographerFrame();
+    verify(mJSTimersMock).callTimers(JavaOnlyArray.of(100));
+
+    reset(mJSTimersMock);
+    stepChoreographerFrame();
+    verify(mJSTimersMock).callTimers(JavaOnlyArray.of(100));
+
+    reset(mJSTimersMock);
+    mTiming.deleteTimer(100);
+    stepChoreographerFrame();
+    verifyNoMoreInteractions(mJSTimersMock);
+  }
+
+  @Test
+  public void testTimerWheelFiresTimersInOrder() {
+    useTimerWheel();
+    mTiming.onHostResume();
+    mTiming.createTimer(3, 30, 0, false);
+    mTiming.createTimer(1, 10, 0, false);
+    mTiming.createTimer(2, 20, 0, false);
+    stepChoreographerFrame();
+    verify(mJSTimersMock).callTimers(JavaOnlyArray.of(1));
+    reset(mJSTimersMock);
+    stepChoreographerFrame();
+    verify(mJSTimersMock).callTimers(JavaOnlyArray.of(2, 3));
+  }
+
+  @Test
+  public void testTimerWheelWithManyTimers() {
+    useTimerWheel();
+    mTiming.onHostResume();
+    int timerCount = 10000;
+    for (int i = 0; i < timerCount; i++) {
+      // Spread timers over several levels of the wheel.
+      mTiming.createTimer(i, 1 + (i * 37) % 20000, 0, false);
+    }
+    for (int i = 0; i < timerCount; i += 2) {
+      mTiming.deleteTimer(i);
+    }
+
+    ArgumentCaptor<JavaOnlyArray> timersCaptor = ArgumentCaptor.forClass(JavaOnlyArray.class);
+    for (int frame = 0; frame < 20000 / 17 + 2; frame++) {
+      stepChoreographerFrame();
+    }
+    verify(mJSTimersMock, atLeastOnce()).callTimers(timersCaptor.capture());
+
+    boolean[] fired = new boolean[timerCount];
+    int firedCount = 0;
+    for (JavaOnlyArray timers : timersCaptor.getAllValues()) {
+      for (int i = 0; i < timers.size(); i++) {
+        int id = timers.getInt(i);
+        assertThat(id % 2).isEqualTo(1);
+        assertThat(fired[id]).isFalse();
+        fired[id] = true;
+        firedCount++;
+      }
+    }
+    assertThat(firedCount).isEqualTo(timerCount / 2);
+  }
+
+  private void useBackgroundTimers() {
+    mTiming = new Timing(mReactContext, mock(DevSupportManager.class), false, true);
+    mTiming.initialize();
+    when(mReactContext.hasActiveCatalystInstance()).thenReturn(true);
+  }
+
+  private Runnable captureDelayedRunnable(long delayMs) {
+    ArgumentCaptor<Runnable> runnableCaptor = ArgumentCaptor.forClass(Runnable.class);
+    verify(mReactContext).runOnJSQueueThreadDelayed(runnableCaptor.capture(), eq(delayMs));
+    reset(mReactContext);
+    when(mReactContext.hasActiveCatalystInstance()).thenReturn(true);
+    when(mReactContext.getJSModule(JSTimersExecution.class)).thenReturn(mJSTimersMock);
+    return runnableCaptor.getValue();
+  }
+
+  private void advanceTimeMs(long timeMs) {
+    mCurrentTimeNs += timeMs * 1000000;
+    when(SystemClock.nanoTime()).thenReturn(mCurrentTimeNs);
+  }
+
+  @Test
+  public void testBackgroundTimerFiresFromJSThread() {
+    useBackgroundTimers();
+    mTiming.onHostResume();
+    mTiming.createTimer(1, 100, 0, false);
+    Runnable wakeup = captureDelayedRunnable(100);
+
+    // No frame aligned timers are pending, so the frame callback is not posted again.
+    stepChoreographerFrame();
+    assertThat(mPostFrameCallbackHandler.getAndResetFrameCallback()).isNull();
+    verifyNoMoreInteractions(mJSTimersMock);
+
+    advanceTimeMs(100);
+    wakeup.run();
+    verify(mJSTimersMock).callTimers(JavaOnlyArray.of(1));
+    verify(mReactContext, never()).runOnJSQueueThreadDelayed(any(Runnable.class), anyLong());
+  }
+
+  @Test
+  public void testBackgroundRecurringTimer() {
+    useBackgroundTimers();
+    mTiming.createTimer(100, 50, 0, true);
+    Runnable wakeup = captureDelayedRunnable(50);
+
+    advanceTimeMs(50);
+    wakeup.run();
+    verify(mJSTimersMock).callTimers(JavaOnlyArray.of(100));
+    wakeup = captureDelayedRunnable(50);
+
+    reset(mJSTimersMock);
+    mTiming.deleteTimer(100);
+    advanceTimeMs(50);
+    wakeup.run();
+    verifyNoMoreInteractions(mJSTimersMock);
+  }
+
+  @Test
+  public void testBackgroundTimerIgnoresStaleWakeup() {
+    useBackgroundTimers();
+    mTiming.createTimer(1, 200, 0, false);
+    Runnable staleWakeup = captureDelayedRunnable(200);
+    mTiming.createTimer(2, 50, 0, false);
+    Runnable wakeup = captureDelayedRunnable(50);
+    mTiming.deleteTimer(1);
+
+    advanceTimeMs(50);
+    wakeup.run();
+    verify(mJSTimersMock).callTimers(JavaOnlyArray.of(2));
+    verify(mReactContext, never()).runOnJSQueueThreadDelayed(any(Runnable.class), anyLong());
+
+    reset(mJSTimersMock);
+    mTiming.createTimer(3, 200, 0, false);
+    wakeup = captureDelayedRunnable(200);
+    advanceTimeMs(150);
+    staleWakeup.run();
+    verifyNoMoreInteractions(mJSTimersMock);
+
+    advanceTimeMs(50);
+    wakeup.run();
+    verify(mJSTimersMock).callTimers(JavaOnlyArray.of(3));
   }
 
   private static class PostFrameIdleCallbackHandler implements Answer<Void> {
@@ -0,0 +1,218 @@
+/**
+ * Copyright (c) 2015-present, Facebook, Inc.
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree. An additional grant
+ * of patent rights can be found in the PATENTS file in the same directory.
+ */
+
+package com.facebook.react.uimanager;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.powermock.core.classloader.annotations.PowerMockIgnore;
+import org.powermock.modules.junit4.rule.PowerMockRule;
+import org.robolectric.RobolectricTestRunner;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests for {@link ShadowNodeRegistry}.
+ */
+@RunWith(RobolectricTestRunner.class)
+@PowerMockIgnore({"org.mockito.*", "org.robolectric.*", "android.*"})
+public class ShadowNodeRegistryTest {
+
+  // Enough sequential tags to cover every shard many times.
+  private static final int NODE_COUNT = 1000;
+
+  @Rule
+  public PowerMockRule rule = new PowerMockRule();
+
+  private ShadowNodeRegistry mRegistry;
+
+  @Before
+  public void setUp() {
+    mRegistry = new ShadowNodeRegistry();
+  }
+
+  private static ReactShadowNode createNode(int tag) {
+    // Virtual nodes don't need a YogaNode.
+    ReactShadowNode node = new ReactShadowNode() {
+      @Override
+      public boolean isVirtual() {
+        return true;
+      }
+    };
+    node.setReactTag(tag);
+    return node;
+  }
+
+  private static Throwable runOnOtherThread(Runnable runnable) throws InterruptedException {
+    final AtomicReference<Throwable> error = new AtomicReference<>();
+    Thread thread = new Thread(runnable);
+    thread.setUncaughtExceptionHandler(
+        new Thread.UncaughtExceptionHandler() {
+          @Override
+          public void uncaughtException(Thread t, Throwable e) {
+            error.set(e);
+          }
+        });
+    thread.start();
+    thread.join();
+    return error.get();
+  }
+
+  @Test
+  public void testAddGetAndRemoveNodes() {
+    ReactShadowNode[] nodes = new ReactShadowNode[NODE_COUNT];
+    for (int i = 0; i < NODE_COUNT; i++) {
+      nodes[i] = createNode(i + 1);
+      mRegistry.addNode(nodes[i]);
+    }
+    for (int i = 0; i < NODE_COUNT; i++) {
+      assertThat(mRegistry.getNode(i + 1)).isSameAs(nodes[i]);
+      assertThat(mRegistry.getNodeFromAnyThread(i + 1)).isSameAs(nodes[i]);
+    }
+    assertThat(mRegistry.getNode(0)).isNull();
+    assertThat(mRegistry.getNode(NODE_COUNT + 1)).isNull();
+
+    for (int i = 0; i < NODE_COUNT; i += 2) {
+      mRegistry.removeNode(i + 1);
+    }
+    for (int i = 0; i < NODE_COUNT; i++) {
+      ReactShadowNode expected = i % 2 == 0 ? null : nodes[i];
+      assertThat(mRegistry.getNode(i + 1)).isSameAs(expected);
+      assertThat(mRegistry.getNodeFromAnyThread(i + 1)).isSameAs(expected);
+    }
+
+    // Replacing a node under the same tag.
+    ReactShadowNode replacement = createNode(2);
+    mRegistry.addNode(replacement);
+    assertThat(mRegistry.getNode(2)).isSameAs(replacement);
+    assertThat(mRegistry.getRootNodeCount()).isEqualTo(0);
+  }
+
+  @Test
+  public void testRootNodes() {
+    ReactShadowNode root = createNode(1);
+    ReactShadowNode otherRoot = createNode(11);
+    mRegistry.addRootNode(root);
+    mRegistry.addRootNode(otherRoot);
+    mRegistry.addNode(createNode(2));
+
+    assertThat(mRegistry.getNode(1)).isSameAs(root);
+    assertThat(mRegistry.getNode(11)).isSameAs(otherRoot);
+    assertThat(mRegistry.isRootNode(1)).isTrue();
+    assertThat(mRegistry.isRootNode(11)).isTrue();
+    assertThat(mRegistry.isRootNode(2)).isFalse();
+    assertThat(mRegistry.getRootNodeCount()).isEqualTo(2);
+    assertThat(mRegistry.getRootTag(0)).isEqualTo(1);
+    assertThat(mRegistry.getRootTag(1)).isEqualTo(11);
+
+    try {
+      mRegistry.removeNode(1);
+      fail("Expected removing a root node with removeNode to throw");
+    } catch (IllegalViewOperationException e) {
+      // expected
+    }
+    try {
+      mRegistry.removeRootNode(2);
+      fail("Expected removing a non-root node with removeRootNode to throw");
+    } catch (IllegalViewOperationException e) {
+      // expected
+    }
+    assertThat(mRegistry.getNode(1)).isSameAs(root);
+    assertThat(mRegistry.getNode(2)).isNotNull();
+
+    mRegistry.removeRootNode(1);
+    assertThat(mRegistry.getNode(1)).isNull();
+    assertThat(mRegistry.isRootNode(1)).isFalse();
+    assertThat(mRegistry.getRootNodeCount()).isEqualTo(1);
+    assertThat(mRegistry.getRootTag(0)).isEqualTo(11);
+  }
+
+  @Test
+  public void testGetNodeAssertsOwningThread() throws InterruptedException {
+    final ReactShadowNode node = createNode(1);
+    mRegistry.addNode(node);
+
+    assertThat(runOnOtherThread(
+        new Runnable() {
+          @Override
+          public void run() {
+            mRegistry.getNode(1);
+          }
+        })).isInstanceOf(AssertionError.class);
+
+    assertThat(runOnOtherThread(
+        new Runnable() {
+          @Override
+          public void run() {
+            if (mRegistry.getNodeFromAnyThread(1) != node) {
+              throw new IllegalStateException("Wrong node for tag 1");
+            }
+          }
+        })).isNull();
+  }
+
+  @Test
+  public void testReadFromOtherThreadDuringChurn() throws InterruptedException {
+    // Nodes with even tags stay registered, nodes with odd tags are added and removed.
+    final ReactShadowNode[] nodes = new ReactShadowNode[NODE_COUNT];
+    for (int i = 0; i < NODE_COUNT; i++) {
+      nodes[i] = createNode(i);
+      if (i % 2 == 0) {
+        mRegistry.addNode(nodes[i]);
+      }
+    }
+
+    final AtomicBoolean done = new AtomicBoolean();
+    final AtomicReference<Throwable> error = new AtomicReference<>();
+    Thread reader = new Thread(
+        new Runnable() {
+          @Override
+          public void run() {
+            try {
+              while (!done.get()) {
+                for (int i = 0; i < NODE_COUNT; i++) {
+                  ReactShadowNode node = mRegistry.getNodeFromAnyThread(i);
+                  if (i % 2 == 0 ? node != nodes[i] : node != null && node != nodes[i]) {
+                    throw new IllegalStateException("Wrong node for tag " + i);
+                  }
+                }
+              }
+            } catch (Throwable e) {
+              error.set(e);
+            }
+          }
+        });
+    reader.start();
+
+    try {
+      for (int round = 0; round < 200; round++) {
+        for (int i = 1; i < NODE_COUNT; i += 2) {
+          mRegistry.addNode(nodes[i]);
+        }
+        for (int i = 1; i < NODE_COUNT; i += 2) {
+          mRegistry.removeNode(i);
+        }
+      }
+    } finally {
+      done.set(true);
+      reader.join();
+    }
+
+    assertThat(error.get()).isNull();
+    for (int i = 0; i < NODE_COUNT; i++) {
+      assertThat(mRegistry.getNode(i)).isSameAs(i % 2 == 0 ? nodes[i] : null);
+    }
+  }
+}
@@ -534,6 +534,37 @@ public class UIManagerModuleTest {
     assertThat(view0.getLeft()).isEqualTo(1);
   }
 
+  @Test
+  public void testOnlyRootsWithUpdatesAreLaidOut() {
+    UIManagerModule uiManager = getUIManagerModule();
+
+    TestMoveDeleteHierarchy hierarchy = createMoveDeleteHierarchy(uiManager);
+    TestMoveDeleteHierarchy otherHierarchy = createMoveDeleteHierarchy(uiManager);
+    double layoutCount = uiManager.getPerformanceCounters().get("LayoutCount");
+
+    // A prop that doesn't affect the shadow hierarchy doesn't require any layout
+    uiManager.updateView(
+        hierarchy.view0,
+        ReactViewManager.REACT_CLASS,
+        JavaOnlyMap.of("backgroundColor", Color.RED));
+    uiManager.onBatchComplete();
+    executePendingFrameCallbacks();
+    assertThat(uiManager.getPerformanceCounters().get("LayoutCount")).isEqualTo(layoutCount);
+
+    // Only the root whose hierarchy changed gets laid out
+    uiManager.updateView(
+        otherHierarchy.view0,
+        ReactViewManager.REACT_CLASS,
+        JavaOnlyMap.of("width", 30.0, "height", 40.0));
+    uiManager.onBatchComplete();
+    executePendingFrameCallbacks();
+    assertThat(uiManager.getPerformanceCounters().get("LayoutCount")).isEqualTo(layoutCount + 1);
+
+    View view0 = otherHierarchy.nativeRootView.getChildAt(0);
+    assertThat(view0.getWidth()).isEqualTo(30);
+    assertThat(view0.getHeight()).isEqualTo(40);
+  }
+
   private static class AnimationStub extends Animation {
 
     public AnimationStub(int animationID, AnimationPropertyUpdater propertyUpdater) {
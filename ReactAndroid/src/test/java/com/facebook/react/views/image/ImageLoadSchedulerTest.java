@@ -0,0 +1,192 @@
+/**
+ * Copyright (c) 2015-present, Facebook, Inc.
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree. An additional grant
+ * of patent rights can be found in the PATENTS file in the same directory.
+ */
+
+package com.facebook.react.views.image;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import android.view.View;
+import android.view.ViewTreeObserver;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.powermock.core.classloader.annotations.PowerMockIgnore;
+import org.powermock.modules.junit4.rule.PowerMockRule;
+import org.powermock.reflect.Whitebox;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+/**
+ * Tests the order in which {@link ImageLoadScheduler} starts and cancels requests.
+ */
+@RunWith(RobolectricTestRunner.class)
+@PowerMockIgnore({"org.mockito.*", "org.robolectric.*", "android.*"})
+public class ImageLoadSchedulerTest {
+
+  @Rule
+  public PowerMockRule rule = new PowerMockRule();
+
+  private final List<String> mEvents = new ArrayList<>();
+
+  private class FakeRequest implements ImageLoadScheduler.Request {
+
+    private final String mName;
+    private float mViewportDistance;
+
+    FakeRequest(String name, float viewportDistance) {
+      mName = name;
+      mViewportDistance = viewportDistance;
+    }
+
+    @Override
+    public float getViewportDistance() {
+      return mViewportDistance;
+    }
+
+    @Override
+    public void start() {
+      mEvents.add("start " + mName);
+    }
+
+    @Override
+    public void cancel() {
+      mEvents.add("cancel " + mName);
+    }
+  }
+
+  @Test
+  public void testStartsClosestRequestsFirst() {
+    ImageLoadScheduler scheduler = new ImageLoadScheduler(1, Float.POSITIVE_INFINITY);
+    FakeRequest visible = new FakeRequest("visible", 0);
+    FakeRequest near = new FakeRequest("near", 100);
+    FakeRequest far = new FakeRequest("far", 2000);
+
+    scheduler.enqueue(visible);
+    scheduler.enqueue(far);
+    scheduler.enqueue(near);
+    assertThat(mEvents).containsExactly("start visible");
+
+    scheduler.onLoadFinished(visible);
+    scheduler.onLoadFinished(near);
+    assertThat(mEvents).containsExactly("start visible", "start near", "start far");
+  }
+
+  @Test
+  public void testBoundsConcurrentLoads() {
+    ImageLoadScheduler scheduler = new ImageLoadScheduler(2, Float.POSITIVE_INFINITY);
+    FakeRequest[] requests = new FakeRequest[5];
+    for (int i = 0; i < requests.length; i++) {
+      requests[i] = new FakeRequest("r" + i, 0);
+      scheduler.enqueue(requests[i]);
+    }
+
+    assertThat(scheduler.getLoadingRequestCount()).isEqualTo(2);
+    assertThat(scheduler.getPendingRequestCount()).isEqualTo(3);
+    assertThat(mEvents).containsExactly("start r0", "start r1");
+
+    // Enqueuing a request again doesn't start it twice.
+    scheduler.enqueue(requests[1]);
+    scheduler.onLoadFinished(requests[1]);
+    assertThat(mEvents).containsExactly("start r0", "start r1", "start r2");
+
+    scheduler.remove(requests[3]);
+    scheduler.remove(requests[0]);
+    assertThat(mEvents).containsExactly("start r0", "start r1", "start r2", "start r4");
+    assertThat(scheduler.getPendingRequestCount()).isEqualTo(0);
+  }
+
+  @Test
+  public void testCancelsRequestsThatLeaveTheViewport() {
+    ImageLoadScheduler scheduler = new ImageLoadScheduler(2, 500);
+    FakeRequest first = new FakeRequest("first", 0);
+    FakeRequest second = new FakeRequest("second", 200);
+    FakeRequest offscreen = new FakeRequest("offscreen", 800);
+
+    scheduler.enqueue(first);
+    scheduler.enqueue(second);
+    scheduler.enqueue(offscreen);
+    scheduler.onLoadFinished(second);
+    // The free slot isn't used for a request that is too far away.
+    assertThat(mEvents).containsExactly("start first", "start second");
+    assertThat(scheduler.getPendingRequestCount()).isEqualTo(1);
+
+    // Scroll so that the first request goes off screen and the other one comes into view.
+    first.mViewportDistance = 900;
+    offscreen.mViewportDistance = 0;
+    scheduler.onViewportChanged();
+
+    assertThat(mEvents)
+        .containsExactly("start first", "start second", "cancel first", "start offscreen");
+    assertThat(scheduler.isLoading(first)).isFalse();
+    assertThat(scheduler.isLoading(offscreen)).isTrue();
+    assertThat(scheduler.getPendingRequestCount()).isEqualTo(1);
+  }
+
+  private static void scroll(ViewTreeObserver viewTreeObserver) throws Exception {
+    Whitebox.invokeMethod(viewTreeObserver, "dispatchOnScrollChanged");
+  }
+
+  @Test
+  public void testReRanksWhenAnyWatchedWindowScrolls() throws Exception {
+    ImageLoadScheduler scheduler = new ImageLoadScheduler(1, 500);
+    // The observers of two windows, e.g. the main one and a Modal.
+    ViewTreeObserver window = new View(RuntimeEnvironment.application).getViewTreeObserver();
+    ViewTreeObserver modal = new View(RuntimeEnvironment.application).getViewTreeObserver();
+    // Two images in the main window and one in the Modal.
+    scheduler.watchViewport(window);
+    scheduler.watchViewport(window);
+    scheduler.watchViewport(modal);
+    assertThat(scheduler.getWatchedViewTreeCount()).isEqualTo(2);
+
+    FakeRequest inWindow = new FakeRequest("inWindow", 0);
+    FakeRequest inModal = new FakeRequest("inModal", 800);
+    scheduler.enqueue(inWindow);
+    scheduler.enqueue(inModal);
+    assertThat(mEvents).containsExactly("start inWindow");
+
+    // The Modal was attached last, scrolling the main window still re-ranks.
+    inWindow.mViewportDistance = 900;
+    inModal.mViewportDistance = 0;
+    scroll(window);
+    assertThat(mEvents).containsExactly("start inWindow", "cancel inWindow", "start inModal");
+
+    inWindow.mViewportDistance = 0;
+    inModal.mViewportDistance = 900;
+    scroll(modal);
+    assertThat(mEvents).containsExactly(
+        "start inWindow",
+        "cancel inWindow",
+        "start inModal",
+        "cancel inModal",
+        "start inWindow");
+
+    // Once the last image left the Modal, its scrolls are ignored, while the main window is
+    // watched until both of its images left.
+    scheduler.unwatchViewport(modal);
+    scheduler.unwatchViewport(window);
+    assertThat(scheduler.getWatchedViewTreeCount()).isEqualTo(1);
+    mEvents.clear();
+    inWindow.mViewportDistance = 900;
+    inModal.mViewportDistance = 0;
+    scroll(modal);
+    assertThat(mEvents).isEmpty();
+    scroll(window);
+    assertThat(mEvents).containsExactly("cancel inWindow", "start inModal");
+
+    scheduler.unwatchViewport(window);
+    assertThat(scheduler.getWatchedViewTreeCount()).isEqualTo(0);
+    // Unwatching an observer that isn't watched anymore does nothing.
+    scheduler.unwatchViewport(window);
+    assertThat(scheduler.getWatchedViewTreeCount()).isEqualTo(0);
+  }
+}
@@ -34,9 +34,11 @@ import org.robolectric.RobolectricTestRunner;
 import org.robolectric.RuntimeEnvironment;
 import org.robolectric.Robolectric;
 
+import static org.fest.assertions.api.Assertions.assertThat;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 
 /**
  * Verify that {@link ScalingUtils} properties are being applied correctly
@@ -136,4 +138,61 @@ public class ReactImagePropertyTest {
     viewManager.updateProperties(view, buildStyles("tintColor", null));
     assertNull(view.getColorFilter());
   }
+
+  @Test
+  public void testLayoutSizeHintStartsResizedLoad() {
+    ReactImageManager viewManager = new ReactImageManager();
+    ReactImageView view = viewManager.createViewInstance(mThemeContext);
+    viewManager.updateProperties(
+      view,
+      buildStyles(
+        "resizeMethod", "resize",
+        "src", JavaOnlyArray.of(JavaOnlyMap.of("uri", "http://mysite.com/mypic.jpg"))));
+    // Without a size the resized request can't be made yet.
+    assertNull(view.getController());
+
+    // The layout size lets the view make it before it is laid out or attached.
+    viewManager.updateExtraData(view, new ReactImageShadowNode.LayoutSize(200, 100));
+    Object controller = view.getController();
+    assertNotNull(controller);
+
+    viewManager.updateExtraData(view, new ReactImageShadowNode.LayoutSize(200, 100));
+    assertSame(controller, view.getController());
+  }
+
+  @Test
+  public void testLayoutSizeHintKeepsScaledImages() {
+    for (String resizeMethod : new String[] {"auto", "scale"}) {
+      ReactImageManager viewManager = new ReactImageManager();
+      ReactImageView view = viewManager.createViewInstance(mThemeContext);
+      viewManager.updateProperties(
+        view,
+        buildStyles(
+          "resizeMethod", resizeMethod,
+          "src", JavaOnlyArray.of(JavaOnlyMap.of("uri", "http://mysite.com/mypic.jpg"))));
+      Object controller = view.getController();
+      assertNotNull(controller);
+
+      viewManager.updateExtraData(view, new ReactImageShadowNode.LayoutSize(200, 100));
+      assertSame(controller, view.getController());
+    }
+  }
+
+  @Test
+  public void testDroppingUnattachedViewRemovesItFromScheduler() {
+    ImageLoadScheduler scheduler = new ImageLoadScheduler();
+    ReactImageManager viewManager =
+      new ReactImageManager(Fresco.newDraweeControllerBuilder(), null, scheduler);
+    ReactImageView view = viewManager.createViewInstance(mThemeContext);
+    viewManager.updateProperties(
+      view,
+      buildStyles("src", JavaOnlyArray.of(JavaOnlyMap.of("uri", "http://mysite.com/mypic.jpg"))));
+    // A view that isn't in a window waits for its turn.
+    assertThat(scheduler.getPendingRequestCount()).isEqualTo(1);
+
+    // E.g. a row of a clipped subtree that gets unmounted without ever being attached.
+    viewManager.onDropViewInstance(view);
+    assertThat(scheduler.getPendingRequestCount()).isEqualTo(0);
+    assertThat(scheduler.getLoadingRequestCount()).isEqualTo(0);
+  }
 }
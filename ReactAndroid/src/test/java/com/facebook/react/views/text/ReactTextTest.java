@@ -11,6 +11,7 @@ package com.facebook.react.views.text;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
 
 import android.annotation.TargetApi;
@@ -21,6 +22,7 @@ import android.os.Build;
 import android.text.Spanned;
 import android.text.TextUtils;
 import android.text.style.AbsoluteSizeSpan;
+import android.text.style.ForegroundColorSpan;
 import android.text.style.StrikethroughSpan;
 import android.text.style.UnderlineSpan;
 import android.widget.TextView;
@@ -364,6 +366,126 @@ public class ReactTextTest {
     assertThat(textView.getEllipsize()).isEqualTo(TextUtils.TruncateAt.END);
   }
 
+  @Test
+  public void testLayoutCachedForIdenticalText() {
+    UIManagerModule uiManager = getUIManagerModule();
+    TextLayoutCache.getInstance().clear();
+
+    createText(
+        uiManager,
+        JavaOnlyMap.of(ViewProps.FONT_SIZE, 21.0),
+        JavaOnlyMap.of(ReactTextShadowNode.PROP_TEXT, "test text"));
+    int hitCount = TextLayoutCache.getInstance().getHitCount();
+    assertThat(TextLayoutCache.getInstance().getSize()).isGreaterThan(0);
+
+    createText(
+        uiManager,
+        JavaOnlyMap.of(ViewProps.FONT_SIZE, 21.0),
+        JavaOnlyMap.of(ReactTextShadowNode.PROP_TEXT, "test text"));
+    assertThat(TextLayoutCache.getInstance().getHitCount()).isGreaterThan(hitCount);
+
+    // A different style must not reuse the layout.
+    int missCount = TextLayoutCache.getInstance().getMissCount();
+    createText(
+        uiManager,
+        JavaOnlyMap.of(ViewProps.FONT_SIZE, 22.0),
+        JavaOnlyMap.of(ReactTextShadowNode.PROP_TEXT, "test text"));
+    assertThat(TextLayoutCache.getInstance().getMissCount()).isGreaterThan(missCount);
+  }
+
+  @Test
+  public void testUnchangedVirtualTextSpansReused() {
+    UIManagerModule uiManager = getUIManagerModule();
+
+    ReactRootView rootView = new ReactRootView(RuntimeEnvironment.application);
+    int rootTag = uiManager.addMeasuredRootView(rootView);
+    int textTag = rootTag + 1;
+    uiManager.createView(textTag, ReactTextViewManager.REACT_CLASS, rootTag, JavaOnlyMap.of());
+
+    // 100 nested texts of 100 characters each.
+    int segmentCount = 100;
+    int segmentLength = 100;
+    StringBuilder segmentText = new StringBuilder();
+    for (int i = 0; i < segmentLength; i++) {
+      segmentText.append('a');
+    }
+    JavaOnlyArray virtualTextTags = new JavaOnlyArray();
+    JavaOnlyArray indices = new JavaOnlyArray();
+    for (int i = 0; i < segmentCount; i++) {
+      int virtualTextTag = textTag + 1 + 2 * i;
+      int rawTextTag = virtualTextTag + 1;
+      uiManager.createView(
+          virtualTextTag,
+          ReactVirtualTextViewManager.REACT_CLASS,
+          rootTag,
+          JavaOnlyMap.of(ViewProps.COLOR, Color.BLUE));
+      uiManager.createView(
+          rawTextTag,
+          ReactRawTextManager.REACT_CLASS,
+          rootTag,
+          JavaOnlyMap.of(ReactTextShadowNode.PROP_TEXT, segmentText.toString()));
+      uiManager.manageChildren(
+          virtualTextTag,
+          null,
+          null,
+          JavaOnlyArray.of(rawTextTag),
+          JavaOnlyArray.of(0),
+          null);
+      virtualTextTags.pushInt(virtualTextTag);
+      indices.pushInt(i);
+    }
+    uiManager.manageChildren(textTag, null, null, virtualTextTags, indices, null);
+    uiManager.manageChildren(
+        rootTag,
+        null,
+        null,
+        JavaOnlyArray.of(textTag),
+        JavaOnlyArray.of(0),
+        null);
+    uiManager.onBatchComplete();
+    executePendingFrameCallbacks();
+
+    TextView textView = (TextView) rootView.getChildAt(0);
+    ForegroundColorSpan[] colorSpansBefore = getSortedColorSpans((Spanned) textView.getText());
+    assertThat(colorSpansBefore).hasSize(segmentCount);
+
+    // Change the color of one segment at a time, only that segment's spans are created again.
+    for (int changed = 0; changed < segmentCount; changed += 33) {
+      uiManager.updateView(
+          virtualTextTags.getInt(changed),
+          ReactVirtualTextViewManager.REACT_CLASS,
+          JavaOnlyMap.of(ViewProps.COLOR, Color.RED));
+      uiManager.onBatchComplete();
+      executePendingFrameCallbacks();
+
+      Spanned text = (Spanned) textView.getText();
+      assertThat(text.length()).isEqualTo(segmentCount * segmentLength);
+      ForegroundColorSpan[] colorSpans = getSortedColorSpans(text);
+      assertThat(colorSpans).hasSize(segmentCount);
+      for (int i = 0; i < segmentCount; i++) {
+        assertThat(text.getSpanStart(colorSpans[i])).isEqualTo(i * segmentLength);
+        assertThat(text.getSpanEnd(colorSpans[i])).isEqualTo((i + 1) * segmentLength);
+        if (i == changed) {
+          assertThat(colorSpans[i].getForegroundColor()).isEqualTo(Color.RED);
+        } else {
+          assertThat(colorSpans[i]).isSameAs(colorSpansBefore[i]);
+        }
+      }
+      colorSpansBefore = colorSpans;
+    }
+  }
+
+  private static ForegroundColorSpan[] getSortedColorSpans(final Spanned text) {
+    ForegroundColorSpan[] spans = text.getSpans(0, text.length(), ForegroundColorSpan.class);
+    Arrays.sort(spans, new Comparator<ForegroundColorSpan>() {
+      @Override
+      public int compare(ForegroundColorSpan lhs, ForegroundColorSpan rhs) {
+        return text.getSpanStart(lhs) - text.getSpanStart(rhs);
+      }
+    });
+    return spans;
+  }
+
   /**
    * Make sure TextView has exactly one span and that span has given type.
    */
@@ -430,6 +552,7 @@ public class ReactTextTest {
         new ViewManager[] {
             new ReactTextViewManager(),
             new ReactRawTextManager(),
+            new ReactVirtualTextViewManager(),
         });
     UIManagerModule uiManagerModule = new UIManagerModule(
         reactContext,
@@ -0,0 +1,240 @@
+/**
+ * Copyright (c) 2015-present, Facebook, Inc.
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree. An additional grant
+ * of patent rights can be found in the PATENTS file in the same directory.
+ */
+
+package com.facebook.react.views.text;
+
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.Path;
+import android.support.v4.view.ViewCompat;
+import android.text.BoringLayout;
+import android.text.Layout;
+import android.text.SpannableString;
+import android.text.StaticLayout;
+import android.text.TextPaint;
+import android.view.Gravity;
+import android.view.View;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.powermock.core.classloader.annotations.PowerMockIgnore;
+import org.powermock.modules.junit4.rule.PowerMockRule;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Tests when {@link ReactTextView} hands the layout measured by the shadow node to TextView instead
+ * of letting it build its own.
+ */
+@RunWith(RobolectricTestRunner.class)
+@PowerMockIgnore({"org.mockito.*", "org.robolectric.*", "android.*"})
+public class ReactTextViewTest {
+
+  private static final int WIDTH = 200;
+  private static final int HEIGHT = 100;
+
+  @Rule
+  public PowerMockRule rule = new PowerMockRule();
+
+  private ReactTextView mView;
+
+  @Before
+  public void setUp() {
+    mView = new ReactTextView(RuntimeEnvironment.application);
+  }
+
+  private Layout createLayout(String text, int width) {
+    return spy(new StaticLayout(
+        text,
+        new TextPaint(TextPaint.ANTI_ALIAS_FLAG),
+        width,
+        Layout.Alignment.ALIGN_NORMAL,
+        1.f,
+        0.f,
+        true));
+  }
+
+  private void setText(String text, Layout layout, int textAlign) {
+    mView.setText(new ReactTextUpdate(
+        new SpannableString(text),
+        -1,
+        false,
+        0,
+        0,
+        0,
+        0,
+        textAlign,
+        Layout.BREAK_STRATEGY_HIGH_QUALITY,
+        layout));
+  }
+
+  private void measureAndLayout(int width, int height) {
+    mView.measure(
+        View.MeasureSpec.makeMeasureSpec(width, View.MeasureSpec.EXACTLY),
+        View.MeasureSpec.makeMeasureSpec(height, View.MeasureSpec.EXACTLY));
+    mView.layout(0, 0, width, height);
+  }
+
+  private static void verifyDrawn(Layout layout) {
+    verify(layout).draw(any(Canvas.class), any(Path.class), any(Paint.class), anyInt());
+  }
+
+  private void assertUsesPrecomputedLayout(Layout layout) {
+    assertThat(mView.getLayout()).isSameAs(layout);
+    mView.onDraw(new Canvas());
+    verifyDrawn(layout);
+  }
+
+  private void assertFallsBack(Layout layout) {
+    assertThat(mView.getLayout()).isNotNull().isNotSameAs(layout);
+    mView.onDraw(new Canvas());
+    verify(layout, never()).draw(any(Canvas.class), any(Path.class), any(Paint.class), anyInt());
+    verify(layout, never()).draw(any(Canvas.class));
+  }
+
+  @Test
+  public void testUsesPrecomputedLayoutWhenItMatches() {
+    Layout layout = createLayout("Hello", WIDTH);
+    setText("Hello", layout, Gravity.NO_GRAVITY);
+    measureAndLayout(WIDTH, HEIGHT);
+
+    assertThat(mView.getMeasuredWidth()).isEqualTo(WIDTH);
+    assertThat(mView.getMeasuredHeight()).isEqualTo(HEIGHT);
+    assertUsesPrecomputedLayout(layout);
+    // TextView itself works with the layout it got handed.
+    assertThat(mView.getLineCount()).isEqualTo(layout.getLineCount());
+    assertThat(mView.getBaseline())
+        .isEqualTo(mView.getExtendedPaddingTop() + layout.getLineBaseline(0));
+  }
+
+  @Test
+  public void testUsesPrecomputedLayoutForNewTextOfSameWidth() {
+    setText("Hello", createLayout("Hello", WIDTH), Gravity.NO_GRAVITY);
+    measureAndLayout(WIDTH, HEIGHT);
+
+    // The size doesn't change, so the view isn't measured again.
+    Layout layout = createLayout("World", WIDTH);
+    setText("World", layout, Gravity.NO_GRAVITY);
+    assertUsesPrecomputedLayout(layout);
+  }
+
+  @Test
+  public void testReplacesPrecomputedLayoutWhenWidthChanges() {
+    Layout layout = createLayout("Hello", WIDTH);
+    setText("Hello", layout, Gravity.NO_GRAVITY);
+    measureAndLayout(WIDTH, HEIGHT);
+    assertThat(mView.getLayout()).isSameAs(layout);
+
+    measureAndLayout(WIDTH + 50, HEIGHT);
+    assertFallsBack(layout);
+    // The layout of the shadow node is left as it was.
+    assertThat(layout.getWidth()).isEqualTo(WIDTH);
+  }
+
+  @Test
+  public void testDoesNotHandOverBoringLayouts() {
+    TextPaint paint = new TextPaint(TextPaint.ANTI_ALIAS_FLAG);
+    BoringLayout.Metrics metrics = BoringLayout.isBoring("Hello", paint);
+    Layout layout = spy(BoringLayout.make(
+        "Hello",
+        paint,
+        WIDTH,
+        Layout.Alignment.ALIGN_NORMAL,
+        1.f,
+        0.f,
+        metrics,
+        true));
+    setText("Hello", layout, Gravity.NO_GRAVITY);
+    measureAndLayout(WIDTH, HEIGHT);
+
+    assertFallsBack(layout);
+  }
+
+  @Test
+  public void testDrawsPrecomputedLayoutWithViewTextColor() {
+    final Layout layout = createLayout("Hello", WIDTH);
+    layout.getPaint().setColor(Color.BLACK);
+    setText("Hello", layout, Gravity.NO_GRAVITY);
+    mView.setTextColor(0xDE000000);
+    measureAndLayout(WIDTH, HEIGHT);
+
+    final int[] drawColor = new int[1];
+    doAnswer(new Answer<Void>() {
+      @Override
+      public Void answer(InvocationOnMock invocation) throws Throwable {
+        drawColor[0] = layout.getPaint().getColor();
+        return null;
+      }
+    }).when(layout).draw(any(Canvas.class), any(Path.class), any(Paint.class), anyInt());
+
+    mView.onDraw(new Canvas());
+    assertThat(drawColor[0]).isEqualTo(0xDE000000);
+  }
+
+  @Test
+  public void testFallsBackOnWidthMismatch() {
+    Layout layout = createLayout("Hello", WIDTH - 50);
+    setText("Hello", layout, Gravity.NO_GRAVITY);
+    measureAndLayout(WIDTH, HEIGHT);
+
+    assertFallsBack(layout);
+  }
+
+  @Test
+  public void testFallsBackOnGravityMismatch() {
+    Layout layout = createLayout("Hello", WIDTH);
+    setText("Hello", layout, Gravity.CENTER_HORIZONTAL);
+    measureAndLayout(WIDTH, HEIGHT);
+
+    assertFallsBack(layout);
+  }
+
+  @Test
+  public void testFallsBackOnRtl() {
+    Layout layout = createLayout("Hello", WIDTH);
+    setText("Hello", layout, Gravity.NO_GRAVITY);
+    ViewCompat.setLayoutDirection(mView, ViewCompat.LAYOUT_DIRECTION_RTL);
+    measureAndLayout(WIDTH, HEIGHT);
+
+    assertFallsBack(layout);
+  }
+
+  @Test
+  public void testFallsBackWhenSelectable() {
+    Layout layout = createLayout("Hello", WIDTH);
+    setText("Hello", layout, Gravity.NO_GRAVITY);
+    mView.setTextIsSelectable(true);
+    measureAndLayout(WIDTH, HEIGHT);
+
+    assertFallsBack(layout);
+  }
+
+  @Test
+  public void testFallsBackWhenLinesExceedNumberOfLines() {
+    Layout layout = createLayout("Hello\nWorld", WIDTH);
+    setText("Hello\nWorld", layout, Gravity.NO_GRAVITY);
+    mView.setNumberOfLines(1);
+    measureAndLayout(WIDTH, HEIGHT);
+
+    assertFallsBack(layout);
+  }
+}